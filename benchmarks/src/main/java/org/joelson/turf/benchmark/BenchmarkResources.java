@@ -0,0 +1,151 @@
+package org.joelson.turf.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.joelson.turf.util.JacksonUtil;
+import org.joelson.turf.util.TimeUtil;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Benchmark data, read from the test resources of the resources project or generated from them. The feed fixtures
+ * are only a few feed objects, so larger feeds are generated by varying the time, zone and position of the fixture
+ * takeovers.
+ */
+final class BenchmarkResources {
+
+    private static final String TAKEOVER_FIXTURE = "/feeds_v5/feeds_takeover_2024-06-15_19-20-11.json";
+    static final long LAST_TAKEOVER_TIME = Instant.parse("2024-06-15T19:20:11Z").getEpochSecond();
+    private static final int ZONES = 5000;
+
+    private BenchmarkResources() throws InstantiationException {
+        throw new InstantiationException("Should not be instantiated!");
+    }
+
+    static byte[] readBytes(String resource) throws IOException {
+        try (InputStream in = BenchmarkResources.class.getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IOException("Missing resource " + resource);
+            }
+            return in.readAllBytes();
+        }
+    }
+
+    static String readString(String resource) throws IOException {
+        return new String(readBytes(resource), StandardCharsets.UTF_8);
+    }
+
+    static Path copyResource(String resource, Path directory) throws IOException {
+        Path path = directory.resolve(resource.substring(resource.lastIndexOf('/') + 1));
+        Files.write(path, readBytes(resource));
+        return path;
+    }
+
+    private static List<ObjectNode> readTakeoverTemplates() throws IOException {
+        List<ObjectNode> templates = new ArrayList<>();
+        for (JsonNode node : JacksonUtil.readValue(readString(TAKEOVER_FIXTURE), JsonNode[].class)) {
+            templates.add((ObjectNode) node);
+        }
+        return templates;
+    }
+
+    /**
+     * Returns API v5 takeovers in descending time order, as in a feed, seven seconds apart.
+     *
+     * @param count     number of takeovers
+     * @param startTime epoch second of the last takeover
+     */
+    static List<ObjectNode> createTakeovers(int count, long startTime) throws IOException {
+        List<ObjectNode> templates = readTakeoverTemplates();
+        List<ObjectNode> takeovers = new ArrayList<>(count);
+        for (int i = 0; i < count; i += 1) {
+            ObjectNode takeover = templates.get(i % templates.size()).deepCopy();
+            int zoneId = 1000 + (int) ((long) i * 7919 % ZONES);
+            double latitude = 55.0 + (zoneId % 100) * 0.1;
+            double longitude = 11.0 + (zoneId / 100) * 0.2;
+            takeover.put("time", TimeUtil.epochSecondToTurfAPITimestamp(startTime - i * 7L));
+            takeover.put("latitude", latitude);
+            takeover.put("longitude", longitude);
+            ObjectNode zone = (ObjectNode) takeover.get("zone");
+            zone.put("id", zoneId);
+            zone.put("name", "Zone" + zoneId);
+            zone.put("latitude", latitude);
+            zone.put("longitude", longitude);
+            takeovers.add(takeover);
+        }
+        return takeovers;
+    }
+
+    /**
+     * Converts API v5 takeovers to API v4 takeovers, without zone type, region area and assists.
+     */
+    static List<ObjectNode> toV4Takeovers(List<ObjectNode> takeovers) {
+        List<ObjectNode> v4Takeovers = new ArrayList<>(takeovers.size());
+        for (ObjectNode takeover : takeovers) {
+            ObjectNode v4Takeover = takeover.deepCopy();
+            v4Takeover.remove("assists");
+            ObjectNode zone = (ObjectNode) v4Takeover.get("zone");
+            zone.remove("type");
+            ((ObjectNode) zone.get("region")).remove("area");
+            v4Takeovers.add(v4Takeover);
+        }
+        return v4Takeovers;
+    }
+
+    static String toJson(List<? extends JsonNode> nodes) {
+        ArrayNode array = JsonNodeFactory.instance.arrayNode(nodes.size());
+        array.addAll(nodes);
+        return array.toString();
+    }
+
+    /**
+     * Creates a feeds_v5 directory with feed files of generated takeovers.
+     *
+     * @return the feeds_v5 directory
+     */
+    static Path createFeedsV5Directory(Path directory, int files, int takeoversPerFile) throws IOException {
+        Path feedsV5Path = Files.createDirectories(directory.resolve("feeds_v5"));
+        for (int i = 0; i < files; i += 1) {
+            long lastTime = LAST_TAKEOVER_TIME + (long) i * takeoversPerFile * 7;
+            String timeString = TimeUtil.epochSecondToTurfAPITimestamp(lastTime).substring(0, 19)
+                    .replace('T', '_').replace(':', '-');
+            Files.writeString(feedsV5Path.resolve("feeds_takeover_" + timeString + ".json"),
+                    toJson(createTakeovers(takeoversPerFile, lastTime)), StandardCharsets.UTF_8);
+        }
+        return feedsV5Path;
+    }
+
+    /**
+     * Creates a zones JSON file with the zones of generated takeovers.
+     */
+    static Path createZonesFile(Path directory, int zones) throws IOException {
+        List<JsonNode> zoneNodes = new ArrayList<>(zones);
+        for (ObjectNode takeover : createTakeovers(zones, LAST_TAKEOVER_TIME)) {
+            zoneNodes.add(takeover.get("zone"));
+        }
+        Path zonesPath = directory.resolve("zones.json");
+        Files.writeString(zonesPath, toJson(zoneNodes), StandardCharsets.UTF_8);
+        return zonesPath;
+    }
+
+    static void deleteDirectory(Path directory) {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted().toList().reversed()) {
+                Files.delete(path);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package org.joelson.turf.benchmark;
+
+import org.joelson.turf.turfgame.apiv5.FeedsV5VisitsCSVExtractor;
+import org.joelson.turf.turfgame.apiv5.ZonesV5CSVExtractor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Extracts CSV files of visits from a directory of generated takeover feed files, and of zones from a generated zones
+ * file.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CSVExtractorBenchmark {
+
+    private Path directory;
+    private Path feedsV5Path;
+    private Path csvPath;
+    private Path zonesPath;
+
+    @Setup
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("csv_extractor_benchmark");
+        feedsV5Path = BenchmarkResources.createFeedsV5Directory(directory, 40, 250);
+        csvPath = Files.createDirectory(directory.resolve("csv"));
+        zonesPath = BenchmarkResources.createZonesFile(directory, 5000);
+    }
+
+    @TearDown
+    public void tearDown() {
+        BenchmarkResources.deleteDirectory(directory);
+    }
+
+    @Benchmark
+    public void visits() throws IOException {
+        new FeedsV5VisitsCSVExtractor(csvPath, new Path[] { feedsV5Path }).extractVisits();
+    }
+
+    @Benchmark
+    public void zones() throws IOException {
+        new ZonesV5CSVExtractor(zonesPath).extractZones();
+    }
+}
@@ -0,0 +1,88 @@
+package org.joelson.turf.benchmark;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.joelson.turf.turfgame.FeedObject;
+import org.joelson.turf.util.JacksonUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Binds a feed of API v4 or v5 takeovers with {@link JacksonUtil#readValue(String, Class)} of the whole array, with
+ * a JSON tree bound node by node as the tree reading of FeedsReader does, and with streaming binding of one object at
+ * a time from a parser.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FeedTakeoverBindingBenchmark {
+
+    private static final int TAKEOVERS = 250;
+
+    @Param({ "v4", "v5" })
+    public String version;
+
+    private String content;
+    private byte[] contentBytes;
+    private Class<? extends FeedObject> takeoverClass;
+    private Class<? extends FeedObject[]> takeoverArrayClass;
+
+    @Setup
+    public void setup() throws IOException {
+        List<ObjectNode> takeovers = BenchmarkResources.createTakeovers(TAKEOVERS,
+                BenchmarkResources.LAST_TAKEOVER_TIME);
+        if (version.equals("v4")) {
+            content = BenchmarkResources.toJson(BenchmarkResources.toV4Takeovers(takeovers));
+            takeoverClass = org.joelson.turf.turfgame.apiv4.FeedTakeover.class;
+            takeoverArrayClass = org.joelson.turf.turfgame.apiv4.FeedTakeover[].class;
+        } else {
+            content = BenchmarkResources.toJson(takeovers);
+            takeoverClass = org.joelson.turf.turfgame.apiv5.FeedTakeover.class;
+            takeoverArrayClass = org.joelson.turf.turfgame.apiv5.FeedTakeover[].class;
+        }
+        contentBytes = content.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public FeedObject[] readValue() throws IOException {
+        return JacksonUtil.readValue(content, takeoverArrayClass);
+    }
+
+    @Benchmark
+    public void treeToValue(Blackhole blackhole) throws IOException {
+        for (JsonNode node : JacksonUtil.readValue(content, JsonNode[].class)) {
+            blackhole.consume(JacksonUtil.treeToValue(node, takeoverClass));
+        }
+    }
+
+    @Benchmark
+    public void streaming(Blackhole blackhole) throws IOException {
+        try (JsonParser parser = JacksonUtil.createParser(new ByteArrayInputStream(contentBytes))) {
+            parser.nextToken();
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                blackhole.consume(JacksonUtil.readValue(parser, takeoverClass));
+            }
+        }
+    }
+}
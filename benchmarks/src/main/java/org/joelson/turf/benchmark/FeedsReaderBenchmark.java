@@ -0,0 +1,78 @@
+package org.joelson.turf.benchmark;
+
+import org.joelson.turf.turfgame.FeedObject;
+import org.joelson.turf.turfgame.apiv5.FeedChat;
+import org.joelson.turf.turfgame.apiv5.FeedMedal;
+import org.joelson.turf.turfgame.apiv5.FeedTakeover;
+import org.joelson.turf.turfgame.util.DefaultFeedContentErrorHandler;
+import org.joelson.turf.turfgame.util.FeedsReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads feeds with {@link FeedsReader}, tree bound and streaming: the nested zip files of complex.zip, and a
+ * directory of generated takeover feed files.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FeedsReaderBenchmark {
+
+    private static final Map<String, Class<? extends FeedObject>> V5_TYPES = Map.of(
+            "chat", FeedChat.class, "medal", FeedMedal.class, "takeover", FeedTakeover.class);
+
+    @Param({ "false", "true" })
+    public boolean streaming;
+
+    private Path directory;
+    private Path complexZip;
+    private Path feedsV5Path;
+
+    @Setup
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("feeds_reader_benchmark");
+        complexZip = BenchmarkResources.copyResource("/complex.zip", directory);
+        feedsV5Path = BenchmarkResources.createFeedsV5Directory(directory, 40, 250);
+    }
+
+    @TearDown
+    public void tearDown() {
+        BenchmarkResources.deleteDirectory(directory);
+    }
+
+    private void read(Path path, Blackhole blackhole) throws IOException {
+        FeedsReader feedsReader = new FeedsReader(V5_TYPES, new DefaultFeedContentErrorHandler(), false, true,
+                streaming);
+        feedsReader.handleFeedObjectPath(path, p -> true, blackhole::consume);
+    }
+
+    @Benchmark
+    public void complexZip(Blackhole blackhole) throws IOException {
+        read(complexZip, blackhole);
+    }
+
+    @Benchmark
+    public void feedFiles(Blackhole blackhole) throws IOException {
+        read(feedsV5Path, blackhole);
+    }
+}
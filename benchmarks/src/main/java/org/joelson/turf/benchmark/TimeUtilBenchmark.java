@@ -0,0 +1,85 @@
+package org.joelson.turf.benchmark;
+
+import org.joelson.turf.util.TimeUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAccessor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares parsing Turf API timestamps with the fixed format parser of {@link TimeUtil} to parsing them with
+ * {@link DateTimeFormatter#ISO_DATE_TIME}, as {@link TimeUtil} did before.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TimeUtilBenchmark {
+
+    private static final int TIMESTAMPS = 1024;
+
+    private final String[] timestamps = new String[TIMESTAMPS];
+    private final byte[][] timestampBytes = new byte[TIMESTAMPS][];
+
+    @Setup
+    public void setup() {
+        long epochSecond = Instant.parse("2024-06-15T19:20:11Z").getEpochSecond();
+        for (int i = 0; i < TIMESTAMPS; i += 1) {
+            timestamps[i] = TimeUtil.epochSecondToTurfAPITimestamp(epochSecond - i * 7919L);
+            timestampBytes[i] = timestamps[i].getBytes(StandardCharsets.US_ASCII);
+        }
+    }
+
+    private static long formatterTimestampToEpochSecond(String timestamp) {
+        TemporalAccessor temporalAccessor = DateTimeFormatter.ISO_DATE_TIME.parse(timestamp.substring(0, 19));
+        LocalDateTime localDateTime = LocalDateTime.from(temporalAccessor);
+        ZonedDateTime zonedDateTime = ZonedDateTime.of(localDateTime, ZoneOffset.UTC);
+        return Instant.from(zonedDateTime).getEpochSecond();
+    }
+
+    @Benchmark
+    public void formatter(Blackhole blackhole) {
+        for (String timestamp : timestamps) {
+            blackhole.consume(formatterTimestampToEpochSecond(timestamp));
+        }
+    }
+
+    @Benchmark
+    public void fixedFormat(Blackhole blackhole) {
+        for (String timestamp : timestamps) {
+            blackhole.consume(TimeUtil.turfAPITimestampToEpochSecond(timestamp));
+        }
+    }
+
+    @Benchmark
+    public void fixedFormatBytes(Blackhole blackhole) {
+        for (byte[] bytes : timestampBytes) {
+            blackhole.consume(TimeUtil.turfAPITimestampToEpochSecond(bytes, 0, bytes.length));
+        }
+    }
+
+    @Benchmark
+    public void fixedFormatInstant(Blackhole blackhole) {
+        for (String timestamp : timestamps) {
+            blackhole.consume(TimeUtil.turfAPITimestampToInstant(timestamp));
+        }
+    }
+}
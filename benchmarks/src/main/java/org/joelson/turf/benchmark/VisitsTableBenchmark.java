@@ -0,0 +1,103 @@
+package org.joelson.turf.benchmark;
+
+import org.joelson.turf.statistics.Country;
+import org.joelson.turf.statistics.Municipality;
+import org.joelson.turf.statistics.Region;
+import org.joelson.turf.statistics.Round;
+import org.joelson.turf.statistics.User;
+import org.joelson.turf.statistics.Visits;
+import org.joelson.turf.statistics.VisitsTable;
+import org.joelson.turf.statistics.VisitsTable.Grouping;
+import org.joelson.turf.statistics.VisitsTable.Metric;
+import org.joelson.turf.statistics.Zone;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Sums the TP of generated visits by user and by region, with streams over the visits and with a
+ * {@link VisitsTable}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VisitsTableBenchmark {
+
+    private static final int VISITS = 2_000_000;
+
+    private List<Visits> visits;
+    private VisitsTable visitsTable;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(17);
+        Country country = new Country("se");
+        List<Municipality> municipalities = new ArrayList<>();
+        for (int i = 0; i < 290; i += 1) {
+            municipalities.add(new Municipality("Municipality" + i, new Region(i / 14, "Region" + i / 14, country)));
+        }
+        List<Zone> zones = new ArrayList<>();
+        for (int i = 0; i < 20_000; i += 1) {
+            zones.add(new Zone(i, "Zone" + i, municipalities.get(random.nextInt(municipalities.size())), 0, 0));
+        }
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 5000; i += 1) {
+            users.add(new User(i, "User" + i));
+        }
+        List<Round> rounds = new ArrayList<>();
+        for (int i = 0; i < 60; i += 1) {
+            rounds.add(new Round(i, "Round" + i, ZonedDateTime.parse("2020-01-01T12:00:00Z").plusMonths(i)));
+        }
+        visits = new ArrayList<>(VISITS);
+        for (int i = 0; i < VISITS; i += 1) {
+            visits.add(new Visits(zones.get(random.nextInt(zones.size())), users.get(random.nextInt(users.size())),
+                    rounds.get(random.nextInt(rounds.size())), random.nextInt(10_000), random.nextInt(10),
+                    random.nextInt(20), random.nextInt(5), random.nextInt(5)));
+        }
+        visitsTable = new VisitsTable(visits);
+    }
+
+    @Benchmark
+    public Map<User, Long> streamSumByUser() {
+        return visits.stream().collect(Collectors.groupingBy(Visits::getUser, Collectors.summingLong(Visits::getTP)));
+    }
+
+    @Benchmark
+    public Map<User, Long> tableSumByUser() {
+        return visitsTable.sumBy(Grouping.USER, Metric.TP);
+    }
+
+    @Benchmark
+    public Map<User, Long> tableSumByUserParallel() {
+        return visitsTable.sumBy(Grouping.USER, Metric.TP, true);
+    }
+
+    @Benchmark
+    public Map<Region, Long> streamSumByRegion() {
+        return visits.stream().collect(Collectors.groupingBy(v -> v.getZone().getMunicipality().getRegion(),
+                Collectors.summingLong(Visits::getTP)));
+    }
+
+    @Benchmark
+    public Map<Region, Long> tableSumByRegion() {
+        return visitsTable.sumBy(Grouping.REGION, Metric.TP);
+    }
+}
@@ -0,0 +1,98 @@
+package org.joelson.turf.benchmark;
+
+import org.joelson.turf.turfgame.apiv5.Zone;
+import org.joelson.turf.turfgame.apiv5.Zones;
+import org.joelson.turf.turfgame.util.ZoneIndex;
+import org.joelson.turf.turfgame.util.ZonePositions;
+import org.joelson.turf.turfgame.util.ZoneUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Computes the distances from one zone to all zones of a generated set of zones with {@link ZoneUtil#calcDistance}
+ * and with {@link ZonePositions}, and finds the zones near one zone by scanning all zones and with a {@link ZoneIndex}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ZoneUtilBenchmark {
+
+    private static final int ZONES = 5000;
+    private static final double RADIUS = 2000;
+
+    private List<Zone> zones;
+    private ZoneIndex<Zone> zoneIndex;
+    private ZonePositions<Zone> zonePositions;
+
+    @Setup
+    public void setup() throws IOException {
+        Path directory = Files.createTempDirectory("zone_util_benchmark");
+        try {
+            zones = Zones.fromJSON(Files.readString(BenchmarkResources.createZonesFile(directory, ZONES)));
+            zoneIndex = ZoneUtil.toSpatialIndex(zones);
+            zonePositions = ZoneUtil.toPositions(zones);
+        } finally {
+            BenchmarkResources.deleteDirectory(directory);
+        }
+    }
+
+    @Benchmark
+    public double calcDistance() {
+        Zone from = zones.getFirst();
+        double sum = 0;
+        for (Zone zone : zones) {
+            sum += ZoneUtil.calcDistance(from, zone);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double distancesFrom() {
+        double sum = 0;
+        for (double distance : zonePositions.distancesFrom(0)) {
+            sum += distance;
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int withinDistanceScan() {
+        Zone from = zones.getFirst();
+        int count = 0;
+        for (Zone zone : zones) {
+            if (ZoneUtil.calcDistance(from, zone) <= RADIUS) {
+                count += 1;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int withinDistanceIndex() {
+        Zone from = zones.getFirst();
+        return zoneIndex.withinDistance(from.getLatitude(), from.getLongitude(), RADIUS).size();
+    }
+
+    @Benchmark
+    public List<Zone> nearestIndex() {
+        Zone from = zones.getFirst();
+        return zoneIndex.nearest(from.getLatitude(), from.getLongitude(), 10);
+    }
+}
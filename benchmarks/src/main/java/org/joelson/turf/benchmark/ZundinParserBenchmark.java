@@ -0,0 +1,65 @@
+package org.joelson.turf.benchmark;
+
+import org.joelson.turf.zundin.Mission;
+import org.joelson.turf.zundin.Monthly;
+import org.joelson.turf.zundin.Today;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parses the zundin HTML pages of the test resources. The today page of ZonerX is the largest page, and has characters
+ * outside Latin-1 so it is stored as UTF-16.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ZundinParserBenchmark {
+
+    private String monthlyHTML;
+    private String todayHTML;
+    private String todayZonerXHTML;
+    private String missionHTML;
+
+    @Setup
+    public void setup() throws IOException {
+        monthlyHTML = BenchmarkResources.readString("/monthly_0beroff_round168.html");
+        todayHTML = BenchmarkResources.readString("/todays_activity_oberoff_2019-11-11.html");
+        todayZonerXHTML = BenchmarkResources.readString("/todays_activity_zonerx_2018-06-30.html");
+        missionHTML = BenchmarkResources.readString("/mission_37_oberoff.html");
+    }
+
+    @Benchmark
+    public Monthly monthly() {
+        return Monthly.fromHTML("Oberoff", 168, monthlyHTML);
+    }
+
+    @Benchmark
+    public Today today() {
+        return Today.fromHTML("Oberoff", "2019-11-11", todayHTML);
+    }
+
+    @Benchmark
+    public Today todayZonerX() {
+        return Today.fromHTML("ZonerX", "2018-06-30", todayZonerXHTML);
+    }
+
+    @Benchmark
+    public List<Integer> mission() {
+        return Mission.fromHTML(missionHTML);
+    }
+}
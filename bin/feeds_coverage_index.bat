@@ -0,0 +1,3 @@
+@echo off
+
+call mvn exec:java -Dexec.mainClass="org.joelson.turf.turfgame.util.FeedsCoverageIndex" -Dexec.args="%*"
@@ -0,0 +1,3 @@
+@echo off
+
+call mvn exec:java -Dexec.mainClass="org.joelson.turf.turfgame.apiv5.FeedsV5VisitsColumnarExtractor" -Dexec.args="%*"
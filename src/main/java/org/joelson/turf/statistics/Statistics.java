@@ -1,11 +1,16 @@
 package org.joelson.turf.statistics;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serial;
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 
@@ -22,14 +27,85 @@ public class Statistics implements Serializable {
     private final HashSet<User> users;
     private final HashSet<Visits> visits;
 
+    // indexes of the sets above, not serialized but rebuilt when deserialized
+    private transient Map<String, Country> countriesByName;
+    private transient Map<String, List<Region>> regionsByName;
+    private transient Map<String, Municipality> municipalitiesByName;
+    private transient Map<String, Zone> zonesByName;
+    private transient Map<Integer, Round> roundsById;
+    private transient Map<String, User> usersByName;
+    private transient Map<VisitsKey, Visits> visitsByKey;
+
+    private record VisitsKey(Zone zone, User user, Round round) {
+
+        private static VisitsKey of(Visits visits) {
+            return new VisitsKey(visits.getZone(), visits.getUser(), visits.getRound());
+        }
+    }
+
     public Statistics() {
+        this(0);
+    }
+
+    /**
+     * @param visitsCapacity number of visits to make room for
+     */
+    Statistics(int visitsCapacity) {
         countries = new HashSet<>();
         regions = new HashSet<>();
         municipalities = new HashSet<>();
         zones = new HashSet<>();
         rounds = new HashSet<>();
         users = new HashSet<>();
-        visits = new HashSet<>();
+        visits = HashSet.newHashSet(visitsCapacity);
+        createIndexes();
+    }
+
+    @Serial
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        createIndexes();
+    }
+
+    private void createIndexes() {
+        countriesByName = new HashMap<>();
+        countries.forEach(this::indexCountry);
+        regionsByName = new HashMap<>();
+        regions.forEach(this::indexRegion);
+        municipalitiesByName = new HashMap<>();
+        municipalities.forEach(this::indexMunicipality);
+        zonesByName = new HashMap<>();
+        zones.forEach(this::indexZone);
+        roundsById = new HashMap<>();
+        rounds.forEach(this::indexRound);
+        usersByName = new HashMap<>();
+        users.forEach(this::indexUser);
+        visitsByKey = HashMap.newHashMap(visits.size());
+        visits.forEach(v -> visitsByKey.put(VisitsKey.of(v), v));
+    }
+
+    private void indexCountry(Country country) {
+        countriesByName.putIfAbsent(country.getName(), country);
+    }
+
+    private void indexRegion(Region region) {
+        regionsByName.computeIfAbsent(region.getName(), name -> new ArrayList<>()).add(region);
+    }
+
+    private void indexMunicipality(Municipality municipality) {
+        municipalitiesByName.putIfAbsent(municipality.getName(), municipality);
+    }
+
+    private void indexZone(Zone zone) {
+        zonesByName.putIfAbsent(zone.getName(), zone);
+    }
+
+    private void indexRound(Round round) {
+        roundsById.putIfAbsent(round.getId(), round);
+    }
+
+    private void indexUser(User user) {
+        usersByName.putIfAbsent(user.getName(), user);
     }
 
     private static String getCountryCode(String name) {
@@ -48,7 +124,11 @@ public class Statistics implements Serializable {
     }
 
     public boolean addCountry(Country country) {
-        return countries.add(Objects.requireNonNull(country));
+        if (countries.add(Objects.requireNonNull(country))) {
+            indexCountry(country);
+            return true;
+        }
+        return false;
     }
 
     public Set<Country> getCountries() {
@@ -56,7 +136,11 @@ public class Statistics implements Serializable {
     }
 
     public boolean addRegion(Region region) {
-        return regions.add(Objects.requireNonNull(region));
+        if (regions.add(Objects.requireNonNull(region))) {
+            indexRegion(region);
+            return true;
+        }
+        return false;
     }
 
     public Set<Region> getRegions() {
@@ -64,66 +148,95 @@ public class Statistics implements Serializable {
     }
 
     public boolean addMunicipality(Municipality municipality) {
-        return municipalities.add(Objects.requireNonNull(municipality));
+        if (municipalities.add(Objects.requireNonNull(municipality))) {
+            indexMunicipality(municipality);
+            return true;
+        }
+        return false;
+    }
+
+    public Set<Municipality> getMunicipalities() {
+        return Collections.unmodifiableSet(municipalities);
     }
 
     public Municipality getMunicipality(String name) {
-        for (Municipality municipality : municipalities) {
-            if (municipality.getName().equals(name)) {
-                return municipality;
-            }
-        }
-        return null;
+        return municipalitiesByName.get(name);
     }
 
     public boolean addZone(Zone zone) {
-        return zones.add(Objects.requireNonNull(zone));
+        if (zones.add(Objects.requireNonNull(zone))) {
+            indexZone(zone);
+            return true;
+        }
+        return false;
+    }
+
+    public Set<Zone> getZones() {
+        return Collections.unmodifiableSet(zones);
     }
 
     public Zone getZone(String name) {
-        for (Zone zone : zones) {
-            if (zone.getName().equals(name)) {
-                return zone;
-            }
-        }
-        return null;
+        return zonesByName.get(name);
     }
 
     public boolean addRound(Round round) {
-        return rounds.add(Objects.requireNonNull(round));
+        if (rounds.add(Objects.requireNonNull(round))) {
+            indexRound(round);
+            return true;
+        }
+        return false;
+    }
+
+    public Set<Round> getRounds() {
+        return Collections.unmodifiableSet(rounds);
     }
 
     public Round getRound(int id) {
-        for (Round round : rounds) {
-            if (round.getId() == id) {
-                return round;
-            }
-        }
-        return null;
+        return roundsById.get(id);
     }
 
     public boolean addUser(User user) {
-        return users.add(Objects.requireNonNull(user));
+        if (users.add(Objects.requireNonNull(user))) {
+            indexUser(user);
+            return true;
+        }
+        return false;
+    }
+
+    public Set<User> getUsers() {
+        return Collections.unmodifiableSet(users);
     }
 
     public User getUser(String name) {
-        for (User user : users) {
-            if (user.getName().equals(name)) {
-                return user;
-            }
-        }
-        return null;
+        return usersByName.get(name);
     }
 
     public boolean addVisits(Visits visits) {
-        if (this.visits.stream().anyMatch(
-                v -> v.getZone().equals(visits.getZone()) && v.getUser().equals(visits.getUser()) && v.getRound()
-                        .equals(visits.getRound()))) {
+        if (visitsByKey.putIfAbsent(VisitsKey.of(visits), visits) != null) {
             return false;
         }
         return this.visits.add(visits);
     }
 
+    Visits getVisits(Zone zone, User user, Round round) {
+        return visitsByKey.get(new VisitsKey(zone, user, round));
+    }
+
+    /**
+     * Adds visits, replacing the visits of the same zone, user and round if any.
+     */
+    void putVisits(Visits visits) {
+        Visits replaced = visitsByKey.put(VisitsKey.of(visits), visits);
+        if (replaced != null) {
+            this.visits.remove(replaced);
+        }
+        this.visits.add(visits);
+    }
+
+    public Set<Visits> getVisits() {
+        return Collections.unmodifiableSet(visits);
+    }
+
     @Override
     public String toString() {
         return "Statistics{countries:" + countries + ",regions:" + regions + ",municipalities:" + municipalities
@@ -142,31 +255,27 @@ public class Statistics implements Serializable {
     }
 
     private Country findOrAddCountry(String name) {
-        for (Country country : countries) {
-            if (country.getName().equals(name)) {
-                return country;
-            }
+        Country country = countriesByName.get(name);
+        if (country != null) {
+            return country;
         }
-        Country country = new Country(name);
+        country = new Country(name);
         addCountry(country);
         return country;
     }
 
     private Region findOrAddRegion(Country country, int id, String name) {
-        for (Region region : regions) {
-            boolean issueRegion = false;
-            if (region.getName().equals(name)) {
-                if (region.getId() == id) {
-                    throw new IllegalStateException("Region '" + name + "' has id " + id + " - the same as " + region);
-                }
-                if (!country.equals(region.getCountry())) {
-                    // is OK if belonging to different countries
-                } else if (!name.equals("Argentina") && !name.equals("Kenya") && !name.equals("Utah")
-                        && !name.equals("template")) {
-                    // https://issues.turfgame.com/view/8013
-                    throw new IllegalStateException(
-                            "Region '" + name + "' has both id " + region.getId() + " and " + id + '!');
-                }
+        for (Region region : regionsByName.getOrDefault(name, List.of())) {
+            if (region.getId() == id) {
+                throw new IllegalStateException("Region '" + name + "' has id " + id + " - the same as " + region);
+            }
+            if (!country.equals(region.getCountry())) {
+                // is OK if belonging to different countries
+            } else if (!name.equals("Argentina") && !name.equals("Kenya") && !name.equals("Utah")
+                    && !name.equals("template")) {
+                // https://issues.turfgame.com/view/8013
+                throw new IllegalStateException(
+                        "Region '" + name + "' has both id " + region.getId() + " and " + id + '!');
             }
         }
         Region region = new Region(id, name, country);
@@ -0,0 +1,269 @@
+package org.joelson.turf.statistics;
+
+import org.joelson.turf.turfgame.FeedObject;
+import org.joelson.turf.turfgame.apiv5.Area;
+import org.joelson.turf.turfgame.apiv5.FeedTakeover;
+import org.joelson.turf.turfgame.apiv5.FeedsV5CompactReader;
+import org.joelson.turf.turfgame.apiv5.VisitType;
+import org.joelson.turf.turfgame.apiv5.ZoneTimes;
+import org.joelson.turf.turfgame.util.DefaultFeedContentErrorHandler;
+import org.joelson.turf.turfgame.util.FeedsPathComparator;
+import org.joelson.turf.turfgame.util.FeedsReader;
+import org.joelson.turf.util.FilesUtil;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Imports the visits of all users and zones in takeover feeds to statistics. Each takeover is added to the visits of
+ * its zone and user in the round started last before the takeover, as a take or a revisit of the current owner and
+ * an assist of each assister. A round ends at the start of the next round, but lasts at most five weeks, the longest
+ * round from a first Sunday of a month to the next. The TP and PPH of the visits are those of the zone in the latest
+ * takeover imported.
+ * <p>
+ * The rounds must already be in the statistics. Countries, regions, municipalities, zones and users not in the
+ * statistics are added, a municipality for each area or, for zones without area, for each region.
+ * <p>
+ * An importer remembers the takeovers and the feed files it has imported, so feed files can be imported as they arrive
+ * and takeovers in more than one feed file are only imported once. Takeovers after the end of a round are not
+ * remembered, nor are the feed files containing them, so they are imported once their round is in the statistics.
+ */
+public class StatisticsFeedsImporter {
+
+    private static final long MAX_ROUND_SECONDS = Duration.ofDays(35).toSeconds();
+
+    private final Statistics statistics;
+    private final ZoneTimes zoneTimes;
+    private final Set<URI> importedFiles = new HashSet<>();
+    private final Map<String, Country> countries = new HashMap<>();
+    private final Map<Integer, Region> regions = new HashMap<>();
+    private final Map<Integer, Zone> zones = new HashMap<>();
+    private final Map<Integer, User> users = new HashMap<>();
+    private final TreeMap<Long, Round> roundStarts = new TreeMap<>();
+    private int roundCount = -1;
+    private int imported = 0;
+    private int outsideRounds = 0;
+    private int afterRounds = 0;
+
+    public StatisticsFeedsImporter(Statistics statistics) {
+        this(statistics, -1);
+    }
+
+    /**
+     * @param windowSeconds seconds of takeovers remembered to skip takeovers already imported, or negative to remember
+     *                      all takeovers
+     */
+    public StatisticsFeedsImporter(Statistics statistics, long windowSeconds) {
+        this.statistics = Objects.requireNonNull(statistics);
+        zoneTimes = new ZoneTimes(windowSeconds);
+        statistics.getCountries().forEach(country -> countries.putIfAbsent(country.getName(), country));
+        statistics.getRegions().forEach(region -> regions.putIfAbsent(region.getId(), region));
+    }
+
+    /**
+     * Imports the takeovers of a feed file or of the feed files in a directory or zip file, skipping files already
+     * imported. As for {@link org.joelson.turf.turfgame.apiv5.FeedsV5VisitsCSVExtractor}, only files with {@code v5}
+     * in their path are read, as feed files or as compact files. A file is only remembered as imported once it has been
+     * read without errors, so files failing to be read are imported again by the next import.
+     */
+    public void importFeeds(Path path) throws IOException {
+        try {
+            FilesUtil.forEachFile(path, true, new FeedsPathComparator(), this::importFeedFile);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void importFeedFile(Path path) {
+        if (!path.toString().contains("v5")) {
+            return;
+        }
+        // paths in zip files are only equal to paths of the same open zip file, but their URIs name the zip file
+        URI fileURI = path.toAbsolutePath().normalize().toUri();
+        if (importedFiles.contains(fileURI)) {
+            return;
+        }
+        int afterRoundsBefore = afterRounds;
+        if (FeedsV5CompactReader.isCompactFile(path)) {
+            try {
+                FeedsV5CompactReader.handleFeedObjectPath(path, this::importFeedObject);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        } else {
+            DefaultFeedContentErrorHandler errorHandler = new DefaultFeedContentErrorHandler();
+            FeedsReader feedsReader = new FeedsReader(Map.of("takeover", FeedTakeover.class), errorHandler, false,
+                    true, true);
+            try {
+                feedsReader.handleFeedObjectPath(path, p -> true, this::importFeedObject);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            if (!errorHandler.getErrorPaths().isEmpty()) {
+                return;
+            }
+        }
+        if (afterRounds == afterRoundsBefore) {
+            importedFiles.add(fileURI);
+        }
+    }
+
+    private void importFeedObject(FeedObject feedObject) {
+        if (feedObject instanceof FeedTakeover takeover) {
+            importTakeover(takeover);
+        }
+    }
+
+    /**
+     * Imports a takeover, unless already imported or outside the rounds in the statistics.
+     *
+     * @return true if imported
+     */
+    public boolean importTakeover(FeedTakeover takeover) {
+        long epochSecond = takeover.getEpochSecond();
+        Round round = roundOf(epochSecond);
+        if (round == null) {
+            outsideRounds += 1;
+            if (!roundStarts.isEmpty() && epochSecond >= roundStarts.firstKey()) {
+                afterRounds += 1;
+            }
+            return false;
+        }
+        if (!zoneTimes.add(ZoneTimes.zoneTimeOf(takeover))) {
+            return false;
+        }
+        org.joelson.turf.turfgame.apiv5.Zone feedZone = takeover.getZone();
+        Zone zone = toZone(feedZone);
+        User currentOwner = toUser(Objects.requireNonNull(takeover.getCurrentOwner()));
+        if (VisitType.ofCurrentOwner(takeover) == VisitType.REVISIT) {
+            addVisits(zone, currentOwner, round, feedZone, 0, 0, 1);
+        } else {
+            addVisits(zone, currentOwner, round, feedZone, 1, 0, 0);
+        }
+        if (takeover.getAssists() != null) {
+            for (org.joelson.turf.turfgame.apiv5.User assister : takeover.getAssists()) {
+                addVisits(zone, toUser(assister), round, feedZone, 0, 1, 0);
+            }
+        }
+        imported += 1;
+        return true;
+    }
+
+    private Round roundOf(long epochSecond) {
+        if (statistics.getRounds().size() != roundCount) {
+            roundStarts.clear();
+            statistics.getRounds().forEach(round -> roundStarts.put(round.getStart().toEpochSecond(), round));
+            roundCount = statistics.getRounds().size();
+        }
+        Map.Entry<Long, Round> entry = roundStarts.floorEntry(epochSecond);
+        if (entry == null) {
+            return null;
+        }
+        long end = entry.getKey() + MAX_ROUND_SECONDS;
+        Long nextStart = roundStarts.higherKey(entry.getKey());
+        if (nextStart != null) {
+            end = Math.min(end, nextStart);
+        }
+        return (epochSecond < end) ? entry.getValue() : null;
+    }
+
+    private void addVisits(Zone zone, User user, Round round, org.joelson.turf.turfgame.apiv5.Zone feedZone,
+            int takes, int assists, int revisits) {
+        Visits visits = statistics.getVisits(zone, user, round);
+        if (visits != null) {
+            takes += visits.getTakes();
+            assists += visits.getAssists();
+            revisits += visits.getRevisits();
+        }
+        statistics.putVisits(new Visits(zone, user, round, feedZone.getTakeoverPoints(), feedZone.getPointsPerHour(),
+                takes, assists, revisits));
+    }
+
+    private Zone toZone(org.joelson.turf.turfgame.apiv5.Zone feedZone) {
+        Zone zone = zones.get(feedZone.getId());
+        if (zone == null) {
+            zone = statistics.getZone(feedZone.getName());
+            if (zone == null) {
+                zone = new Zone(feedZone.getId(), feedZone.getName(), toMunicipality(feedZone.getRegion()),
+                        (float) feedZone.getLatitude(), (float) feedZone.getLongitude());
+                statistics.addZone(zone);
+            }
+            zones.put(feedZone.getId(), zone);
+        }
+        return zone;
+    }
+
+    private Municipality toMunicipality(org.joelson.turf.turfgame.apiv5.Region feedRegion) {
+        Region region = toRegion(Objects.requireNonNull(feedRegion));
+        Area area = feedRegion.getArea();
+        String name = (area != null) ? area.getName() : feedRegion.getName();
+        Municipality municipality = statistics.getMunicipality(name);
+        if (municipality == null || !municipality.getRegion().equals(region)) {
+            municipality = new Municipality(name, region);
+            statistics.addMunicipality(municipality);
+        }
+        return municipality;
+    }
+
+    private Region toRegion(org.joelson.turf.turfgame.apiv5.Region feedRegion) {
+        Region region = regions.get(feedRegion.getId());
+        if (region == null) {
+            region = new Region(feedRegion.getId(), feedRegion.getName(), toCountry(feedRegion.getCountry()));
+            statistics.addRegion(region);
+            regions.put(feedRegion.getId(), region);
+        }
+        return region;
+    }
+
+    private Country toCountry(String name) {
+        if (name == null) {
+            return null;
+        }
+        return countries.computeIfAbsent(name, key -> {
+            Country country = new Country(key);
+            statistics.addCountry(country);
+            return country;
+        });
+    }
+
+    private User toUser(org.joelson.turf.turfgame.apiv5.User feedUser) {
+        return users.computeIfAbsent(feedUser.getId(), id -> {
+            User user = statistics.getUser(feedUser.getName());
+            if (user == null) {
+                user = new User(id, feedUser.getName());
+                statistics.addUser(user);
+            }
+            return user;
+        });
+    }
+
+    /**
+     * @return number of takeovers imported
+     */
+    public int getImported() {
+        return imported;
+    }
+
+    /**
+     * @return number of takeovers skipped for being already imported
+     */
+    public int getSkips() {
+        return zoneTimes.getSkips();
+    }
+
+    /**
+     * @return number of takeovers skipped for being outside the rounds in the statistics
+     */
+    public int getOutsideRounds() {
+        return outsideRounds;
+    }
+}
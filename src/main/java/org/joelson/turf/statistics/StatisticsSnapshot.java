@@ -0,0 +1,291 @@
+package org.joelson.turf.statistics;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes and reads statistics as a versioned binary snapshot, much smaller and faster to read than serialized
+ * statistics. A snapshot is read from a memory mapped file.
+ * <p>
+ * A snapshot starts with the magic {@code TSTA}, the version and the number of visits, followed by tables of
+ * countries, regions, municipalities, zones, users and rounds, and last the visits. All numbers are big-endian. Each
+ * table starts with the number of entries and the number of entries that are members of the statistics, the rest are
+ * only referenced by other entries. An entry refers to an entry of another table by its index in that table, or -1
+ * for none where the reference is optional, as for the country of a region. Strings are UTF-8 bytes prefixed by their
+ * length. The visits are a packed table of eight ints per visits: zone, user and
+ * round indexes, TP, PPH, takes, assists and revisits.
+ */
+public final class StatisticsSnapshot {
+
+    public static final int MAGIC = 0x54535441; // "TSTA"
+    public static final int VERSION = 1;
+
+    private static final int VISITS_INTS = 8;
+
+    private StatisticsSnapshot() throws InstantiationException {
+        throw new InstantiationException("Should not be instantiated!");
+    }
+
+    private static final class Table<T> {
+
+        private final List<T> entries = new ArrayList<>();
+        private final Map<T, Integer> indexes = new HashMap<>();
+        private final int members;
+
+        private Table(Collection<T> members) {
+            members.forEach(this::indexOf);
+            this.members = entries.size();
+        }
+
+        private int indexOf(T entry) {
+            if (entry == null) {
+                return -1;
+            }
+            Integer index = indexes.get(entry);
+            if (index == null) {
+                index = entries.size();
+                indexes.put(entry, index);
+                entries.add(entry);
+            }
+            return index;
+        }
+
+        private void writeCounts(DataOutputStream out) throws IOException {
+            out.writeInt(entries.size());
+            out.writeInt(members);
+        }
+    }
+
+    public static void write(Statistics statistics, Path path) throws IOException {
+        Table<Country> countries = new Table<>(statistics.getCountries());
+        Table<Region> regions = new Table<>(statistics.getRegions());
+        Table<Municipality> municipalities = new Table<>(statistics.getMunicipalities());
+        Table<Zone> zones = new Table<>(statistics.getZones());
+        Table<User> users = new Table<>(statistics.getUsers());
+        Table<Round> rounds = new Table<>(statistics.getRounds());
+        List<Visits> visits = List.copyOf(statistics.getVisits());
+        int[] packedVisits = new int[visits.size() * VISITS_INTS];
+        for (int i = 0; i < visits.size(); i += 1) {
+            Visits v = visits.get(i);
+            int offset = i * VISITS_INTS;
+            packedVisits[offset] = zones.indexOf(v.getZone());
+            packedVisits[offset + 1] = users.indexOf(v.getUser());
+            packedVisits[offset + 2] = rounds.indexOf(v.getRound());
+            packedVisits[offset + 3] = v.getTP();
+            packedVisits[offset + 4] = v.getPPH();
+            packedVisits[offset + 5] = v.getTakes();
+            packedVisits[offset + 6] = v.getAssists();
+            packedVisits[offset + 7] = v.getRevisits();
+        }
+        // entries only referenced are added to the tables while indexing, so the tables are indexed in order
+        int[] zoneMunicipalities = new int[zones.entries.size()];
+        for (int i = 0; i < zoneMunicipalities.length; i += 1) {
+            zoneMunicipalities[i] = municipalities.indexOf(zones.entries.get(i).getMunicipality());
+        }
+        int[] municipalityRegions = new int[municipalities.entries.size()];
+        for (int i = 0; i < municipalityRegions.length; i += 1) {
+            municipalityRegions[i] = regions.indexOf(municipalities.entries.get(i).getRegion());
+        }
+        int[] regionCountries = new int[regions.entries.size()];
+        for (int i = 0; i < regionCountries.length; i += 1) {
+            regionCountries[i] = countries.indexOf(regions.entries.get(i).getCountry());
+        }
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path),
+                1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(visits.size());
+            countries.writeCounts(out);
+            for (Country country : countries.entries) {
+                writeString(out, country.getName());
+            }
+            regions.writeCounts(out);
+            for (int i = 0; i < regionCountries.length; i += 1) {
+                Region region = regions.entries.get(i);
+                out.writeInt(regionCountries[i]);
+                out.writeInt(region.getId());
+                writeString(out, region.getName());
+            }
+            municipalities.writeCounts(out);
+            for (int i = 0; i < municipalityRegions.length; i += 1) {
+                out.writeInt(municipalityRegions[i]);
+                writeString(out, municipalities.entries.get(i).getName());
+            }
+            zones.writeCounts(out);
+            for (int i = 0; i < zoneMunicipalities.length; i += 1) {
+                Zone zone = zones.entries.get(i);
+                out.writeInt(zoneMunicipalities[i]);
+                out.writeInt(zone.getId());
+                writeString(out, zone.getName());
+                out.writeFloat(zone.getLatitude());
+                out.writeFloat(zone.getLongitude());
+            }
+            users.writeCounts(out);
+            for (User user : users.entries) {
+                out.writeInt(user.getId());
+                writeString(out, user.getName());
+            }
+            rounds.writeCounts(out);
+            for (Round round : rounds.entries) {
+                out.writeInt(round.getId());
+                writeString(out, round.getName());
+                out.writeLong(round.getStart().toEpochSecond());
+                out.writeInt(round.getStart().getNano());
+                writeString(out, round.getStart().getZone().getId());
+            }
+            ByteBuffer visitsBuffer = ByteBuffer.allocate(Math.multiplyExact(packedVisits.length, Integer.BYTES));
+            visitsBuffer.asIntBuffer().put(packedVisits);
+            out.write(visitsBuffer.array());
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    public static Statistics read(Path path) throws IOException {
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        try {
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("Not a statistics snapshot " + path);
+            }
+            int version = buffer.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unknown version " + version + " of statistics snapshot " + path);
+            }
+            return read(buffer, readCount(buffer, VISITS_INTS * Integer.BYTES));
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new IOException("Truncated or corrupt statistics snapshot " + path, e);
+        }
+    }
+
+    private static Statistics read(ByteBuffer buffer, int visitsCount) {
+        Statistics statistics = new Statistics(visitsCount);
+
+        Country[] countries = new Country[readCount(buffer, Integer.BYTES)];
+        int members = readMembers(buffer, countries.length);
+        for (int i = 0; i < countries.length; i += 1) {
+            countries[i] = new Country(readString(buffer));
+            if (i < members) {
+                statistics.addCountry(countries[i]);
+            }
+        }
+        Region[] regions = new Region[readCount(buffer, 3 * Integer.BYTES)];
+        members = readMembers(buffer, regions.length);
+        for (int i = 0; i < regions.length; i += 1) {
+            Country country = get(countries, buffer.getInt());
+            int id = buffer.getInt();
+            regions[i] = new Region(id, readString(buffer), country);
+            if (i < members) {
+                statistics.addRegion(regions[i]);
+            }
+        }
+        Municipality[] municipalities = new Municipality[readCount(buffer, 2 * Integer.BYTES)];
+        members = readMembers(buffer, municipalities.length);
+        for (int i = 0; i < municipalities.length; i += 1) {
+            Region region = getRequired(regions, buffer.getInt());
+            municipalities[i] = new Municipality(readString(buffer), region);
+            if (i < members) {
+                statistics.addMunicipality(municipalities[i]);
+            }
+        }
+        Zone[] zones = new Zone[readCount(buffer, 3 * Integer.BYTES + 2 * Float.BYTES)];
+        members = readMembers(buffer, zones.length);
+        for (int i = 0; i < zones.length; i += 1) {
+            Municipality municipality = getRequired(municipalities, buffer.getInt());
+            int id = buffer.getInt();
+            String name = readString(buffer);
+            zones[i] = new Zone(id, name, municipality, buffer.getFloat(), buffer.getFloat());
+            if (i < members) {
+                statistics.addZone(zones[i]);
+            }
+        }
+        User[] users = new User[readCount(buffer, 2 * Integer.BYTES)];
+        members = readMembers(buffer, users.length);
+        for (int i = 0; i < users.length; i += 1) {
+            int id = buffer.getInt();
+            users[i] = new User(id, readString(buffer));
+            if (i < members) {
+                statistics.addUser(users[i]);
+            }
+        }
+        Round[] rounds = new Round[readCount(buffer, 3 * Integer.BYTES + Long.BYTES + Integer.BYTES)];
+        members = readMembers(buffer, rounds.length);
+        for (int i = 0; i < rounds.length; i += 1) {
+            int id = buffer.getInt();
+            String name = readString(buffer);
+            Instant instant = Instant.ofEpochSecond(buffer.getLong(), buffer.getInt());
+            rounds[i] = new Round(id, name, ZonedDateTime.ofInstant(instant, ZoneId.of(readString(buffer))));
+            if (i < members) {
+                statistics.addRound(rounds[i]);
+            }
+        }
+
+        int[] packedVisits = new int[Math.multiplyExact(visitsCount, VISITS_INTS)];
+        IntBuffer intBuffer = buffer.asIntBuffer();
+        intBuffer.get(packedVisits);
+        for (int offset = 0; offset < packedVisits.length; offset += VISITS_INTS) {
+            statistics.addVisits(new Visits(getRequired(zones, packedVisits[offset]),
+                    getRequired(users, packedVisits[offset + 1]), getRequired(rounds, packedVisits[offset + 2]),
+                    packedVisits[offset + 3], packedVisits[offset + 4], packedVisits[offset + 5],
+                    packedVisits[offset + 6], packedVisits[offset + 7]));
+        }
+        return statistics;
+    }
+
+    /**
+     * Reads a count of entries, checking it against the smallest size of the entries left in the buffer.
+     */
+    private static int readCount(ByteBuffer buffer, int minEntryBytes) {
+        int count = buffer.getInt();
+        if (count < 0 || (long) count * minEntryBytes > buffer.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        return count;
+    }
+
+    private static int readMembers(ByteBuffer buffer, int count) {
+        int members = buffer.getInt();
+        if (members < 0 || members > count) {
+            throw new IndexOutOfBoundsException("Members " + members + " out of bounds for count " + count);
+        }
+        return members;
+    }
+
+    private static <T> T get(T[] table, int index) {
+        return (index == -1) ? null : table[index];
+    }
+
+    private static <T> T getRequired(T[] table, int index) {
+        return table[index];
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[readCount(buffer, 1)];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,248 @@
+package org.joelson.turf.statistics;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+/**
+ * Visits in columns of primitive arrays, for aggregating the visits of many users, zones and rounds. Each row holds
+ * the indexes of the zone, user and round of the visits and the metrics of the visits. Sums and counts are computed
+ * in loops over the columns, optionally split in parts computed in parallel.
+ * <p>
+ * Sums by municipality and region are first summed by zone and then the zone sums are added to their municipalities
+ * and regions, so no loop over the rows looks up more than the group index of the row.
+ */
+public class VisitsTable {
+
+    static final int PARALLEL_PART_SIZE = 1 << 16;
+
+    public enum Metric {
+        TP, PPH, TAKES, ASSISTS, REVISITS
+    }
+
+    /**
+     * What to group visits by, with the type of the group keys.
+     *
+     * @param <K> group key type
+     */
+    public static final class Grouping<K> {
+
+        public static final Grouping<Zone> ZONE = new Grouping<>("zone", table -> table.zones);
+        public static final Grouping<User> USER = new Grouping<>("user", table -> table.users);
+        public static final Grouping<Round> ROUND = new Grouping<>("round", table -> table.rounds);
+        public static final Grouping<Municipality> MUNICIPALITY = new Grouping<>("municipality",
+                table -> table.municipalities);
+        public static final Grouping<Region> REGION = new Grouping<>("region", table -> table.regions);
+
+        private final String name;
+        private final Function<VisitsTable, K[]> keys;
+
+        private Grouping(String name, Function<VisitsTable, K[]> keys) {
+            this.name = name;
+            this.keys = keys;
+        }
+
+        @Override
+        public String toString() {
+            return "Grouping{" + name + '}';
+        }
+    }
+
+    private final int size;
+    private final int[] zoneIndexes;
+    private final int[] userIndexes;
+    private final int[] roundIndexes;
+    private final int[][] metrics = new int[Metric.values().length][];
+
+    private final Zone[] zones;
+    private final User[] users;
+    private final Round[] rounds;
+    private final Municipality[] municipalities;
+    private final Region[] regions;
+    private final int[] zoneMunicipalities;
+    private final int[] municipalityRegions;
+
+    private static final class Keys<K> {
+
+        private final Map<K, Integer> indexes = new HashMap<>();
+
+        private int indexOf(K key) {
+            Integer index = indexes.get(key);
+            if (index == null) {
+                index = indexes.size();
+                indexes.put(key, index);
+            }
+            return index;
+        }
+
+        private K[] toArray(K[] array) {
+            indexes.forEach((key, index) -> array[index] = key);
+            return array;
+        }
+    }
+
+    public VisitsTable(Collection<Visits> visits) {
+        size = visits.size();
+        zoneIndexes = new int[size];
+        userIndexes = new int[size];
+        roundIndexes = new int[size];
+        for (Metric metric : Metric.values()) {
+            metrics[metric.ordinal()] = new int[size];
+        }
+        Keys<Zone> zoneKeys = new Keys<>();
+        Keys<User> userKeys = new Keys<>();
+        Keys<Round> roundKeys = new Keys<>();
+        int row = 0;
+        for (Visits v : visits) {
+            zoneIndexes[row] = zoneKeys.indexOf(v.getZone());
+            userIndexes[row] = userKeys.indexOf(v.getUser());
+            roundIndexes[row] = roundKeys.indexOf(v.getRound());
+            metrics[Metric.TP.ordinal()][row] = v.getTP();
+            metrics[Metric.PPH.ordinal()][row] = v.getPPH();
+            metrics[Metric.TAKES.ordinal()][row] = v.getTakes();
+            metrics[Metric.ASSISTS.ordinal()][row] = v.getAssists();
+            metrics[Metric.REVISITS.ordinal()][row] = v.getRevisits();
+            row += 1;
+        }
+        zones = zoneKeys.toArray(new Zone[zoneKeys.indexes.size()]);
+        users = userKeys.toArray(new User[userKeys.indexes.size()]);
+        rounds = roundKeys.toArray(new Round[roundKeys.indexes.size()]);
+
+        Keys<Municipality> municipalityKeys = new Keys<>();
+        zoneMunicipalities = new int[zones.length];
+        for (int i = 0; i < zones.length; i += 1) {
+            zoneMunicipalities[i] = municipalityKeys.indexOf(zones[i].getMunicipality());
+        }
+        municipalities = municipalityKeys.toArray(new Municipality[municipalityKeys.indexes.size()]);
+        Keys<Region> regionKeys = new Keys<>();
+        municipalityRegions = new int[municipalities.length];
+        for (int i = 0; i < municipalities.length; i += 1) {
+            municipalityRegions[i] = regionKeys.indexOf(municipalities[i].getRegion());
+        }
+        regions = regionKeys.toArray(new Region[regionKeys.indexes.size()]);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long sum(Metric metric) {
+        return sum(metric, false);
+    }
+
+    /**
+     * @param parallel whether to sum parts of the rows in parallel
+     */
+    public long sum(Metric metric, boolean parallel) {
+        int[] values = metrics[Objects.requireNonNull(metric).ordinal()];
+        if (!parallel || size <= PARALLEL_PART_SIZE) {
+            return sum(values, 0, size);
+        }
+        return IntStream.range(0, partCount()).parallel()
+                .mapToLong(part -> sum(values, partStart(part), partStart(part + 1))).sum();
+    }
+
+    private static long sum(int[] values, int from, int to) {
+        long sum = 0;
+        for (int i = from; i < to; i += 1) {
+            sum += values[i];
+        }
+        return sum;
+    }
+
+    public <K> Map<K, Long> sumBy(Grouping<K> grouping, Metric metric) {
+        return sumBy(grouping, metric, false);
+    }
+
+    /**
+     * @param parallel whether to sum parts of the rows in parallel
+     * @return sums of a metric of the visits of each group
+     */
+    public <K> Map<K, Long> sumBy(Grouping<K> grouping, Metric metric, boolean parallel) {
+        return aggregateBy(grouping, metrics[Objects.requireNonNull(metric).ordinal()], parallel);
+    }
+
+    public <K> Map<K, Long> countBy(Grouping<K> grouping) {
+        return countBy(grouping, false);
+    }
+
+    /**
+     * @param parallel whether to count parts of the rows in parallel
+     * @return number of visits of each group
+     */
+    public <K> Map<K, Long> countBy(Grouping<K> grouping, boolean parallel) {
+        return aggregateBy(grouping, null, parallel);
+    }
+
+    private <K> Map<K, Long> aggregateBy(Grouping<K> grouping, int[] values, boolean parallel) {
+        long[] sums;
+        if (grouping == Grouping.USER) {
+            sums = aggregate(userIndexes, users.length, values, parallel);
+        } else if (grouping == Grouping.ROUND) {
+            sums = aggregate(roundIndexes, rounds.length, values, parallel);
+        } else {
+            sums = aggregate(zoneIndexes, zones.length, values, parallel);
+            if (grouping == Grouping.MUNICIPALITY || grouping == Grouping.REGION) {
+                sums = fold(sums, zoneMunicipalities, municipalities.length);
+            }
+            if (grouping == Grouping.REGION) {
+                sums = fold(sums, municipalityRegions, regions.length);
+            }
+        }
+        K[] keys = grouping.keys.apply(this);
+        Map<K, Long> result = HashMap.newHashMap(keys.length);
+        for (int i = 0; i < keys.length; i += 1) {
+            result.put(keys[i], sums[i]);
+        }
+        return result;
+    }
+
+    private int partCount() {
+        return (size + PARALLEL_PART_SIZE - 1) / PARALLEL_PART_SIZE;
+    }
+
+    private int partStart(int part) {
+        return Math.min(size, part * PARALLEL_PART_SIZE);
+    }
+
+    private long[] aggregate(int[] groups, int groupCount, int[] values, boolean parallel) {
+        if (!parallel || size <= PARALLEL_PART_SIZE) {
+            return aggregate(groups, groupCount, values, 0, size);
+        }
+        return IntStream.range(0, partCount()).parallel()
+                .mapToObj(part -> aggregate(groups, groupCount, values, partStart(part), partStart(part + 1)))
+                .reduce(VisitsTable::add).orElseThrow();
+    }
+
+    private static long[] aggregate(int[] groups, int groupCount, int[] values, int from, int to) {
+        long[] sums = new long[groupCount];
+        if (values == null) {
+            for (int i = from; i < to; i += 1) {
+                sums[groups[i]] += 1;
+            }
+        } else {
+            for (int i = from; i < to; i += 1) {
+                sums[groups[i]] += values[i];
+            }
+        }
+        return sums;
+    }
+
+    private static long[] add(long[] sums, long[] other) {
+        for (int i = 0; i < sums.length; i += 1) {
+            sums[i] += other[i];
+        }
+        return sums;
+    }
+
+    private static long[] fold(long[] sums, int[] groups, int groupCount) {
+        long[] result = new long[groupCount];
+        for (int i = 0; i < sums.length; i += 1) {
+            result[groups[i]] += sums[i];
+        }
+        return result;
+    }
+}
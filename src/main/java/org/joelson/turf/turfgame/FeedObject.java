@@ -3,13 +3,22 @@ package org.joelson.turf.turfgame;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import org.joelson.turf.util.StringUtil;
+import org.joelson.turf.util.TimeUtil;
 
 import javax.annotation.Nonnull;
+import java.time.Instant;
+import java.util.Comparator;
 
 public abstract class FeedObject {
 
+    /**
+     * Orders feed objects by time.
+     */
+    public static final Comparator<FeedObject> TIME_ORDER = Comparator.comparingLong(FeedObject::getEpochSecond);
+
     @Nonnull
     private final String time;
+    private final long epochSecond;
 
     @JsonCreator
     public FeedObject(
@@ -17,6 +26,7 @@ public abstract class FeedObject {
             @Nonnull @JsonProperty(value = "time", required = true) String time
     ) {
         this.time = StringUtil.requireNotNullAndNotEmpty(time);
+        epochSecond = TimeUtil.turfAPITimestampToEpochSecond(time);
     }
 
     public abstract String getType();
@@ -25,6 +35,34 @@ public abstract class FeedObject {
         return time;
     }
 
+    /**
+     * @return time as seconds since the epoch, parsed once when created
+     */
+    public final long getEpochSecond() {
+        return epochSecond;
+    }
+
+    public final Instant getInstant() {
+        return Instant.ofEpochSecond(epochSecond);
+    }
+
+    public final boolean isBefore(FeedObject feedObject) {
+        return epochSecond < feedObject.epochSecond;
+    }
+
+    public final boolean isAfter(FeedObject feedObject) {
+        return epochSecond > feedObject.epochSecond;
+    }
+
+    /**
+     * @param fromEpochSecond inclusive start epoch second
+     * @param toEpochSecond   inclusive end epoch second
+     * @return true if the time is in the interval
+     */
+    public final boolean isBetween(long fromEpochSecond, long toEpochSecond) {
+        return epochSecond >= fromEpochSecond && epochSecond <= toEpochSecond;
+    }
+
     protected final String innerToString() {
         return String.format("type=%s, time=%s", StringUtil.printable(getType()), StringUtil.printable(time));
     }
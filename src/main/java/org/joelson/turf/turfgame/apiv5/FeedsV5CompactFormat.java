@@ -0,0 +1,172 @@
+package org.joelson.turf.turfgame.apiv5;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Constants and variable length encoding shared by {@link FeedsV5Compactor} and {@link FeedsV5CompactReader}.
+ * <p>
+ * A compact file starts with {@link #MAGIC} and {@link #VERSION} followed by blocks. Every block starts with the
+ * dictionary entries (regions, users and zones) first used in the block, followed by one column at a time for the
+ * takeovers of the block. A block of length zero ends the file.
+ */
+final class FeedsV5CompactFormat {
+
+    static final int MAGIC = 0x54464335;
+    static final int VERSION = 1;
+    static final int BLOCK_SIZE = 1 << 16;
+    static final String FILE_SUFFIX = ".takeovers";
+
+    private FeedsV5CompactFormat() throws InstantiationException {
+        throw new InstantiationException("Should not be instantiated!");
+    }
+
+    static final class Encoder {
+
+        private byte[] bytes = new byte[1 << 16];
+        private int length = 0;
+
+        void reset() {
+            length = 0;
+        }
+
+        int length() {
+            return length;
+        }
+
+        private void ensureCapacity(int extra) {
+            if (length + extra > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + extra));
+            }
+        }
+
+        void writeFixedInt(int value) {
+            ensureCapacity(4);
+            bytes[length++] = (byte) (value >>> 24);
+            bytes[length++] = (byte) (value >>> 16);
+            bytes[length++] = (byte) (value >>> 8);
+            bytes[length++] = (byte) value;
+        }
+
+        void writeVarInt(int value) {
+            writeVarLong(value & 0xFFFFFFFFL);
+        }
+
+        void writeVarLong(long value) {
+            ensureCapacity(10);
+            while ((value & ~0x7FL) != 0) {
+                bytes[length++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            bytes[length++] = (byte) value;
+        }
+
+        void writeZigZagLong(long value) {
+            writeVarLong((value << 1) ^ (value >> 63));
+        }
+
+        void writeDouble(double value) {
+            long bits = Double.doubleToRawLongBits(value);
+            writeFixedInt((int) (bits >>> 32));
+            writeFixedInt((int) bits);
+        }
+
+        /** Writes a nullable string, length plus one followed by UTF-8 bytes, zero for null. */
+        void writeString(String value) {
+            if (value == null) {
+                writeVarInt(0);
+                return;
+            }
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            writeVarInt(utf8.length + 1);
+            ensureCapacity(utf8.length);
+            System.arraycopy(utf8, 0, bytes, length, utf8.length);
+            length += utf8.length;
+        }
+
+        void writeTo(OutputStream out) throws IOException {
+            out.write(bytes, 0, length);
+        }
+    }
+
+    static final class Decoder {
+
+        private byte[] bytes = new byte[1 << 16];
+        private int position = 0;
+
+        /**
+         * Reads a block length followed by the block into this decoder.
+         *
+         * @return false when the end block was read
+         */
+        boolean readBlock(InputStream in) throws IOException {
+            int blockLength = readFixedInt(in);
+            if (blockLength == 0) {
+                return false;
+            }
+            if (blockLength > bytes.length) {
+                bytes = new byte[blockLength];
+            }
+            if (in.readNBytes(bytes, 0, blockLength) != blockLength) {
+                throw new EOFException("Truncated block");
+            }
+            position = 0;
+            return true;
+        }
+
+        static int readFixedInt(InputStream in) throws IOException {
+            byte[] intBytes = in.readNBytes(4);
+            if (intBytes.length != 4) {
+                throw new EOFException("Truncated compact file");
+            }
+            return ((intBytes[0] & 0xFF) << 24) | ((intBytes[1] & 0xFF) << 16) | ((intBytes[2] & 0xFF) << 8)
+                    | (intBytes[3] & 0xFF);
+        }
+
+        int readFixedInt() {
+            return ((bytes[position++] & 0xFF) << 24) | ((bytes[position++] & 0xFF) << 16)
+                    | ((bytes[position++] & 0xFF) << 8) | (bytes[position++] & 0xFF);
+        }
+
+        int readVarInt() {
+            return (int) readVarLong();
+        }
+
+        long readVarLong() {
+            long value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = bytes[position++];
+                value |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            return value;
+        }
+
+        long readZigZagLong() {
+            long value = readVarLong();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        double readDouble() {
+            long high = readFixedInt() & 0xFFFFFFFFL;
+            long low = readFixedInt() & 0xFFFFFFFFL;
+            return Double.longBitsToDouble((high << 32) | low);
+        }
+
+        String readString() {
+            int lengthPlusOne = readVarInt();
+            if (lengthPlusOne == 0) {
+                return null;
+            }
+            String value = new String(bytes, position, lengthPlusOne - 1, StandardCharsets.UTF_8);
+            position += lengthPlusOne - 1;
+            return value;
+        }
+    }
+}
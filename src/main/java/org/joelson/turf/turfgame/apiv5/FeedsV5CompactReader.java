@@ -0,0 +1,183 @@
+package org.joelson.turf.turfgame.apiv5;
+
+import org.joelson.turf.turfgame.FeedObject;
+import org.joelson.turf.turfgame.apiv5.FeedsV5CompactFormat.Decoder;
+import org.joelson.turf.util.FilesUtil;
+import org.joelson.turf.util.TimeUtil;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Replays takeovers from files written by {@link FeedsV5Compactor}.
+ */
+public class FeedsV5CompactReader {
+
+    private record ZoneEntry(int id, String name, Type type, Region region, double latitude, double longitude) {
+    }
+
+    private final List<Region> regions = new ArrayList<>();
+    private final List<User> users = new ArrayList<>();
+    private final List<ZoneEntry> zones = new ArrayList<>();
+    private final Decoder decoder = new Decoder();
+
+    private long[] times = new long[0];
+    private int[] zoneIndexes = new int[0];
+    private int[] takeoverPoints = new int[0];
+    private int[] pointsPerHour = new int[0];
+    private int[] totalTakeovers = new int[0];
+    private int[] currentOwners = new int[0];
+    private int[] previousOwners = new int[0];
+    private int[] zonePreviousOwners = new int[0];
+    private int[] assistCounts = new int[0];
+
+    private FeedsV5CompactReader() {
+    }
+
+    public static boolean isCompactFile(Path path) {
+        return path.getFileName().toString().endsWith(FeedsV5CompactFormat.FILE_SUFFIX);
+    }
+
+    /**
+     * Replays the takeovers of a compact file, or of all compact files in a directory in name order.
+     *
+     * @param path              compact file or directory
+     * @param forEachFeedObject consumer of the takeovers
+     */
+    public static void handleFeedObjectPath(Path path, Consumer<FeedObject> forEachFeedObject) throws IOException {
+        try {
+            FilesUtil.forEachFile(path, false, Comparator.naturalOrder(), p -> {
+                if (isCompactFile(p)) {
+                    try {
+                        new FeedsV5CompactReader().readFile(p, forEachFeedObject);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void readFile(Path path, Consumer<FeedObject> forEachFeedObject) throws IOException {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(path))) {
+            if (Decoder.readFixedInt(in) != FeedsV5CompactFormat.MAGIC) {
+                throw new IOException("Not a compact takeover file: " + path);
+            }
+            int version = Decoder.readFixedInt(in);
+            if (version != FeedsV5CompactFormat.VERSION) {
+                throw new IOException("Unsupported compact takeover file version " + version + ": " + path);
+            }
+            while (decoder.readBlock(in)) {
+                readBlock(forEachFeedObject);
+            }
+        }
+    }
+
+    private void readBlock(Consumer<FeedObject> forEachFeedObject) {
+        int noTakeovers = decoder.readVarInt();
+        readDictionaries();
+        ensureCapacity(noTakeovers);
+
+        long time = 0;
+        for (int i = 0; i < noTakeovers; i += 1) {
+            time += decoder.readZigZagLong();
+            times[i] = time;
+        }
+        readColumn(zoneIndexes, noTakeovers);
+        readColumn(takeoverPoints, noTakeovers);
+        readColumn(pointsPerHour, noTakeovers);
+        readColumn(totalTakeovers, noTakeovers);
+        readColumn(currentOwners, noTakeovers);
+        readColumn(previousOwners, noTakeovers);
+        readColumn(zonePreviousOwners, noTakeovers);
+        readColumn(assistCounts, noTakeovers);
+
+        long lastTime = Long.MIN_VALUE;
+        String lastTimestamp = null;
+        for (int i = 0; i < noTakeovers; i += 1) {
+            if (times[i] != lastTime) {
+                lastTime = times[i];
+                lastTimestamp = TimeUtil.epochSecondToTurfAPITimestamp(lastTime);
+            }
+            User[] assists = null;
+            if (assistCounts[i] > 0) {
+                assists = new User[assistCounts[i] - 1];
+                for (int j = 0; j < assists.length; j += 1) {
+                    assists[j] = users.get(decoder.readVarInt());
+                }
+            }
+            ZoneEntry zoneEntry = zones.get(zoneIndexes[i]);
+            User currentOwner = users.get(currentOwners[i]);
+            Zone zone = new Zone(zoneEntry.id, zoneEntry.name, zoneEntry.type, zoneEntry.region, zoneEntry.latitude,
+                    zoneEntry.longitude, null, takeoverPoints[i], pointsPerHour[i], totalTakeovers[i],
+                    nullableUser(zonePreviousOwners[i]), currentOwner, null);
+            forEachFeedObject.accept(new FeedTakeover("takeover", lastTimestamp, zone, zoneEntry.latitude,
+                    zoneEntry.longitude, nullableUser(previousOwners[i]), currentOwner, assists));
+        }
+    }
+
+    private void readDictionaries() {
+        int noRegions = decoder.readVarInt();
+        for (int i = 0; i < noRegions; i += 1) {
+            int id = decoder.readVarInt();
+            String name = decoder.readString();
+            String country = decoder.readString();
+            int areaId = decoder.readVarInt();
+            String areaName = decoder.readString();
+            Area area = (areaName != null) ? new Area(areaId, areaName) : null;
+            regions.add(new Region(id, name, country, area, null, null));
+        }
+        int noUsers = decoder.readVarInt();
+        for (int i = 0; i < noUsers; i += 1) {
+            int id = decoder.readVarInt();
+            String name = decoder.readString();
+            users.add(new User(id, name, null, null, 0, 0, null, 0, 0, null, 0, 0, 0, 0));
+        }
+        int noZones = decoder.readVarInt();
+        for (int i = 0; i < noZones; i += 1) {
+            int id = decoder.readVarInt();
+            String name = decoder.readString();
+            int typeId = decoder.readVarInt();
+            String typeName = decoder.readString();
+            int region = decoder.readVarInt() - 1;
+            double latitude = decoder.readDouble();
+            double longitude = decoder.readDouble();
+            zones.add(new ZoneEntry(id, name, (typeName != null) ? new Type(typeId, typeName) : null,
+                    (region >= 0) ? regions.get(region) : null, latitude, longitude));
+        }
+    }
+
+    private void ensureCapacity(int noTakeovers) {
+        if (times.length < noTakeovers) {
+            times = new long[noTakeovers];
+            zoneIndexes = new int[noTakeovers];
+            takeoverPoints = new int[noTakeovers];
+            pointsPerHour = new int[noTakeovers];
+            totalTakeovers = new int[noTakeovers];
+            currentOwners = new int[noTakeovers];
+            previousOwners = new int[noTakeovers];
+            zonePreviousOwners = new int[noTakeovers];
+            assistCounts = new int[noTakeovers];
+        }
+    }
+
+    private void readColumn(int[] column, int noTakeovers) {
+        for (int i = 0; i < noTakeovers; i += 1) {
+            column[i] = decoder.readVarInt();
+        }
+    }
+
+    private User nullableUser(int index) {
+        return (index > 0) ? users.get(index - 1) : null;
+    }
+}
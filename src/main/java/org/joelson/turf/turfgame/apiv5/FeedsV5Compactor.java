@@ -0,0 +1,243 @@
+package org.joelson.turf.turfgame.apiv5;
+
+import org.joelson.turf.turfgame.FeedObject;
+import org.joelson.turf.turfgame.apiv5.FeedsV5CompactFormat.Encoder;
+import org.joelson.turf.turfgame.util.DefaultFeedContentErrorHandler;
+import org.joelson.turf.turfgame.util.FeedsReader;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Compacts v5 takeovers into a binary columnar file that {@link FeedsV5CompactReader} can replay without parsing JSON.
+ * <p>
+ * Regions, users and zones are stored once in dictionaries, the takeovers as columns of dictionary indexes and
+ * numbers. Zone creation and last taken dates, user statistics and takeover coordinates (which equals the zone
+ * coordinates) are not stored.
+ */
+public class FeedsV5Compactor implements Closeable {
+
+    private record RegionKey(int id, String name, String country, int areaId, String areaName) {
+    }
+
+    private record UserKey(int id, String name) {
+    }
+
+    private record ZoneKey(int id, String name, int typeId, String typeName, int region, double latitude,
+            double longitude) {
+    }
+
+    private final OutputStream out;
+    private final Encoder encoder = new Encoder();
+    private final Map<RegionKey, Integer> regions = new HashMap<>();
+    private final Map<UserKey, Integer> users = new HashMap<>();
+    private final Map<ZoneKey, Integer> zones = new HashMap<>();
+    private final List<RegionKey> newRegions = new ArrayList<>();
+    private final List<UserKey> newUsers = new ArrayList<>();
+    private final List<ZoneKey> newZones = new ArrayList<>();
+
+    private final long[] times = new long[FeedsV5CompactFormat.BLOCK_SIZE];
+    private final int[] zoneIndexes = new int[FeedsV5CompactFormat.BLOCK_SIZE];
+    private final int[] takeoverPoints = new int[FeedsV5CompactFormat.BLOCK_SIZE];
+    private final int[] pointsPerHour = new int[FeedsV5CompactFormat.BLOCK_SIZE];
+    private final int[] totalTakeovers = new int[FeedsV5CompactFormat.BLOCK_SIZE];
+    private final int[] currentOwners = new int[FeedsV5CompactFormat.BLOCK_SIZE];
+    private final int[] previousOwners = new int[FeedsV5CompactFormat.BLOCK_SIZE];
+    private final int[] zonePreviousOwners = new int[FeedsV5CompactFormat.BLOCK_SIZE];
+    private final int[] assistCounts = new int[FeedsV5CompactFormat.BLOCK_SIZE];
+    private int[] assists = new int[FeedsV5CompactFormat.BLOCK_SIZE];
+    private int noTakeovers = 0;
+    private int noAssists = 0;
+    private long totalWritten = 0;
+
+    public FeedsV5Compactor(Path path) throws IOException {
+        out = new BufferedOutputStream(Files.newOutputStream(Objects.requireNonNull(path)));
+        encoder.writeFixedInt(FeedsV5CompactFormat.MAGIC);
+        encoder.writeFixedInt(FeedsV5CompactFormat.VERSION);
+        encoder.writeTo(out);
+        encoder.reset();
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.printf("Usage:%n\t%s compact_file%s feeds_path ...%n", FeedsV5Compactor.class.getName(),
+                    FeedsV5CompactFormat.FILE_SUFFIX);
+            System.exit(-1);
+        }
+        DefaultFeedContentErrorHandler errorHandler = new DefaultFeedContentErrorHandler();
+        FeedsReader feedsReader = new FeedsReader(Map.of("takeover", FeedTakeover.class), errorHandler,
+                false, true, true);
+        try (FeedsV5Compactor compactor = new FeedsV5Compactor(Path.of(args[0]))) {
+            for (int i = 1; i < args.length; i += 1) {
+                System.out.printf("Reading %s%n", args[i]);
+                feedsReader.handleFeedObjectPath(Path.of(args[i]), path -> true, compactor::addFeedObject);
+            }
+            System.out.printf("Wrote %d takeovers to %s%n", compactor.totalWritten + compactor.noTakeovers, args[0]);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        errorHandler.messageErrorPaths(20);
+    }
+
+    private void addFeedObject(FeedObject feedObject) {
+        if (feedObject instanceof FeedTakeover takeover) {
+            try {
+                add(takeover);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    public void add(FeedTakeover takeover) throws IOException {
+        Zone zone = takeover.getZone();
+        int index = noTakeovers;
+        times[index] = takeover.getEpochSecond();
+        zoneIndexes[index] = zoneIndex(zone);
+        takeoverPoints[index] = zone.getTakeoverPoints();
+        pointsPerHour[index] = zone.getPointsPerHour();
+        totalTakeovers[index] = zone.getTotalTakeovers();
+        currentOwners[index] = userIndex(takeover.getCurrentOwner());
+        previousOwners[index] = nullableUserIndex(takeover.getPreviousOwner());
+        zonePreviousOwners[index] = nullableUserIndex(zone.getPreviousOwner());
+        User[] takeoverAssists = takeover.getAssists();
+        if (takeoverAssists == null) {
+            assistCounts[index] = 0;
+        } else {
+            assistCounts[index] = takeoverAssists.length + 1;
+            if (noAssists + takeoverAssists.length > assists.length) {
+                assists = Arrays.copyOf(assists, Math.max(assists.length * 2, noAssists + takeoverAssists.length));
+            }
+            for (User assist : takeoverAssists) {
+                assists[noAssists++] = userIndex(assist);
+            }
+        }
+        noTakeovers += 1;
+        if (noTakeovers == FeedsV5CompactFormat.BLOCK_SIZE) {
+            writeBlock();
+        }
+    }
+
+    private int regionIndex(Region region) {
+        if (region == null) {
+            return -1;
+        }
+        Area area = region.getArea();
+        RegionKey key = new RegionKey(region.getId(), region.getName(), region.getCountry(),
+                (area != null) ? area.getId() : 0, (area != null) ? area.getName() : null);
+        return regions.computeIfAbsent(key, k -> {
+            newRegions.add(k);
+            return regions.size();
+        });
+    }
+
+    private int userIndex(User user) {
+        return users.computeIfAbsent(new UserKey(user.getId(), user.getName()), k -> {
+            newUsers.add(k);
+            return users.size();
+        });
+    }
+
+    private int nullableUserIndex(User user) {
+        return (user != null) ? userIndex(user) + 1 : 0;
+    }
+
+    private int zoneIndex(Zone zone) {
+        Type type = zone.getType();
+        ZoneKey key = new ZoneKey(zone.getId(), zone.getName(), (type != null) ? type.getId() : 0,
+                (type != null) ? type.getName() : null, regionIndex(zone.getRegion()), zone.getLatitude(),
+                zone.getLongitude());
+        return zones.computeIfAbsent(key, k -> {
+            newZones.add(k);
+            return zones.size();
+        });
+    }
+
+    private void writeBlock() throws IOException {
+        encoder.reset();
+        encoder.writeVarInt(noTakeovers);
+        encoder.writeVarInt(newRegions.size());
+        for (RegionKey region : newRegions) {
+            encoder.writeVarInt(region.id);
+            encoder.writeString(region.name);
+            encoder.writeString(region.country);
+            encoder.writeVarInt(region.areaId);
+            encoder.writeString(region.areaName);
+        }
+        encoder.writeVarInt(newUsers.size());
+        for (UserKey user : newUsers) {
+            encoder.writeVarInt(user.id);
+            encoder.writeString(user.name);
+        }
+        encoder.writeVarInt(newZones.size());
+        for (ZoneKey zone : newZones) {
+            encoder.writeVarInt(zone.id);
+            encoder.writeString(zone.name);
+            encoder.writeVarInt(zone.typeId);
+            encoder.writeString(zone.typeName);
+            encoder.writeVarInt(zone.region + 1);
+            encoder.writeDouble(zone.latitude);
+            encoder.writeDouble(zone.longitude);
+        }
+        newRegions.clear();
+        newUsers.clear();
+        newZones.clear();
+
+        long previousTime = 0;
+        for (int i = 0; i < noTakeovers; i += 1) {
+            encoder.writeZigZagLong(times[i] - previousTime);
+            previousTime = times[i];
+        }
+        writeColumn(zoneIndexes);
+        writeColumn(takeoverPoints);
+        writeColumn(pointsPerHour);
+        writeColumn(totalTakeovers);
+        writeColumn(currentOwners);
+        writeColumn(previousOwners);
+        writeColumn(zonePreviousOwners);
+        writeColumn(assistCounts);
+        for (int i = 0; i < noAssists; i += 1) {
+            encoder.writeVarInt(assists[i]);
+        }
+
+        // the block length as a fixed int, written directly to the buffered stream
+        int length = encoder.length();
+        out.write(length >>> 24);
+        out.write(length >>> 16);
+        out.write(length >>> 8);
+        out.write(length);
+        encoder.writeTo(out);
+        totalWritten += noTakeovers;
+        noTakeovers = 0;
+        noAssists = 0;
+    }
+
+    private void writeColumn(int[] column) {
+        for (int i = 0; i < noTakeovers; i += 1) {
+            encoder.writeVarInt(column[i]);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try (out) {
+            if (noTakeovers > 0) {
+                writeBlock();
+            }
+            encoder.reset();
+            encoder.writeFixedInt(0);
+            encoder.writeTo(out);
+        }
+    }
+}
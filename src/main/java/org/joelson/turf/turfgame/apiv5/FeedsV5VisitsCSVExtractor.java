@@ -3,44 +3,76 @@ package org.joelson.turf.turfgame.apiv5;
 import org.joelson.turf.turfgame.FeedObject;
 import org.joelson.turf.turfgame.util.DefaultFeedContentErrorHandler;
 import org.joelson.turf.turfgame.util.FeedsReader;
-import org.joelson.turf.util.TimeUtil;
+import org.joelson.turf.util.ByteBufferWriter;
+import org.joelson.turf.util.LongHashSet;
 
+import java.io.Closeable;
 import java.io.IOException;
-import java.io.PrintWriter;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
 
 public class FeedsV5VisitsCSVExtractor {
 
-    private record ZoneTime(int zoneId, long takeTime) {
-
-        @Override
-        public boolean equals(Object o) {
-            if (this == o) {
-                return true;
-            }
-            if (o instanceof ZoneTime(int id, long time)) {
-                return zoneId == id && takeTime == time;
-            }
-            return false;
-        }
+    /**
+     * How the visits of each feed file are split into CSV files.
+     */
+    public enum Shard {
+        NONE, MONTH, REGION
     }
 
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+    private static final int SHARD_BUFFER_SIZE = 1 << 16;
+
     private final Path saveDirectory;
     private final Path[] feedFiles;
-    private final Set<ZoneTime> zoneTimes = new HashSet<>();
-    private int skips = 0;
+    private final long windowSeconds;
+    private final int parallelism;
+    private final Shard shard;
 
     public FeedsV5VisitsCSVExtractor(Path saveDirectory, Path[] feedFiles) {
+        this(saveDirectory, feedFiles, -1);
+    }
+
+    /**
+     * Creates an extractor skipping takeovers already written, typically in the overlap of consecutive feed files.
+     * <p>
+     * With a window only the takeovers of the last window seconds are remembered, which requires the feed files to
+     * be given in time order and to overlap by less than the window.
+     *
+     * @param windowSeconds seconds of takeovers remembered, or negative to remember all takeovers
+     */
+    public FeedsV5VisitsCSVExtractor(Path saveDirectory, Path[] feedFiles, long windowSeconds) {
+        this(saveDirectory, feedFiles, windowSeconds, 1, Shard.NONE);
+    }
+
+    /**
+     * Creates an extractor reading several feed files in parallel, each feed file is read and its CSV files written
+     * on its own thread. The CSV files contain the same visits as when reading the feed files one at a time, except
+     * that a takeover in the overlap of two consecutive feed files is written for the latter feed file instead of the
+     * former, so the visits in the overlap may be in another order.
+     *
+     * @param windowSeconds seconds of takeovers remembered, required when reading in parallel
+     * @param parallelism   maximum number of feed files read at the same time
+     * @param shard         how the visits of each feed file are split into CSV files
+     */
+    public FeedsV5VisitsCSVExtractor(Path saveDirectory, Path[] feedFiles, long windowSeconds, int parallelism,
+            Shard shard) {
         if (!Files.exists(Objects.requireNonNull(saveDirectory)) || !Files.isDirectory(saveDirectory)) {
             throw new IllegalArgumentException("saveDirectory does not exist or is not directory - " + saveDirectory);
         }
@@ -49,99 +81,398 @@ public class FeedsV5VisitsCSVExtractor {
                 throw new IllegalArgumentException("Feed file does not exist - " + feedFile);
             }
         }
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Invalid parallelism " + parallelism);
+        }
+        if (parallelism > 1 && windowSeconds < 0) {
+            throw new IllegalArgumentException("Reading feed files in parallel requires a window");
+        }
         this.saveDirectory = saveDirectory;
         this.feedFiles = feedFiles;
+        this.windowSeconds = windowSeconds;
+        this.parallelism = parallelism;
+        this.shard = Objects.requireNonNull(shard);
     }
 
     public static void main(String[] args) throws IOException {
-        if (args.length < 2) {
-            System.out.printf("Usage:%n\t%s saveDirectory feeds_files ... ", FeedsV5VisitsCSVExtractor.class.getName());
+        int argIndex = 0;
+        long windowSeconds = -1;
+        int parallelism = 1;
+        Shard shard = Shard.NONE;
+        while (args.length > argIndex + 1 && args[argIndex].startsWith("-")) {
+            switch (args[argIndex]) {
+                case "-window" -> windowSeconds = Long.parseLong(args[argIndex + 1]);
+                case "-parallelism" -> parallelism = Integer.parseInt(args[argIndex + 1]);
+                case "-shard" -> shard = Shard.valueOf(args[argIndex + 1].toUpperCase());
+                default -> argIndex = args.length;
+            }
+            argIndex += 2;
+        }
+        if (args.length < argIndex + 2) {
+            System.out.printf("Usage:%n\t%s [-window seconds] [-parallelism threads] [-shard none|month|region] "
+                    + "saveDirectory feeds_files ... ", FeedsV5VisitsCSVExtractor.class.getName());
             System.exit(-1);
         }
-        FeedsV5VisitsCSVExtractor extractor = new FeedsV5VisitsCSVExtractor(Path.of(args[0]), toFeedFiles(args));
+        FeedsV5VisitsCSVExtractor extractor = new FeedsV5VisitsCSVExtractor(Path.of(args[argIndex]),
+                toFeedFiles(args, argIndex + 1), windowSeconds, parallelism, shard);
         extractor.extractVisits();
     }
 
-    private static Path[] toFeedFiles(String[] args) {
+    private static Path[] toFeedFiles(String[] args, int firstIndex) {
         List<Path> feedFiles = new ArrayList<>();
-        for (int i = 1; i < args.length; i += 1) {
+        for (int i = firstIndex; i < args.length; i += 1) {
             feedFiles.add(Path.of(args[i]));
         }
         return feedFiles.toArray(new Path[0]);
     }
 
-    private void extractVisits() throws IOException {
+    static String baseNameOf(Path feedFile) {
+        String fileName = feedFile.getFileName().toString();
+        if (fileName.endsWith(".zip")) {
+            fileName = fileName.substring(0, fileName.length() - 4);
+        } else if (FeedsV5CompactReader.isCompactFile(feedFile)) {
+            fileName = fileName.substring(0, fileName.lastIndexOf('.'));
+        }
+        return fileName;
+    }
+
+    public void extractVisits() throws IOException {
+        if (parallelism > 1) {
+            extractVisitsInParallel();
+            return;
+        }
+        ZoneTimes zoneTimes = new ZoneTimes(windowSeconds);
+        StringBuilder builder = new StringBuilder();
         for (Path feedFile : feedFiles) {
-            String fileName = feedFile.getFileName().toString();
-            if (fileName.endsWith(".zip")) {
-                fileName = fileName.substring(0, fileName.length() - 4);
+            String baseName = baseNameOf(feedFile);
+            System.out.printf("Reading %s, writing %s%n", feedFile, saveDirectory.resolve(baseName + "*.csv"));
+            try (VisitsOutput output = new VisitsOutput(baseName, new HashSet<>())) {
+                readTakeovers(feedFile, takeover -> {
+                    if (zoneTimes.add(ZoneTimes.zoneTimeOf(takeover))) {
+                        builder.setLength(0);
+                        appendVisits(builder, takeover);
+                        output.write(shardOf(takeover), builder);
+                    }
+                });
             }
-            fileName += ".csv";
-            Path csvPath = Path.of(saveDirectory.toString(), fileName);
-            System.out.printf("Reading %s, writing %s%n", feedFile, csvPath);
-            try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(csvPath))) {
+            printSkips(zoneTimes);
+        }
+    }
+
+    private void printSkips(ZoneTimes zoneTimes) {
+        if (windowSeconds >= 0) {
+            System.out.printf("  total skips %d, takeovers before window %d%n", zoneTimes.getSkips(),
+                    zoneTimes.getOutOfWindow());
+        } else {
+            System.out.printf("  total skips %d%n", zoneTimes.getSkips());
+        }
+    }
+
+    interface TakeoverHandler {
+        void handle(FeedTakeover takeover) throws IOException;
+    }
+
+    static void readTakeovers(Path feedFile, TakeoverHandler handler) throws IOException {
+        try {
+            if (FeedsV5CompactReader.isCompactFile(feedFile)) {
+                FeedsV5CompactReader.handleFeedObjectPath(feedFile, feedObject -> handleTakeover(handler, feedObject));
+            } else {
                 FeedsReader feedsReader = new FeedsReader(Map.of("takeover", FeedTakeover.class),
-                        new DefaultFeedContentErrorHandler());
+                        new DefaultFeedContentErrorHandler(), false, true, true);
                 feedsReader.handleFeedObjectPath(feedFile, FeedsV5VisitsCSVExtractor::includePath,
-                        feedObject -> handleVisit(writer, feedObject));
+                        feedObject -> handleTakeover(handler, feedObject));
             }
-            System.out.printf("  total skips %d%n", skips);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
         }
     }
 
-    private void handleVisit(PrintWriter writer, FeedObject feedObject) {
+    private static void handleTakeover(TakeoverHandler handler, FeedObject feedObject) {
         if (feedObject instanceof FeedTakeover takeover) {
-            Zone zone = Objects.requireNonNull(takeover.getZone());
-            Instant takeoverInstant = TimeUtil.turfAPITimestampToInstant(takeover.getTime());
-            ZoneTime zoneTime = new ZoneTime(zone.getId(), takeoverInstant.getEpochSecond());
-            if (!zoneTimes.add(zoneTime)) {
-                //System.out.printf("  skipping %s - %d %s...%n", takeover.getTime(), zone.getId(), zone.getName());
-                skips += 1;
-                return;
+            try {
+                handler.handle(takeover);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * A takeover of a feed file read in parallel, held until the keys of the start of the next feed file are known.
+     */
+    private record PendingVisits(long zoneTime, String shardName, String visits) {
+    }
+
+    /**
+     * Reads every feed file on its own virtual thread, while the number of feed files read at the same time is
+     * bounded by the parallelism. The takeovers of the last window seconds of a feed file are held until the next
+     * feed file has published the takeovers of its first window seconds, to skip the takeovers in both.
+     */
+    private void extractVisitsInParallel() throws IOException {
+        Semaphore permits = new Semaphore(parallelism);
+        List<CompletableFuture<LongHashSet>> heads = new ArrayList<>();
+        for (int i = 0; i < feedFiles.length; i += 1) {
+            heads.add(new CompletableFuture<>());
+        }
+        heads.add(CompletableFuture.completedFuture(new LongHashSet()));
+        List<Thread> threads = new ArrayList<>();
+        List<CompletableFuture<Void>> results = new ArrayList<>();
+        for (int i = 0; i < feedFiles.length; i += 1) {
+            Path feedFile = feedFiles[i];
+            CompletableFuture<LongHashSet> head = heads.get(i);
+            CompletableFuture<LongHashSet> nextHead = heads.get(i + 1);
+            CompletableFuture<Void> result = new CompletableFuture<>();
+            results.add(result);
+            threads.add(Thread.ofVirtual().name("visits-" + feedFile.getFileName()).start(() -> {
+                try {
+                    extractFeedFile(feedFile, permits, head, nextHead);
+                    result.complete(null);
+                } catch (Throwable e) {
+                    Throwable cause = (e instanceof ExecutionException && e.getCause() != null) ? e.getCause() : e;
+                    head.completeExceptionally(cause);
+                    result.completeExceptionally(cause);
+                }
+            }));
+        }
+        try {
+            for (CompletableFuture<Void> result : results) {
+                result.get();
+            }
+        } catch (InterruptedException e) {
+            threads.forEach(Thread::interrupt);
+            throw new InterruptedIOException("Interrupted extracting visits");
+        } catch (ExecutionException e) {
+            threads.forEach(Thread::interrupt);
+            if (e.getCause() instanceof IOException ioe) {
+                throw ioe;
             }
-            Region region = Objects.requireNonNull(zone.getRegion());
-            String baseCSV = String.format("%s;%s;%d;%s;%s;%d;%s;%d;%d",
-                    dateAndTimeOf(takeoverInstant), countryOf(region), region.getId(), region.getName(), areaOf(region),
-                    zone.getId(), zone.getName(), zone.getTakeoverPoints(), zone.getPointsPerHour());
-            User currentOwner = Objects.requireNonNull(takeover.getCurrentOwner());
-            User previousOwner = zone.getPreviousOwner();
-            if (previousOwner == null) {
-                writer.printf("%s;%d;%s;takeover;neutral%n", baseCSV, currentOwner.getId(), currentOwner.getName());
-            } else if (previousOwner.getId() != currentOwner.getId()) {
-                writer.printf("%s;%d;%s;takeover%n", baseCSV, currentOwner.getId(), currentOwner.getName());
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private void extractFeedFile(Path feedFile, Semaphore permits, CompletableFuture<LongHashSet> head,
+            CompletableFuture<LongHashSet> nextHead) throws IOException, InterruptedException, ExecutionException {
+        String baseName = baseNameOf(feedFile);
+        ZoneTimes zoneTimes = new ZoneTimes(windowSeconds);
+        LongHashSet headZoneTimes = new LongHashSet();
+        ArrayDeque<PendingVisits> pending = new ArrayDeque<>();
+        long[] headEnd = { Long.MIN_VALUE };
+        StringBuilder builder = new StringBuilder();
+        Set<String> openedShardNames = new HashSet<>();
+        permits.acquire();
+        try (VisitsOutput output = new VisitsOutput(baseName, openedShardNames)) {
+            System.out.printf("Reading %s, writing %s%n", feedFile, saveDirectory.resolve(baseName + "*.csv"));
+            readTakeovers(feedFile, takeover -> {
+                long zoneTime = ZoneTimes.zoneTimeOf(takeover);
+                long time = takeover.getEpochSecond();
+                if (headEnd[0] == Long.MIN_VALUE) {
+                    headEnd[0] = time + windowSeconds;
+                }
+                if (!head.isDone()) {
+                    if (time <= headEnd[0]) {
+                        headZoneTimes.add(zoneTime);
+                    } else {
+                        head.complete(headZoneTimes);
+                    }
+                }
+                if (!zoneTimes.add(zoneTime)) {
+                    return;
+                }
+                builder.setLength(0);
+                appendVisits(builder, takeover);
+                pending.addLast(new PendingVisits(zoneTime, shardOf(takeover), builder.toString()));
+                while (ZoneTimes.timeOf(pending.getFirst().zoneTime) < time - windowSeconds) {
+                    PendingVisits visits = pending.removeFirst();
+                    output.write(visits.shardName, visits.visits);
+                }
+            });
+        } finally {
+            permits.release();
+        }
+        // the CSV files are closed while waiting, so no more files are open than feed files read at the same time
+        LongHashSet nextHeadZoneTimes = nextHead.get();
+        if (!head.isDone()) {
+            long end = headEnd[0];
+            if (end != Long.MIN_VALUE) {
+                nextHeadZoneTimes.forEach(zoneTime -> {
+                    if (ZoneTimes.timeOf(zoneTime) <= end) {
+                        headZoneTimes.add(zoneTime);
+                    }
+                });
+                head.complete(headZoneTimes);
             } else {
-                writer.printf("%s;%d;%s;revisit%n", baseCSV, currentOwner.getId(), currentOwner.getName());
+                head.complete(nextHeadZoneTimes);
             }
-            for (User assister : Objects.requireNonNullElse(takeover.getAssists(), new User[0])) {
-                if (previousOwner == null) {
-                    writer.printf("%s;%d;%s;assist;neutral%n", baseCSV, assister.getId(), assister.getName());
+        }
+        permits.acquire();
+        try (VisitsOutput output = new VisitsOutput(baseName, openedShardNames)) {
+            for (PendingVisits visits : pending) {
+                if (nextHeadZoneTimes.contains(visits.zoneTime)) {
+                    zoneTimes.skip();
                 } else {
-                    writer.printf("%s;%d;%s;assist%n", baseCSV, assister.getId(), assister.getName());
+                    output.write(visits.shardName, visits.visits);
                 }
             }
+        } finally {
+            permits.release();
         }
+        System.out.printf("Read %s%n", feedFile);
+        printSkips(zoneTimes);
+    }
+
+    /**
+     * The CSV files of a feed file, one per shard, each opened when first written. Sharded CSV files are written
+     * through smaller buffers, as a feed file may have visits of hundreds of regions.
+     * <p>
+     * A CSV file is truncated the first time it is opened while extracting the feed file and appended to when opened
+     * again, the opened shard names are shared by the outputs of a feed file.
+     */
+    private final class VisitsOutput implements Closeable {
+
+        private final String baseName;
+        private final Set<String> openedShardNames;
+        private final Map<String, ByteBufferWriter> writers = new HashMap<>();
+
+        private VisitsOutput(String baseName, Set<String> openedShardNames) throws IOException {
+            this.baseName = baseName;
+            this.openedShardNames = openedShardNames;
+            if (shard == Shard.NONE) {
+                writerOf("");
+            }
+        }
+
+        private ByteBufferWriter writerOf(String shardName) throws IOException {
+            ByteBufferWriter writer = writers.get(shardName);
+            if (writer == null) {
+                String fileName = (shardName.isEmpty()) ? baseName + ".csv" : baseName + '_' + shardName + ".csv";
+                int bufferSize = (shard == Shard.NONE) ? ByteBufferWriter.DEFAULT_BUFFER_SIZE : SHARD_BUFFER_SIZE;
+                writer = new ByteBufferWriter(saveDirectory.resolve(fileName), bufferSize,
+                        !openedShardNames.add(shardName));
+                writers.put(shardName, writer);
+            }
+            return writer;
+        }
+
+        private void write(String shardName, CharSequence visits) throws IOException {
+            writerOf(shardName).write(visits);
+        }
+
+        @Override
+        public void close() throws IOException {
+            IOException exception = null;
+            for (ByteBufferWriter writer : writers.values()) {
+                try {
+                    writer.close();
+                } catch (IOException e) {
+                    if (exception == null) {
+                        exception = e;
+                    } else {
+                        exception.addSuppressed(e);
+                    }
+                }
+            }
+            if (exception != null) {
+                throw exception;
+            }
+        }
+    }
+
+    private String shardOf(FeedTakeover takeover) {
+        return switch (shard) {
+            case NONE -> "";
+            case MONTH -> {
+                LocalDateTime dateTime = LocalDateTime.ofEpochSecond(takeover.getEpochSecond(), 0, ZoneOffset.UTC);
+                StringBuilder builder = new StringBuilder(7);
+                builder.append(dateTime.getYear()).append('-');
+                appendTwoDigits(builder, dateTime.getMonthValue());
+                yield builder.toString();
+            }
+            case REGION -> String.valueOf(Objects.requireNonNull(takeover.getZone().getRegion()).getId());
+        };
+    }
+
+    /**
+     * Appends the visits of a takeover, one line for the taker and one for each assister.
+     */
+    private static void appendVisits(StringBuilder builder, FeedTakeover takeover) {
+        Zone zone = Objects.requireNonNull(takeover.getZone());
+        Region region = Objects.requireNonNull(zone.getRegion());
+        int baseStart = builder.length();
+        appendDateAndTime(builder, takeover.getEpochSecond());
+        builder.append(';').append(countryOf(region)).append(';').append(region.getId()).append(';')
+                .append(region.getName()).append(';');
+        appendArea(builder, region);
+        builder.append(';').append(zone.getId()).append(';').append(zone.getName()).append(';')
+                .append(zone.getTakeoverPoints()).append(';').append(zone.getPointsPerHour());
+        int baseEnd = builder.length();
+        String neutral = VisitType.isNeutral(takeover) ? ";neutral" : "";
+        appendUser(builder, Objects.requireNonNull(takeover.getCurrentOwner()));
+        builder.append(';').append(VisitType.ofCurrentOwner(takeover).getName()).append(neutral)
+                .append(LINE_SEPARATOR);
+        for (User assister : Objects.requireNonNullElse(takeover.getAssists(), new User[0])) {
+            builder.append(builder, baseStart, baseEnd);
+            appendUser(builder, assister);
+            builder.append(';').append(VisitType.ASSIST.getName()).append(neutral).append(LINE_SEPARATOR);
+        }
+    }
+
+    private static void appendUser(StringBuilder builder, User user) {
+        builder.append(';').append(user.getId()).append(';').append(user.getName());
+    }
+
+    private static void appendTwoDigits(StringBuilder builder, int value) {
+        if (value < 10) {
+            builder.append('0');
+        }
+        builder.append(value);
+    }
+
+    /**
+     * Appends the UTC date and time as dd/MM/yyyy;HH:mm:ss.
+     */
+    public static void appendDateAndTime(StringBuilder builder, long epochSecond) {
+        LocalDateTime dateTime = LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC);
+        appendTwoDigits(builder, dateTime.getDayOfMonth());
+        builder.append('/');
+        appendTwoDigits(builder, dateTime.getMonthValue());
+        builder.append('/');
+        int year = dateTime.getYear();
+        for (int digits = 1000; digits > 1 && year < digits; digits /= 10) {
+            builder.append(' ');
+        }
+        builder.append(year).append(';');
+        appendTwoDigits(builder, dateTime.getHour());
+        builder.append(':');
+        appendTwoDigits(builder, dateTime.getMinute());
+        builder.append(':');
+        appendTwoDigits(builder, dateTime.getSecond());
     }
 
     public static String dateAndTimeOf(Instant instant) {
-        LocalDateTime localDateTime = LocalDateTime.ofInstant(instant, ZoneOffset.UTC);
-        return String.format("%02d/%02d/%4d;%02d:%02d:%02d",
-                localDateTime.getDayOfMonth(), localDateTime.getMonth().getValue(), localDateTime.getYear(),
-                localDateTime.getHour(), localDateTime.getMinute(), localDateTime.getSecond());
+        StringBuilder builder = new StringBuilder(19);
+        appendDateAndTime(builder, instant.getEpochSecond());
+        return builder.toString();
     }
 
     public static String countryOf(Region region) {
         return Objects.requireNonNullElse(region.getCountry(), "");
     }
 
-    public static String areaOf(Region region) {
+    private static void appendArea(StringBuilder builder, Region region) {
         Area area = region.getArea();
         if (area != null) {
-            return String.format("%d;%s", area.getId(), area.getName());
+            builder.append(area.getId()).append(';').append(area.getName());
         } else {
-            return ";";
+            builder.append(';');
         }
     }
 
+    public static String areaOf(Region region) {
+        StringBuilder builder = new StringBuilder();
+        appendArea(builder, region);
+        return builder.toString();
+    }
+
     private static boolean includePath(Path path) {
         return path.toString().contains("v5");
     }
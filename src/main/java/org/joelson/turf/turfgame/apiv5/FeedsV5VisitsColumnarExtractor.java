@@ -0,0 +1,75 @@
+package org.joelson.turf.turfgame.apiv5;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Extracts the visits of feed files to columnar visits files, one per feed file, with the same visits as
+ * {@link FeedsV5VisitsCSVExtractor} extracts to CSV files.
+ */
+public class FeedsV5VisitsColumnarExtractor {
+
+    private final Path saveDirectory;
+    private final Path[] feedFiles;
+    private final long windowSeconds;
+
+    /**
+     * @param windowSeconds seconds of takeovers remembered to skip takeovers already written, or negative to remember
+     *                      all takeovers
+     */
+    public FeedsV5VisitsColumnarExtractor(Path saveDirectory, Path[] feedFiles, long windowSeconds) {
+        if (!Files.exists(Objects.requireNonNull(saveDirectory)) || !Files.isDirectory(saveDirectory)) {
+            throw new IllegalArgumentException("saveDirectory does not exist or is not directory - " + saveDirectory);
+        }
+        for (Path feedFile : Objects.requireNonNull(feedFiles)) {
+            if (!Files.exists(feedFile)) {
+                throw new IllegalArgumentException("Feed file does not exist - " + feedFile);
+            }
+        }
+        this.saveDirectory = saveDirectory;
+        this.feedFiles = feedFiles;
+        this.windowSeconds = windowSeconds;
+    }
+
+    public static void main(String[] args) throws IOException {
+        int argIndex = 0;
+        long windowSeconds = -1;
+        if (args.length > 1 && args[0].equals("-window")) {
+            windowSeconds = Long.parseLong(args[1]);
+            argIndex = 2;
+        }
+        if (args.length < argIndex + 2) {
+            System.out.printf("Usage:%n\t%s [-window seconds] saveDirectory feeds_files ... ",
+                    FeedsV5VisitsColumnarExtractor.class.getName());
+            System.exit(-1);
+        }
+        List<Path> feedFiles = new ArrayList<>();
+        for (int i = argIndex + 1; i < args.length; i += 1) {
+            feedFiles.add(Path.of(args[i]));
+        }
+        FeedsV5VisitsColumnarExtractor extractor = new FeedsV5VisitsColumnarExtractor(Path.of(args[argIndex]),
+                feedFiles.toArray(new Path[0]), windowSeconds);
+        extractor.extractVisits();
+    }
+
+    public void extractVisits() throws IOException {
+        ZoneTimes zoneTimes = new ZoneTimes(windowSeconds);
+        for (Path feedFile : feedFiles) {
+            Path visitsPath = saveDirectory.resolve(FeedsV5VisitsCSVExtractor.baseNameOf(feedFile)
+                    + VisitsColumnarFormat.FILE_SUFFIX);
+            System.out.printf("Reading %s, writing %s%n", feedFile, visitsPath);
+            try (FeedsV5VisitsColumnarWriter writer = new FeedsV5VisitsColumnarWriter(visitsPath)) {
+                FeedsV5VisitsCSVExtractor.readTakeovers(feedFile, takeover -> {
+                    if (zoneTimes.add(ZoneTimes.zoneTimeOf(takeover))) {
+                        writer.add(takeover);
+                    }
+                });
+            }
+            System.out.printf("  total skips %d%n", zoneTimes.getSkips());
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package org.joelson.turf.turfgame.apiv5;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads the columns of a visits file written by {@link FeedsV5VisitsColumnarWriter}, one whole column at a time.
+ */
+public class FeedsV5VisitsColumnarReader implements Closeable {
+
+    private record ColumnInfo(int index, byte type, String[] dictionary) {
+    }
+
+    private final FileChannel channel;
+    private final Map<String, ColumnInfo> columns = new LinkedHashMap<>();
+    private final long[] batchOffsets;
+    private final int[] batchRows;
+    private final long rowCount;
+
+    public FeedsV5VisitsColumnarReader(Path path) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            ByteBuffer header = read(0, 8);
+            if (header.getInt() != VisitsColumnarFormat.MAGIC) {
+                throw new IOException("Not a visits file " + path);
+            }
+            int version = header.getInt();
+            if (version != VisitsColumnarFormat.VERSION) {
+                throw new IOException("Unknown version " + version + " of visits file " + path);
+            }
+            long size = channel.size();
+            ByteBuffer end = read(size - 12, 12);
+            long footerOffset = end.getLong();
+            if (end.getInt() != VisitsColumnarFormat.MAGIC || footerOffset < 8 || footerOffset > size - 12) {
+                throw new IOException("Truncated visits file " + path);
+            }
+            ByteBuffer footer = read(footerOffset, size - 12 - footerOffset);
+            int columnCount = footer.getInt();
+            byte[] types = new byte[columnCount];
+            String[] names = new String[columnCount];
+            for (int i = 0; i < columnCount; i += 1) {
+                types[i] = footer.get();
+                VisitsColumnarFormat.widthOf(types[i]);
+                byte[] name = new byte[footer.getInt()];
+                footer.get(name);
+                names[i] = new String(name, StandardCharsets.UTF_8);
+            }
+            for (int i = 0; i < columnCount; i += 1) {
+                String[] dictionary = (types[i] == VisitsColumnarFormat.DICTIONARY) ? readDictionary(footer) : null;
+                columns.put(names[i], new ColumnInfo(i, types[i], dictionary));
+            }
+            batchOffsets = new long[footer.getInt()];
+            batchRows = new int[batchOffsets.length];
+            long rows = 0;
+            for (int i = 0; i < batchOffsets.length; i += 1) {
+                batchOffsets[i] = footer.getLong();
+                batchRows[i] = read(batchOffsets[i], 4).getInt();
+                rows += batchRows[i];
+            }
+            rowCount = rows;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private static String[] readDictionary(ByteBuffer footer) {
+        int size = footer.getInt();
+        int[] offsets = new int[size + 1];
+        for (int i = 0; i <= size; i += 1) {
+            offsets[i] = footer.getInt();
+        }
+        byte[] bytes = new byte[offsets[size]];
+        footer.get(bytes);
+        String[] dictionary = new String[size];
+        for (int i = 0; i < size; i += 1) {
+            dictionary[i] = new String(bytes, offsets[i], offsets[i + 1] - offsets[i], StandardCharsets.UTF_8);
+        }
+        return dictionary;
+    }
+
+    private ByteBuffer read(long position, long length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(Math.toIntExact(length)).order(ByteOrder.LITTLE_ENDIAN);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of visits file at " + (position + buffer.position()));
+            }
+        }
+        return buffer.flip();
+    }
+
+    public List<String> getColumnNames() {
+        return List.copyOf(columns.keySet());
+    }
+
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    private ColumnInfo getColumn(String name, byte... types) {
+        ColumnInfo column = columns.get(name);
+        if (column == null) {
+            throw new IllegalArgumentException("No column " + name);
+        }
+        for (byte type : types) {
+            if (column.type == type) {
+                return column;
+            }
+        }
+        throw new IllegalArgumentException("Column " + name + " has type " + (char) column.type);
+    }
+
+    /**
+     * @return the dictionary of a dictionary column
+     */
+    public List<String> getDictionary(String name) {
+        return Arrays.asList(getColumn(name, VisitsColumnarFormat.DICTIONARY).dictionary.clone());
+    }
+
+    private interface BatchReader {
+        void read(ByteBuffer buffer, int rowOffset, int rows);
+    }
+
+    private void readColumn(ColumnInfo column, BatchReader batchReader) throws IOException {
+        List<ColumnInfo> infos = new ArrayList<>(columns.values());
+        int rowOffset = 0;
+        for (int batch = 0; batch < batchOffsets.length; batch += 1) {
+            int rows = batchRows[batch];
+            long offset = batchOffsets[batch] + 8;
+            for (int i = 0; i < column.index; i += 1) {
+                int width = VisitsColumnarFormat.widthOf(infos.get(i).type);
+                offset += VisitsColumnarFormat.paddedLength((long) rows * width);
+            }
+            batchReader.read(read(offset, (long) rows * VisitsColumnarFormat.widthOf(column.type)), rowOffset, rows);
+            rowOffset += rows;
+        }
+    }
+
+    public long[] readLongs(String name) throws IOException {
+        long[] values = new long[Math.toIntExact(rowCount)];
+        readColumn(getColumn(name, VisitsColumnarFormat.INT64),
+                (buffer, rowOffset, rows) -> buffer.asLongBuffer().get(values, rowOffset, rows));
+        return values;
+    }
+
+    /**
+     * @return the values of an int32 column or the dictionary indexes of a dictionary column
+     */
+    public int[] readInts(String name) throws IOException {
+        int[] values = new int[Math.toIntExact(rowCount)];
+        readColumn(getColumn(name, VisitsColumnarFormat.INT32, VisitsColumnarFormat.DICTIONARY),
+                (buffer, rowOffset, rows) -> buffer.asIntBuffer().get(values, rowOffset, rows));
+        return values;
+    }
+
+    public byte[] readBytes(String name) throws IOException {
+        byte[] values = new byte[Math.toIntExact(rowCount)];
+        readColumn(getColumn(name, VisitsColumnarFormat.INT8),
+                (buffer, rowOffset, rows) -> buffer.get(values, rowOffset, rows));
+        return values;
+    }
+
+    /**
+     * @return the values of a dictionary column, null for no value
+     */
+    public String[] readStrings(String name) throws IOException {
+        String[] dictionary = getColumn(name, VisitsColumnarFormat.DICTIONARY).dictionary;
+        int[] indexes = readInts(name);
+        String[] values = new String[indexes.length];
+        for (int i = 0; i < indexes.length; i += 1) {
+            values[i] = (indexes[i] >= 0) ? dictionary[indexes[i]] : null;
+        }
+        return values;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
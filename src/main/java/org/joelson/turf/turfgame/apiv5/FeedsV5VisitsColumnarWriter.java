@@ -0,0 +1,216 @@
+package org.joelson.turf.turfgame.apiv5;
+
+import org.joelson.turf.turfgame.apiv5.VisitsColumnarFormat.Column;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Writes the visits of takeovers to a columnar visits file, with the same visits as
+ * {@link FeedsV5VisitsCSVExtractor} writes to CSV files. Times are epoch seconds and country, region, area, zone and
+ * user names and visit types are dictionary encoded. See {@link VisitsColumnarFormat} for the file layout.
+ */
+public class FeedsV5VisitsColumnarWriter implements Closeable {
+
+    private static final Column[] COLUMNS = Column.values();
+
+    private final FileChannel channel;
+    private final long[][] longColumns = new long[COLUMNS.length][];
+    private final int[][] intColumns = new int[COLUMNS.length][];
+    private final byte[][] byteColumns = new byte[COLUMNS.length][];
+    private final Map<Column, Dictionary> dictionaries = new HashMap<>();
+    private final List<Long> batchOffsets = new ArrayList<>();
+    private int rows = 0;
+    private long position;
+
+    private static final class Dictionary {
+
+        private final Map<String, Integer> indexes = new HashMap<>();
+        private final List<String> entries = new ArrayList<>();
+
+        private int indexOf(String entry) {
+            if (entry == null) {
+                return -1;
+            }
+            Integer index = indexes.get(entry);
+            if (index == null) {
+                index = entries.size();
+                indexes.put(entry, index);
+                entries.add(entry);
+            }
+            return index;
+        }
+    }
+
+    public FeedsV5VisitsColumnarWriter(Path path) throws IOException {
+        int batchSize = VisitsColumnarFormat.BATCH_SIZE;
+        for (Column column : COLUMNS) {
+            switch (column.getType()) {
+                case VisitsColumnarFormat.INT64 -> longColumns[column.ordinal()] = new long[batchSize];
+                case VisitsColumnarFormat.INT8 -> byteColumns[column.ordinal()] = new byte[batchSize];
+                default -> intColumns[column.ordinal()] = new int[batchSize];
+            }
+            if (column.getType() == VisitsColumnarFormat.DICTIONARY) {
+                dictionaries.put(column, new Dictionary());
+            }
+        }
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        ByteBuffer header = newBuffer(8);
+        header.putInt(VisitsColumnarFormat.MAGIC).putInt(VisitsColumnarFormat.VERSION);
+        write(header);
+    }
+
+    private static ByteBuffer newBuffer(long capacity) {
+        return ByteBuffer.allocate(Math.toIntExact(capacity)).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private void write(ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer);
+        }
+    }
+
+    /**
+     * Adds the visits of a takeover, one for the current owner and one for each assister.
+     */
+    public void add(FeedTakeover takeover) throws IOException {
+        addVisit(takeover, Objects.requireNonNull(takeover.getCurrentOwner()), VisitType.ofCurrentOwner(takeover));
+        for (User assister : Objects.requireNonNullElse(takeover.getAssists(), new User[0])) {
+            addVisit(takeover, assister, VisitType.ASSIST);
+        }
+    }
+
+    private void setLong(Column column, long value) {
+        longColumns[column.ordinal()][rows] = value;
+    }
+
+    private void setInt(Column column, int value) {
+        intColumns[column.ordinal()][rows] = value;
+    }
+
+    private void setString(Column column, String value) {
+        intColumns[column.ordinal()][rows] = dictionaries.get(column).indexOf(value);
+    }
+
+    private void addVisit(FeedTakeover takeover, User user, VisitType type) throws IOException {
+        Zone zone = Objects.requireNonNull(takeover.getZone());
+        Region region = Objects.requireNonNull(zone.getRegion());
+        Area area = region.getArea();
+        setLong(Column.TIME, takeover.getEpochSecond());
+        setString(Column.COUNTRY, region.getCountry());
+        setInt(Column.REGION_ID, region.getId());
+        setString(Column.REGION, region.getName());
+        setInt(Column.AREA_ID, (area != null) ? area.getId() : -1);
+        setString(Column.AREA, (area != null) ? area.getName() : null);
+        setInt(Column.ZONE_ID, zone.getId());
+        setString(Column.ZONE, zone.getName());
+        setInt(Column.TAKEOVER_POINTS, zone.getTakeoverPoints());
+        setInt(Column.POINTS_PER_HOUR, zone.getPointsPerHour());
+        setInt(Column.USER_ID, user.getId());
+        setString(Column.USER, user.getName());
+        setString(Column.TYPE, type.getName());
+        byteColumns[Column.NEUTRAL.ordinal()][rows] = (byte) (VisitType.isNeutral(takeover) ? 1 : 0);
+        rows += 1;
+        if (rows == VisitsColumnarFormat.BATCH_SIZE) {
+            writeBatch();
+        }
+    }
+
+    private void writeBatch() throws IOException {
+        long length = 8;
+        for (Column column : COLUMNS) {
+            length += VisitsColumnarFormat.paddedLength((long) rows * VisitsColumnarFormat.widthOf(column.getType()));
+        }
+        ByteBuffer buffer = newBuffer(length);
+        buffer.putInt(rows).putInt(0);
+        for (Column column : COLUMNS) {
+            int start = buffer.position();
+            switch (column.getType()) {
+                case VisitsColumnarFormat.INT64 -> buffer.asLongBuffer().put(longColumns[column.ordinal()], 0, rows);
+                case VisitsColumnarFormat.INT8 -> buffer.put(byteColumns[column.ordinal()], 0, rows);
+                default -> buffer.asIntBuffer().put(intColumns[column.ordinal()], 0, rows);
+            }
+            buffer.position(start + (int) VisitsColumnarFormat.paddedLength(
+                    (long) rows * VisitsColumnarFormat.widthOf(column.getType())));
+        }
+        batchOffsets.add(position);
+        write(buffer);
+        rows = 0;
+    }
+
+    private void writeFooter() throws IOException {
+        long footerOffset = position;
+        List<byte[]> names = new ArrayList<>();
+        long length = 4;
+        for (Column column : COLUMNS) {
+            byte[] name = column.getColumnName().getBytes(StandardCharsets.UTF_8);
+            names.add(name);
+            length += 1 + 4 + name.length;
+        }
+        List<byte[]> entries = new ArrayList<>();
+        for (Column column : COLUMNS) {
+            if (column.getType() == VisitsColumnarFormat.DICTIONARY) {
+                List<String> dictionary = dictionaries.get(column).entries;
+                length += 4 + 4L * (dictionary.size() + 1);
+                for (String entry : dictionary) {
+                    byte[] bytes = entry.getBytes(StandardCharsets.UTF_8);
+                    entries.add(bytes);
+                    length += bytes.length;
+                }
+            }
+        }
+        length += 4 + 8L * batchOffsets.size() + 8 + 4;
+        ByteBuffer buffer = newBuffer(length);
+        buffer.putInt(COLUMNS.length);
+        for (Column column : COLUMNS) {
+            byte[] name = names.get(column.ordinal());
+            buffer.put(column.getType()).putInt(name.length).put(name);
+        }
+        int entryIndex = 0;
+        for (Column column : COLUMNS) {
+            if (column.getType() == VisitsColumnarFormat.DICTIONARY) {
+                int size = dictionaries.get(column).entries.size();
+                buffer.putInt(size);
+                int offset = 0;
+                buffer.putInt(offset);
+                for (int i = 0; i < size; i += 1) {
+                    offset += entries.get(entryIndex + i).length;
+                    buffer.putInt(offset);
+                }
+                for (int i = 0; i < size; i += 1) {
+                    buffer.put(entries.get(entryIndex + i));
+                }
+                entryIndex += size;
+            }
+        }
+        buffer.putInt(batchOffsets.size());
+        for (long batchOffset : batchOffsets) {
+            buffer.putLong(batchOffset);
+        }
+        buffer.putLong(footerOffset).putInt(VisitsColumnarFormat.MAGIC);
+        write(buffer);
+    }
+
+    @Override
+    public void close() throws IOException {
+        try (channel) {
+            if (rows > 0) {
+                writeBatch();
+            }
+            writeFooter();
+        }
+    }
+}
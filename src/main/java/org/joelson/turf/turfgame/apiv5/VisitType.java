@@ -0,0 +1,37 @@
+package org.joelson.turf.turfgame.apiv5;
+
+/**
+ * The type of visit of a user in a takeover.
+ */
+public enum VisitType {
+
+    /** The current owner took the zone from another user, or a neutral zone. */
+    TAKEOVER("takeover"),
+    /** The current owner took the zone from themself. */
+    REVISIT("revisit"),
+    /** The user assisted the current owner. */
+    ASSIST("assist");
+
+    private final String name;
+
+    VisitType(String name) {
+        this.name = name;
+    }
+
+    public static VisitType ofCurrentOwner(FeedTakeover takeover) {
+        User previousOwner = takeover.getZone().getPreviousOwner();
+        return (previousOwner != null && previousOwner.getId() == takeover.getCurrentOwner().getId())
+                ? REVISIT : TAKEOVER;
+    }
+
+    /**
+     * @return true if the zone was neutral before the takeover
+     */
+    public static boolean isNeutral(FeedTakeover takeover) {
+        return takeover.getZone().getPreviousOwner() == null;
+    }
+
+    public String getName() {
+        return name;
+    }
+}
@@ -0,0 +1,82 @@
+package org.joelson.turf.turfgame.apiv5;
+
+/**
+ * Constants shared by {@link FeedsV5VisitsColumnarWriter} and {@link FeedsV5VisitsColumnarReader}.
+ * <p>
+ * A visits file is little endian, so that every column of a batch can be loaded directly into an array, for instance
+ * with {@code numpy.frombuffer}. The file starts with {@link #MAGIC} and {@link #VERSION} followed by batches and a
+ * footer:
+ * <pre>
+ * batch:  int32 row count, int32 zero, then the values of every column, each column padded to a multiple of 8 bytes
+ *         int64 columns have 8 bytes, int32 and dictionary columns 4 bytes and int8 columns 1 byte per row
+ * footer: int32 column count, for every column: byte type, int32 name length, UTF-8 name
+ *         for every dictionary column: int32 entry count, int32 offsets[entry count + 1], UTF-8 entries
+ *         int32 batch count, int64 batch offsets[batch count]
+ * end:    int64 footer offset, magic
+ * </pre>
+ * A dictionary column holds the index of the value in the dictionary of the column, -1 for no value. An int32 id
+ * column without a value holds -1.
+ */
+final class VisitsColumnarFormat {
+
+    /** The bytes "TVIS" as a little endian int. */
+    static final int MAGIC = 0x53495654;
+    static final int VERSION = 1;
+    static final int BATCH_SIZE = 1 << 16;
+    static final String FILE_SUFFIX = ".visits";
+
+    static final byte INT8 = 'b';
+    static final byte INT32 = 'i';
+    static final byte INT64 = 'l';
+    static final byte DICTIONARY = 'd';
+
+    enum Column {
+        TIME("time", INT64),
+        COUNTRY("country", DICTIONARY),
+        REGION_ID("region_id", INT32),
+        REGION("region", DICTIONARY),
+        AREA_ID("area_id", INT32),
+        AREA("area", DICTIONARY),
+        ZONE_ID("zone_id", INT32),
+        ZONE("zone", DICTIONARY),
+        TAKEOVER_POINTS("takeover_points", INT32),
+        POINTS_PER_HOUR("points_per_hour", INT32),
+        USER_ID("user_id", INT32),
+        USER("user", DICTIONARY),
+        TYPE("type", DICTIONARY),
+        NEUTRAL("neutral", INT8);
+
+        private final String columnName;
+        private final byte type;
+
+        Column(String columnName, byte type) {
+            this.columnName = columnName;
+            this.type = type;
+        }
+
+        String getColumnName() {
+            return columnName;
+        }
+
+        byte getType() {
+            return type;
+        }
+    }
+
+    private VisitsColumnarFormat() throws InstantiationException {
+        throw new InstantiationException("Should not be instantiated!");
+    }
+
+    static int widthOf(byte type) {
+        return switch (type) {
+            case INT8 -> 1;
+            case INT32, DICTIONARY -> 4;
+            case INT64 -> 8;
+            default -> throw new IllegalArgumentException("Unknown column type " + type);
+        };
+    }
+
+    static long paddedLength(long length) {
+        return (length + 7) & ~7L;
+    }
+}
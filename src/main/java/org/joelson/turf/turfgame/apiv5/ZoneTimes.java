@@ -0,0 +1,82 @@
+package org.joelson.turf.turfgame.apiv5;
+
+import org.joelson.turf.util.LongHashSet;
+
+import java.util.Objects;
+
+/**
+ * The zone and time of the takeovers already handled, optionally only of the last window seconds. Zone id and epoch
+ * second of a takeover are packed into one long.
+ */
+public final class ZoneTimes {
+
+    private static final int TIME_BITS = 34;
+    private static final long TIME_MASK = (1L << TIME_BITS) - 1;
+
+    private final long windowSeconds;
+    private final LongHashSet zoneTimes = new LongHashSet();
+    private long lastTakeoverTime = Long.MIN_VALUE;
+    private long nextEvictionTime = Long.MIN_VALUE;
+    private int skips = 0;
+    private int outOfWindow = 0;
+
+    /**
+     * @param windowSeconds seconds of takeovers remembered, or negative to remember all takeovers
+     */
+    public ZoneTimes(long windowSeconds) {
+        this.windowSeconds = windowSeconds;
+    }
+
+    public static long zoneTimeOf(FeedTakeover takeover) {
+        return toZoneTime(Objects.requireNonNull(takeover.getZone()).getId(), takeover.getEpochSecond());
+    }
+
+    static long toZoneTime(int zoneId, long epochSecond) {
+        if (zoneId < 0 || zoneId >= 1 << (Long.SIZE - TIME_BITS - 1) || epochSecond < 0 || epochSecond > TIME_MASK) {
+            throw new IllegalArgumentException("Zone id " + zoneId + " or time " + epochSecond + " out of range");
+        }
+        return (long) zoneId << TIME_BITS | epochSecond;
+    }
+
+    static long timeOf(long zoneTime) {
+        return zoneTime & TIME_MASK;
+    }
+
+    /**
+     * @return true if the takeover was not already handled
+     */
+    public boolean add(long zoneTime) {
+        if (windowSeconds >= 0) {
+            long epochSecond = timeOf(zoneTime);
+            lastTakeoverTime = Math.max(lastTakeoverTime, epochSecond);
+            if (lastTakeoverTime >= nextEvictionTime) {
+                long windowStart = lastTakeoverTime - windowSeconds;
+                zoneTimes.removeIf(time -> timeOf(time) < windowStart);
+                nextEvictionTime = lastTakeoverTime + Math.max(windowSeconds, 1);
+            }
+            if (epochSecond < lastTakeoverTime - windowSeconds) {
+                outOfWindow += 1;
+            }
+        }
+        if (!zoneTimes.add(zoneTime)) {
+            skip();
+            return false;
+        }
+        return true;
+    }
+
+    void skip() {
+        skips += 1;
+    }
+
+    public int getSkips() {
+        return skips;
+    }
+
+    /**
+     * @return number of takeovers older than the window, which may not have been skipped
+     */
+    public int getOutOfWindow() {
+        return outOfWindow;
+    }
+}
@@ -32,7 +32,7 @@ public class ZonesV5CSVExtractor {
         extractor.extractZones();
     }
 
-    private void extractZones() throws IOException {
+    public void extractZones() throws IOException {
         try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(zonesCSVPath))) {
             List<Zone> zones = Zones.fromJSON(Files.readString(zonesJSONPath));
             for (Zone zone : zones) {
@@ -17,11 +17,11 @@ public class DefaultFeedContentErrorHandler implements FeedContentErrorHandler {
 
     public void handleErrorContent(Path path, String content, IOException e) {
         errorPaths.add(path);
-        if (e instanceof MismatchedInputException
+        if (e instanceof MismatchedInputException && content != null
                 && content.startsWith("{\"errorMessage\":\"Only one request per second allowed\",\"errorCode\":")) {
             message("Path %s contains error message - only one request per second allowed.", path);
             return;
-        } else if (e instanceof JsonParseException) {
+        } else if (e instanceof JsonParseException && content != null) {
             if (content.isEmpty()) {
                 message("Path %s is empty.", path);
                 return;
@@ -60,7 +60,7 @@ public class DefaultFeedContentErrorHandler implements FeedContentErrorHandler {
             message("*** Unhandled exception type %s for path %s lacking content.",
                     e.getClass().getName(), path);
         } else {
-            String partOfContent = content.substring(0, 20);
+            String partOfContent = content.substring(0, Math.min(20, content.length()));
             message("*** Unhandled exception type %s for path %s having content starting with \"%s\"",
                     e.getClass().getName(), path, partOfContent);
         }
@@ -94,7 +94,7 @@ public class DefaultFeedContentErrorHandler implements FeedContentErrorHandler {
     }
 
     private static boolean isHTML(String content) {
-        String contentPart = content.substring(0, 15).toLowerCase();
+        String contentPart = content.substring(0, Math.min(15, content.length())).toLowerCase();
         return contentPart.startsWith("<!doctype html>") || contentPart.startsWith("<html>");
     }
 }
@@ -0,0 +1,152 @@
+package org.joelson.turf.turfgame.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * The time covered by feeds, a set of disjoint intervals of epoch seconds. Overlapping intervals are joined when added,
+ * every lookup is a floor or ceiling lookup in a sorted map from start to end of the intervals.
+ * <p>
+ * Adjacent intervals, where one ends the second before the next starts, are not joined, so the intervals listed show
+ * where feed files abut. There is no gap between them though, they are covered as one interval.
+ */
+public class FeedCoverage {
+
+    /**
+     * An inclusive interval of epoch seconds.
+     */
+    public record Interval(long from, long to) {
+
+        public Interval {
+            if (from > to) {
+                throw new IllegalArgumentException("Wrong order " + from + " and " + to);
+            }
+        }
+    }
+
+    private final NavigableMap<Long, Long> intervals = new TreeMap<>();
+
+    /**
+     * Adds an interval, joining it with the overlapping intervals.
+     *
+     * @param from inclusive start epoch second
+     * @param to   inclusive end epoch second
+     */
+    public void add(long from, long to) {
+        if (from > to) {
+            throw new IllegalArgumentException("Wrong order " + from + " and " + to);
+        }
+        Map.Entry<Long, Long> floor = intervals.floorEntry(from);
+        if (floor != null && floor.getValue() >= from) {
+            from = floor.getKey();
+            to = Math.max(to, floor.getValue());
+        }
+        Map.Entry<Long, Long> ceiling;
+        while ((ceiling = intervals.ceilingEntry(from)) != null && to >= ceiling.getKey()) {
+            to = Math.max(to, ceiling.getValue());
+            intervals.remove(ceiling.getKey());
+        }
+        intervals.put(from, to);
+    }
+
+    public void add(FeedCoverage coverage) {
+        for (Map.Entry<Long, Long> interval : coverage.intervals.entrySet()) {
+            add(interval.getKey(), interval.getValue());
+        }
+    }
+
+    public boolean isEmpty() {
+        return intervals.isEmpty();
+    }
+
+    /**
+     * @return true if the interval is covered, possibly by adjacent intervals
+     */
+    public boolean covers(long from, long to) {
+        return getGaps(from, to).isEmpty();
+    }
+
+    public List<Interval> getIntervals() {
+        return getIntervals(Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    /**
+     * Returns the intervals intersecting an interval, the first may start before and the last may end after the
+     * interval.
+     *
+     * @param from inclusive start epoch second
+     * @param to   inclusive end epoch second
+     */
+    public List<Interval> getIntervals(long from, long to) {
+        List<Interval> result = new ArrayList<>();
+        if (from > to) {
+            return result;
+        }
+        Map.Entry<Long, Long> floor = intervals.floorEntry(from);
+        if (floor != null && floor.getValue() >= from && floor.getKey() < from) {
+            result.add(new Interval(floor.getKey(), floor.getValue()));
+        }
+        for (Map.Entry<Long, Long> interval : intervals.subMap(from, true, to, true).entrySet()) {
+            result.add(new Interval(interval.getKey(), interval.getValue()));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the parts of an interval not covered.
+     *
+     * @param from inclusive start epoch second
+     * @param to   inclusive end epoch second
+     */
+    public List<Interval> getGaps(long from, long to) {
+        List<Interval> gaps = new ArrayList<>();
+        long start = from;
+        for (Interval interval : getIntervals(from, to)) {
+            if (interval.from > start) {
+                gaps.add(new Interval(start, interval.from - 1));
+            }
+            if (interval.to >= to) {
+                return gaps;
+            }
+            start = interval.to + 1;
+        }
+        if (start <= to) {
+            gaps.add(new Interval(start, to));
+        }
+        return gaps;
+    }
+
+    /**
+     * @return a new coverage of the time covered by this and the other coverage
+     */
+    public FeedCoverage intersection(FeedCoverage coverage) {
+        FeedCoverage intersection = new FeedCoverage();
+        for (Map.Entry<Long, Long> interval : intervals.entrySet()) {
+            for (Interval other : coverage.getIntervals(interval.getKey(), interval.getValue())) {
+                intersection.add(Math.max(interval.getKey(), other.from), Math.min(interval.getValue(), other.to));
+            }
+        }
+        return intersection;
+    }
+
+    /**
+     * @return a new coverage of the time covered by this but not by the other coverage
+     */
+    public FeedCoverage difference(FeedCoverage coverage) {
+        FeedCoverage difference = new FeedCoverage();
+        for (Map.Entry<Long, Long> interval : intervals.entrySet()) {
+            for (Interval gap : coverage.getGaps(interval.getKey(), interval.getValue())) {
+                difference.add(gap.from, gap.to);
+            }
+        }
+        return difference;
+    }
+
+    @Override
+    public String toString() {
+        return "FeedCoverage" + getIntervals();
+    }
+}
@@ -0,0 +1,201 @@
+package org.joelson.turf.turfgame.util;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.TreeNode;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.DeserializationConfig;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.deser.BeanDeserializerModifier;
+import com.fasterxml.jackson.databind.deser.std.DelegatingDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import org.joelson.turf.util.InterningPool;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Canonicalizes the users, regions, areas, types and zones of feed objects while they are bound. Every takeover in a
+ * feed holds its own copies of these, so when feed objects are retained most of the memory is identical copies.
+ * <p>
+ * Each model class has an {@link InterningPool} keyed by id. A model object is shared only with objects bound from
+ * JSON content with an equal fingerprint, a 128 bit hash of its tokens, so a zone, which changes with every takeover,
+ * is only shared between feed objects of the same zone state while users, regions, areas and types are typically
+ * shared between all feed objects. Nested model objects are canonicalized as well.
+ */
+public class FeedModelPool {
+
+    private static final List<Class<?>> MODEL_CLASSES = List.of(
+            org.joelson.turf.turfgame.apiv4.User.class,
+            org.joelson.turf.turfgame.apiv4.Region.class,
+            org.joelson.turf.turfgame.apiv4.Zone.class,
+            org.joelson.turf.turfgame.apiv5.User.class,
+            org.joelson.turf.turfgame.apiv5.Region.class,
+            org.joelson.turf.turfgame.apiv5.Area.class,
+            org.joelson.turf.turfgame.apiv5.Type.class,
+            org.joelson.turf.turfgame.apiv5.Zone.class);
+
+    private final Map<Class<?>, InterningPool<Integer, Object>> pools = new LinkedHashMap<>();
+    private final ObjectMapper objectMapper;
+
+    /**
+     * @param maxSize maximum number of pooled objects of each model class
+     */
+    public FeedModelPool(int maxSize) {
+        for (Class<?> modelClass : MODEL_CLASSES) {
+            pools.put(modelClass, new InterningPool<>(maxSize));
+        }
+        SimpleModule module = new SimpleModule("FeedModelPool");
+        module.setDeserializerModifier(new BeanDeserializerModifier() {
+            @Override
+            public JsonDeserializer<?> modifyDeserializer(DeserializationConfig config, BeanDescription beanDesc,
+                    JsonDeserializer<?> deserializer) {
+                InterningPool<Integer, Object> pool = pools.get(beanDesc.getBeanClass());
+                return (pool != null) ? new InterningDeserializer(deserializer, pool) : deserializer;
+            }
+        });
+        objectMapper = new ObjectMapper().registerModule(module);
+    }
+
+    public <T> T readValue(JsonParser parser, Class<T> valueType) throws IOException {
+        return objectMapper.readValue(parser, valueType);
+    }
+
+    public <T> T treeToValue(TreeNode n, Class<T> valueType) throws JsonProcessingException {
+        return objectMapper.treeToValue(n, valueType);
+    }
+
+    public long getHits() {
+        return pools.values().stream().mapToLong(InterningPool::getHits).sum();
+    }
+
+    public long getMisses() {
+        return pools.values().stream().mapToLong(InterningPool::getMisses).sum();
+    }
+
+    public void clear() {
+        pools.values().forEach(InterningPool::clear);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("FeedModelPool[");
+        String separator = "";
+        for (Map.Entry<Class<?>, InterningPool<Integer, Object>> entry : pools.entrySet()) {
+            builder.append(separator).append(entry.getKey().getName()).append('=').append(entry.getValue());
+            separator = ", ";
+        }
+        return builder.append(']').toString();
+    }
+
+    /**
+     * A 128 bit hash of the tokens of a JSON object, kept by the pools instead of the content itself.
+     */
+    private record Fingerprint(long first, long second) {
+
+        private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+        private static final long FNV_PRIME = 0x100000001b3L;
+        private static final long MIX_MULTIPLIER = 0x9e3779b97f4a7c15L;
+
+        private static final class Builder {
+
+            private long first = FNV_OFFSET_BASIS;
+            private long second = MIX_MULTIPLIER;
+
+            private void add(int value) {
+                first = (first ^ value) * FNV_PRIME;
+                second = Long.rotateLeft((second ^ value) * MIX_MULTIPLIER, 29);
+            }
+
+            private void add(JsonToken token, String text) {
+                add(token.ordinal());
+                if (text != null) {
+                    add(text.length());
+                    for (int i = 0; i < text.length(); i += 1) {
+                        add(text.charAt(i));
+                    }
+                }
+            }
+
+            private Fingerprint build() {
+                return new Fingerprint(first, second);
+            }
+        }
+    }
+
+    /**
+     * Copies the JSON object of a model object to a token buffer while computing its id and fingerprint, returning the
+     * pooled object if its fingerprint is equal and otherwise binding the buffer with the bean deserializer.
+     */
+    private static final class InterningDeserializer extends DelegatingDeserializer {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient InterningPool<Integer, Object> pool;
+
+        private InterningDeserializer(JsonDeserializer<?> delegatee, InterningPool<Integer, Object> pool) {
+            super(delegatee);
+            this.pool = pool;
+        }
+
+        @Override
+        protected JsonDeserializer<?> newDelegatingInstance(JsonDeserializer<?> newDelegatee) {
+            return new InterningDeserializer(newDelegatee, pool);
+        }
+
+        @Override
+        public Object deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            TokenBuffer buffer = context.bufferAsCopyOfValue(parser);
+            Integer id = null;
+            Fingerprint.Builder fingerprintBuilder = new Fingerprint.Builder();
+            try (JsonParser bufferParser = buffer.asParserOnFirstToken()) {
+                if (bufferParser.currentToken() != JsonToken.START_OBJECT) {
+                    return bind(buffer, context);
+                }
+                int depth = 0;
+                boolean idValue = false;
+                for (JsonToken token = bufferParser.currentToken(); token != null; token = bufferParser.nextToken()) {
+                    fingerprintBuilder.add(token, token.isStructStart() || token.isStructEnd()
+                            ? null : bufferParser.getText());
+                    if (idValue && token == JsonToken.VALUE_NUMBER_INT
+                            && bufferParser.getNumberType() == JsonParser.NumberType.INT) {
+                        id = bufferParser.getIntValue();
+                    }
+                    idValue = depth == 1 && token == JsonToken.FIELD_NAME && "id".equals(bufferParser.currentName());
+                    if (token.isStructStart()) {
+                        depth += 1;
+                    } else if (token.isStructEnd()) {
+                        depth -= 1;
+                    }
+                }
+            }
+            if (id == null) {
+                return bind(buffer, context);
+            }
+            try {
+                return pool.intern(id, fingerprintBuilder.build(), () -> {
+                    try {
+                        return bind(buffer, context);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+
+        private Object bind(TokenBuffer buffer, DeserializationContext context) throws IOException {
+            try (JsonParser bufferParser = buffer.asParserOnFirstToken()) {
+                return _delegatee.deserialize(bufferParser, context);
+            }
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package org.joelson.turf.turfgame.util;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * Chooses the interval until the next poll of a feed from how full the previous responses were. A feed response holds
+ * at most a page limit of entries, if more entries were created since the last poll the oldest of them are lost. The
+ * entry rate is estimated from the time span covered by a response and the interval is set so that the next response
+ * is expected to be about half full, changed at most by a factor two each poll and kept within the bounds.
+ */
+public class FeedPollScheduler {
+
+    private static final double TARGET_FILL_RATIO = 0.5;
+
+    private final Duration minInterval;
+    private final Duration maxInterval;
+    private int pageLimit;
+    private Duration interval;
+    private double fillRatio;
+    private double gapRisk;
+
+    /**
+     * @param minInterval     shortest interval between polls
+     * @param initialInterval interval used until the first response is seen
+     * @param maxInterval     longest interval between polls
+     * @param pageLimit       assumed maximum number of entries in a response, raised if a larger response is seen
+     */
+    public FeedPollScheduler(Duration minInterval, Duration initialInterval, Duration maxInterval, int pageLimit) {
+        Objects.requireNonNull(minInterval, "minInterval is null");
+        Objects.requireNonNull(initialInterval, "initialInterval is null");
+        Objects.requireNonNull(maxInterval, "maxInterval is null");
+        if (minInterval.toSeconds() < 1 || minInterval.compareTo(initialInterval) > 0
+                || initialInterval.compareTo(maxInterval) > 0) {
+            throw new IllegalArgumentException(String.format("Invalid intervals %s <= %s <= %s",
+                    minInterval, initialInterval, maxInterval));
+        }
+        if (pageLimit < 1) {
+            throw new IllegalArgumentException("Invalid pageLimit " + pageLimit);
+        }
+        this.minInterval = minInterval;
+        this.maxInterval = maxInterval;
+        this.pageLimit = pageLimit;
+        interval = initialInterval;
+    }
+
+    /**
+     * Updates the interval from a feed response to a poll for the entries since the previous poll.
+     *
+     * @see #update(int, Instant, Instant, boolean)
+     */
+    public Duration update(int entries, Instant firstEntry, Instant lastEntry) {
+        return update(entries, firstEntry, lastEntry, true);
+    }
+
+    /**
+     * Updates the interval from a feed response. A response to a poll not bounded by the previous poll holds the
+     * latest entries of any age, so a full page of them only gives the entry rate, not a sign of lost entries.
+     *
+     * @param entries    number of entries in the response
+     * @param firstEntry time of the oldest entry, or null if no entries
+     * @param lastEntry  time of the latest entry, or null if no entries
+     * @param sincePoll  if the response holds only the entries since the previous poll
+     * @return the interval until the next poll
+     */
+    public synchronized Duration update(int entries, Instant firstEntry, Instant lastEntry, boolean sincePoll) {
+        if (entries < 0) {
+            throw new IllegalArgumentException("Invalid entries " + entries);
+        }
+        pageLimit = Math.max(pageLimit, entries);
+        fillRatio = (double) entries / pageLimit;
+
+        long intervalSeconds = interval.toSeconds();
+        double entriesPerSecond;
+        if (entries >= 2 && firstEntry != null && lastEntry != null && lastEntry.isAfter(firstEntry)) {
+            entriesPerSecond = (entries - 1) / (double) Duration.between(firstEntry, lastEntry).toSeconds();
+        } else if (sincePoll) {
+            entriesPerSecond = entries / (double) intervalSeconds;
+        } else {
+            entriesPerSecond = 0;
+        }
+
+        double targetSeconds = (entriesPerSecond > 0)
+                ? TARGET_FILL_RATIO * pageLimit / entriesPerSecond : Double.POSITIVE_INFINITY;
+        if (sincePoll && entries >= pageLimit) {
+            // a full page only gives a lower bound of the rate, entries may already have been lost
+            targetSeconds = Math.min(targetSeconds, intervalSeconds / 2.0);
+        }
+        double nextSeconds = Math.clamp(targetSeconds, intervalSeconds / 2.0, intervalSeconds * 2.0);
+        nextSeconds = Math.clamp(nextSeconds, minInterval.toSeconds(), maxInterval.toSeconds());
+        interval = Duration.ofSeconds(Math.round(nextSeconds));
+        gapRisk = entriesPerSecond * interval.toSeconds() / pageLimit;
+        return interval;
+    }
+
+    public synchronized Duration getInterval() {
+        return interval;
+    }
+
+    /**
+     * @return number of entries in the latest response relative to the page limit
+     */
+    public synchronized double getFillRatio() {
+        return fillRatio;
+    }
+
+    /**
+     * @return expected fill ratio of the next response at the chosen interval, at 1.0 or more entries may be lost
+     */
+    public synchronized double getGapRisk() {
+        return gapRisk;
+    }
+
+    public synchronized int getPageLimit() {
+        return pageLimit;
+    }
+}
@@ -0,0 +1,321 @@
+package org.joelson.turf.turfgame.util;
+
+import org.joelson.turf.util.FilesUtil;
+import org.joelson.turf.util.TimeUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A persistent coverage index of the feed files of a feeds directory, so the gaps of the feeds can be found without
+ * reading any feed file. {@link FeedsDownloader} and {@link FeedsReplicationClient} add every stored feed file to the
+ * index, other writers add their feed files with {@link #addFeedFile(Path, long, long)}, and an index of an existing
+ * feeds directory is built with the rebuild command. Feed files of the version directories not in the index, such as
+ * files copied to the feeds directory, are read and added when the index is opened.
+ * <p>
+ * The index file is an append-only log of records, one per feed file. Every record consists of the length of the
+ * record, the first and last epoch second of the feed file, the name of the version directory, the feed types and the
+ * path of the feed file in the version directory. A record is appended in a single write, and an incomplete last
+ * record, left by an interrupted write, is truncated when the index is opened.
+ */
+public class FeedsCoverageIndex implements Closeable {
+
+    public static final String INDEX_FILE_NAME = "feeds_coverage.idx";
+
+    private static final Logger logger = LoggerFactory.getLogger(FeedsCoverageIndex.class);
+
+    private final Path feedsPath;
+    private final FileChannel indexChannel;
+    private long indexSize;
+    private final Set<Path> indexedPaths = new HashSet<>();
+    private final Map<String, Map<String, FeedsIndex.TypeIndex>> versionIndexes = new HashMap<>();
+
+    /**
+     * Opens, or creates, the index of a feeds directory, and adds the feed files not in the index.
+     *
+     * @param feedsPath feeds directory with the feeds_v4, feeds_v5 and feeds_v6 directories
+     */
+    public FeedsCoverageIndex(Path feedsPath) throws IOException {
+        this(feedsPath, feedsPath.resolve(INDEX_FILE_NAME));
+        int indexed = addUnindexedFeedFiles();
+        if (indexed > 0) {
+            logger.info("Indexed {} feed files not in {}", indexed, feedsPath.resolve(INDEX_FILE_NAME));
+        }
+    }
+
+    private FeedsCoverageIndex(Path feedsPath, Path indexPath) throws IOException {
+        this.feedsPath = Objects.requireNonNull(feedsPath, "feedsPath is null");
+        indexChannel = FileChannel.open(indexPath, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        indexSize = readIndex(indexPath, indexChannel.size());
+        if (indexSize < indexChannel.size()) {
+            logger.warn("Truncating incomplete record at {} of {}", indexSize, indexPath);
+            indexChannel.truncate(indexSize);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 2 && args[1].equals("rebuild")) {
+            long start = System.currentTimeMillis();
+            int indexed = rebuild(Path.of(args[0]));
+            System.out.printf("Indexed %d feed files in %d ms%n", indexed, System.currentTimeMillis() - start);
+        } else if (args.length == 6 && (args[1].equals("gaps") || args[1].equals("files"))) {
+            String versionPathName = FeedsReplicationServer.VERSION_PATH_NAMES.get(args[2]);
+            if (versionPathName == null) {
+                System.out.printf("Unknown version %s%n", args[2]);
+                System.exit(-1);
+            }
+            long from = TimeUtil.turfAPITimestampToEpochSecond(args[4]);
+            long to = TimeUtil.turfAPITimestampToEpochSecond(args[5]);
+            try (FeedsCoverageIndex coverageIndex = new FeedsCoverageIndex(Path.of(args[0]))) {
+                long start = System.currentTimeMillis();
+                if (args[1].equals("gaps")) {
+                    List<FeedCoverage.Interval> gaps = coverageIndex.getGaps(versionPathName, args[3], from, to);
+                    long millis = System.currentTimeMillis() - start;
+                    gaps.forEach(gap -> System.out.printf("%s - %s%n",
+                            TimeUtil.epochSecondToTurfAPITimestamp(gap.from()),
+                            TimeUtil.epochSecondToTurfAPITimestamp(gap.to())));
+                    System.out.printf("Found %d gaps in %d ms%n", gaps.size(), millis);
+                } else {
+                    List<Path> feedPaths = coverageIndex.getFeedPaths(versionPathName, args[3], from, to);
+                    long millis = System.currentTimeMillis() - start;
+                    feedPaths.forEach(System.out::println);
+                    System.out.printf("Found %d feed files in %d ms%n", feedPaths.size(), millis);
+                }
+            }
+        } else {
+            System.out.printf("""
+                            Usage:
+                            \t%1$s feeds_dir rebuild
+                            \t%1$s feeds_dir gaps v5 takeover 2024-06-15T19:00:00+0000 2024-06-15T20:00:00+0000
+                            \t%1$s feeds_dir files v5 takeover 2024-06-15T19:00:00+0000 2024-06-15T20:00:00+0000%n""",
+                    FeedsCoverageIndex.class.getName());
+            System.exit(-1);
+        }
+    }
+
+    /**
+     * Builds a new index of all feed files of the version directories of a feeds directory, and replaces the index of
+     * the feeds directory with it. Feed files in zip files are not indexed. The feeds directory should not be
+     * downloaded to while rebuilding, as feed files stored meanwhile are added to the replaced index.
+     *
+     * @return the number of indexed feed files
+     */
+    public static int rebuild(Path feedsPath) throws IOException {
+        Path tempPath = Files.createTempFile(feedsPath, "feeds_coverage", ".idx");
+        int indexed = 0;
+        try {
+            try (FeedsCoverageIndex coverageIndex = new FeedsCoverageIndex(feedsPath, tempPath)) {
+                indexed = coverageIndex.addUnindexedFeedFiles();
+            }
+            Files.move(tempPath, feedsPath.resolve(INDEX_FILE_NAME), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tempPath);
+        }
+        return indexed;
+    }
+
+    private int addUnindexedFeedFiles() throws IOException {
+        List<Path> paths = new ArrayList<>();
+        for (String versionPathName : FeedsReplicationServer.VERSION_PATH_NAMES.values()) {
+            Path versionPath = feedsPath.resolve(versionPathName);
+            if (Files.isDirectory(versionPath)) {
+                FilesUtil.forEachFile(versionPath, false, new FeedsPathComparator(), path -> {
+                    if (FeedsIndex.isFeedFile(path) && !indexedPaths.contains(path)) {
+                        paths.add(path);
+                    }
+                });
+            }
+        }
+        int indexed = 0;
+        for (Path path : paths) {
+            try {
+                FeedsIndex.FeedFile feedFile = FeedsIndex.scanFeedFile(path);
+                if (feedFile != null && addFeedFile(path, feedFile.types(), feedFile.from(), feedFile.to())) {
+                    indexed += 1;
+                }
+            } catch (IOException | RuntimeException e) {
+                logger.warn("Unable to index {}: {}", path, e.toString());
+            }
+        }
+        return indexed;
+    }
+
+    private long readIndex(Path indexPath, long size) throws IOException {
+        long offset = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(indexPath)))) {
+            while (offset + Integer.BYTES <= size) {
+                int length = in.readInt();
+                if (length < 0 || offset + Integer.BYTES + length > size) {
+                    break;
+                }
+                byte[] record = new byte[length];
+                in.readFully(record);
+                readRecord(record);
+                offset += Integer.BYTES + length;
+            }
+        }
+        return offset;
+    }
+
+    private void readRecord(byte[] record) throws IOException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(record))) {
+            long from = in.readLong();
+            long to = in.readLong();
+            String versionPathName = in.readUTF();
+            int typeCount = in.readUnsignedByte();
+            Set<String> types = new LinkedHashSet<>();
+            for (int i = 0; i < typeCount; i += 1) {
+                types.add(in.readUTF());
+            }
+            String fileName = in.readUTF();
+            indexFeedFile(feedsPath.resolve(versionPathName).resolve(fileName), versionPathName, types, from, to);
+        }
+    }
+
+    private boolean indexFeedFile(Path path, String versionPathName, Set<String> types, long from, long to) {
+        if (!indexedPaths.add(path)) {
+            return false;
+        }
+        FeedsIndex.FeedFile feedFile = new FeedsIndex.FeedFile(path, types, from, to);
+        Map<String, FeedsIndex.TypeIndex> typeIndexes = versionIndexes.computeIfAbsent(versionPathName,
+                v -> new HashMap<>());
+        for (String type : types) {
+            typeIndexes.computeIfAbsent(type, t -> new FeedsIndex.TypeIndex()).add(feedFile);
+        }
+        return true;
+    }
+
+    /**
+     * Adds a feed file of a version directory of the feeds directory, with the feed types given by its name.
+     *
+     * @param path feed file
+     * @param from epoch second of its earliest feed object
+     * @param to   epoch second of its latest feed object
+     * @return true if the feed file was not already in the index
+     */
+    public boolean addFeedFile(Path path, long from, long to) throws IOException {
+        return addFeedFile(path, FeedsIndex.getFeedTypes(path, Set.of()), from, to);
+    }
+
+    private synchronized boolean addFeedFile(Path path, Set<String> types, long from, long to) throws IOException {
+        if (from > to) {
+            throw new IllegalArgumentException("Wrong order " + from + " and " + to);
+        }
+        if (types.isEmpty()) {
+            throw new UnknownFeedTypeException(path.getFileName().toString());
+        }
+        Path relativePath = feedsPath.toAbsolutePath().normalize().relativize(path.toAbsolutePath().normalize());
+        if (relativePath.getNameCount() < 2 || relativePath.startsWith("..")) {
+            throw new IllegalArgumentException(path + " is not in a version directory of " + feedsPath);
+        }
+        String versionPathName = relativePath.getName(0).toString();
+        StringBuilder fileName = new StringBuilder(relativePath.getName(1).toString());
+        for (int i = 2; i < relativePath.getNameCount(); i += 1) {
+            fileName.append('/').append(relativePath.getName(i));
+        }
+        if (!indexFeedFile(feedsPath.resolve(versionPathName).resolve(fileName.toString()), versionPathName, types,
+                from, to)) {
+            return false;
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(0);
+        out.writeLong(from);
+        out.writeLong(to);
+        out.writeUTF(versionPathName);
+        out.writeByte(types.size());
+        for (String type : types) {
+            out.writeUTF(type);
+        }
+        out.writeUTF(fileName.toString());
+        ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+        buffer.putInt(0, buffer.limit() - Integer.BYTES);
+        while (buffer.hasRemaining()) {
+            indexChannel.write(buffer, indexSize + buffer.position());
+        }
+        indexSize += buffer.limit();
+        return true;
+    }
+
+    private FeedsIndex.TypeIndex getTypeIndex(String versionPathName, String type) {
+        return versionIndexes.getOrDefault(versionPathName, Map.of()).get(type);
+    }
+
+    /**
+     * Returns the intervals covered by feed files of a version and type intersecting an interval.
+     *
+     * @param versionPathName name of the version directory, such as "feeds_v5"
+     * @param type            feed type
+     * @param from            inclusive start epoch second
+     * @param to              inclusive end epoch second
+     */
+    public synchronized List<FeedCoverage.Interval> getIntervals(String versionPathName, String type, long from,
+            long to) {
+        FeedsIndex.TypeIndex typeIndex = getTypeIndex(versionPathName, type);
+        return (typeIndex == null) ? List.of() : typeIndex.getCoverage().getIntervals(from, to);
+    }
+
+    /**
+     * Returns the parts of an interval not covered by feed files of a version and type.
+     *
+     * @param versionPathName name of the version directory, such as "feeds_v5"
+     * @param type            feed type
+     * @param from            inclusive start epoch second
+     * @param to              inclusive end epoch second
+     */
+    public synchronized List<FeedCoverage.Interval> getGaps(String versionPathName, String type, long from, long to) {
+        FeedsIndex.TypeIndex typeIndex = getTypeIndex(versionPathName, type);
+        if (typeIndex == null) {
+            return (from <= to) ? List.of(new FeedCoverage.Interval(from, to)) : List.of();
+        }
+        return typeIndex.getCoverage().getGaps(from, to);
+    }
+
+    /**
+     * Returns the feed files of a version with feed objects of a type in an interval, ordered by the time of their
+     * earliest feed object.
+     *
+     * @param versionPathName name of the version directory, such as "feeds_v5"
+     * @param type            feed type
+     * @param from            inclusive start epoch second
+     * @param to              inclusive end epoch second
+     */
+    public synchronized List<Path> getFeedPaths(String versionPathName, String type, long from, long to) {
+        FeedsIndex.TypeIndex typeIndex = getTypeIndex(versionPathName, type);
+        if (typeIndex == null || from > to) {
+            return List.of();
+        }
+        return typeIndex.getFeedFiles(from, to).stream().map(FeedsIndex.FeedFile::path).toList();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        try (indexChannel) {
+            indexChannel.force(false);
+        }
+    }
+}
@@ -1,7 +1,10 @@
 package org.joelson.turf.turfgame.util;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import org.joelson.turf.util.FilesUtil;
 import org.joelson.turf.util.JacksonUtil;
 import org.joelson.turf.util.TimeUtil;
 import org.joelson.turf.util.URLReader.Response;
@@ -9,10 +12,12 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.HttpURLConnection;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDateTime;
@@ -20,7 +25,10 @@ import java.time.ZoneId;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
+import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 public class FeedsDownloader {
 
@@ -36,15 +44,57 @@ public class FeedsDownloader {
     private static final String FEEDS_V6_PATH_NAME = "feeds_v6";
     private static final int ERROR_EXIT_STATUS = 1;
     private static final int DEFAULT_REQUEST_ATTEMPTS = 2;
+    private static final Duration MIN_POLL_INTERVAL = Duration.ofMinutes(1);
+    private static final Duration DEFAULT_POLL_INTERVAL = Duration.ofMinutes(5);
+    private static final Duration MAX_POLL_INTERVAL = Duration.ofMinutes(15);
+    private static final int FEED_PAGE_LIMIT = 250;
+    // suffix of feed files being written, not read as feed files until renamed
+    static final String PARTIAL_SUFFIX = ".partial";
+
+    private record FeedDownload(Path feedPath, String feedRequest, String feed, String filenamePattern) {
+    }
+
+    private record FeedEntries(int count, Instant first, Instant last) {
+    }
 
     private final Path feedsV4Path;
     private final Path feedsV5Path;
     private final Path feedsV6Path;
     private final int timeOffset;
     private final int requestAttempts;
+    private final TakeoverLog takeoverLog;
+    private final Duration minPollInterval;
+    private final Duration defaultPollInterval;
+    private final Duration maxPollInterval;
+    private final int feedPageLimit;
+    private final FeedsCoverageIndex coverageIndex;
+    private final List<FeedDownload> feedDownloads;
+    private final RequestRateLimiter rateLimiter = new RequestRateLimiter(Duration.ofSeconds(1));
 
     public FeedsDownloader(Path feedsPath, int timeOffset, int requestAttempts) throws IOException {
+        this(feedsPath, timeOffset, requestAttempts, null);
+    }
+
+    public FeedsDownloader(Path feedsPath, int timeOffset, int requestAttempts, TakeoverLog takeoverLog)
+            throws IOException {
+        this(feedsPath, timeOffset, requestAttempts, takeoverLog, MIN_POLL_INTERVAL, DEFAULT_POLL_INTERVAL,
+                MAX_POLL_INTERVAL, FEED_PAGE_LIMIT);
+    }
+
+    /**
+     * @param minPollInterval     shortest interval between polls of a feed
+     * @param defaultPollInterval interval of the first polls of a feed
+     * @param maxPollInterval     longest interval between polls of a feed
+     * @param feedPageLimit       number of entries in a full feed response
+     * @see FeedPollScheduler
+     */
+    public FeedsDownloader(Path feedsPath, int timeOffset, int requestAttempts, TakeoverLog takeoverLog,
+            Duration minPollInterval, Duration defaultPollInterval, Duration maxPollInterval, int feedPageLimit)
+            throws IOException {
         Objects.requireNonNull(feedsPath, "feedsPath is null");
+        Objects.requireNonNull(minPollInterval, "minPollInterval is null");
+        Objects.requireNonNull(defaultPollInterval, "defaultPollInterval is null");
+        Objects.requireNonNull(maxPollInterval, "maxPollInterval is null");
         if (!Files.exists(feedsPath) && !Files.isDirectory(feedsPath)) {
             exitWithError("Feeds dir does not exist: " + feedsPath);
         }
@@ -54,29 +104,80 @@ public class FeedsDownloader {
         if (requestAttempts < 1) {
             exitWithError("Invalid requestAttempts: " + requestAttempts);
         }
+        if (minPollInterval.toSeconds() < 1 || minPollInterval.compareTo(defaultPollInterval) > 0
+                || defaultPollInterval.compareTo(maxPollInterval) > 0) {
+            exitWithError(String.format("Invalid poll intervals: %s <= %s <= %s", minPollInterval,
+                    defaultPollInterval, maxPollInterval));
+        }
+        if (feedPageLimit < 1) {
+            exitWithError("Invalid feedPageLimit: " + feedPageLimit);
+        }
         verifyDirectoryExists(feedsPath);
         feedsV4Path = createOrVerifyIsDirectory(feedsPath, FEEDS_V4_PATH_NAME);
         feedsV5Path = createOrVerifyIsDirectory(feedsPath, FEEDS_V5_PATH_NAME);
         feedsV6Path = createOrVerifyIsDirectory(feedsPath, FEEDS_V6_PATH_NAME);
         this.timeOffset = timeOffset;
         this.requestAttempts = requestAttempts;
+        this.takeoverLog = takeoverLog;
+        this.minPollInterval = minPollInterval;
+        this.defaultPollInterval = defaultPollInterval;
+        this.maxPollInterval = maxPollInterval;
+        this.feedPageLimit = feedPageLimit;
+        coverageIndex = new FeedsCoverageIndex(feedsPath);
+        feedDownloads = List.of(
+                new FeedDownload(feedsV4Path, FEEDS_V4_REQUEST, "takeover", "feeds_takeover_%s.%sjson"),
+                new FeedDownload(feedsV4Path, FEEDS_V4_REQUEST, "medal+chat", "feeds_medal_chat_%s.%sjson"),
+                new FeedDownload(feedsV4Path, FEEDS_V4_REQUEST, "zone", "feeds_zone_%s.%sjson"),
+                new FeedDownload(feedsV5Path, FEEDS_V5_REQUEST, "takeover", "feeds_takeover_%s.%sjson"),
+                new FeedDownload(feedsV5Path, FEEDS_V5_REQUEST, "medal+chat", "feeds_medal_chat_%s.%sjson"),
+                new FeedDownload(feedsV5Path, FEEDS_V5_REQUEST, "zone", "feeds_zone_%s.%sjson"),
+                new FeedDownload(feedsV6Path, FEEDS_V6_REQUEST, "takeover", "feeds_takeover_%s.%sjson"),
+                new FeedDownload(feedsV6Path, FEEDS_V6_REQUEST, "medal+chat", "feeds_medal_chat_%s.%sjson"),
+                new FeedDownload(feedsV6Path, FEEDS_V6_REQUEST, "zone", "feeds_zone_%s.%sjson"));
     }
 
     public static void main(String[] args) throws IOException {
-        if (args.length < 2 || args.length > 3) {
+        int argIndex = 0;
+        Duration minPollInterval = MIN_POLL_INTERVAL;
+        Duration defaultPollInterval = DEFAULT_POLL_INTERVAL;
+        Duration maxPollInterval = MAX_POLL_INTERVAL;
+        int feedPageLimit = FEED_PAGE_LIMIT;
+        while (args.length > argIndex + 1 && args[argIndex].startsWith("-")) {
+            switch (args[argIndex]) {
+                case "-min-poll" -> minPollInterval = Duration.ofSeconds(Long.parseLong(args[argIndex + 1]));
+                case "-default-poll" -> defaultPollInterval = Duration.ofSeconds(Long.parseLong(args[argIndex + 1]));
+                case "-max-poll" -> maxPollInterval = Duration.ofSeconds(Long.parseLong(args[argIndex + 1]));
+                case "-page-limit" -> feedPageLimit = Integer.parseInt(args[argIndex + 1]);
+                default -> argIndex = args.length;
+            }
+            argIndex += 2;
+        }
+        int argCount = args.length - argIndex;
+        if (argCount < 2 || argCount > 4) {
             exitWithError(String.format("""
                     Usage:
-                    %s feeds_dir time_offset [request_attempts]
+                    %s [-min-poll seconds] [-default-poll seconds] [-max-poll seconds] [-page-limit entries] \
+                    feeds_dir time_offset [request_attempts [takeover_log]]
                     
+                    -min-poll          Shortest interval between polls of a feed. (default 60)
+                    -default-poll      Interval of the first polls of a feed. (default 300)
+                    -max-poll          Longest interval between polls of a feed. (default 900)
+                    -page-limit        Number of entries in a full feed response. (default 250)
                     feeds_dir          An existing writeable directory to where downloaded files are stored.
+                                       Stored files are added to the coverage index feeds_coverage.idx in it.
                     time_offset        Time offset in seconds to when to start file download. (valid 0-299)
-                                       A download starts every five minutes. This is the offset of minutes modulo 5.
+                                       The first download starts at this offset of minutes modulo 5. Each feed is
+                                       then polled every min-poll to max-poll seconds depending on how full its
+                                       responses are.
                     request_attempts   The number of attempts to get valid content for a request. (valid 1-, default 2)
-                                       Will wait two seconds between each attempt.""",
+                                       Will wait two seconds between each attempt.
+                    takeover_log       A takeover log to append downloaded v5 takeovers to. (optional)""",
                     FeedsDownloader.class.getName()));
         }
-        int requestAttempts = (args.length == 3) ? Integer.parseInt(args[2]) : DEFAULT_REQUEST_ATTEMPTS;
-        new FeedsDownloader(Path.of(args[0]), Integer.parseInt(args[1]), requestAttempts).downloadFeeds();
+        int requestAttempts = (argCount >= 3) ? Integer.parseInt(args[argIndex + 2]) : DEFAULT_REQUEST_ATTEMPTS;
+        TakeoverLog takeoverLog = (argCount == 4) ? new TakeoverLog(Path.of(args[argIndex + 3])) : null;
+        new FeedsDownloader(Path.of(args[argIndex]), Integer.parseInt(args[argIndex + 1]), requestAttempts,
+                takeoverLog, minPollInterval, defaultPollInterval, maxPollInterval, feedPageLimit).downloadFeeds();
     }
 
     private static void exitWithError(String msg) {
@@ -100,11 +201,6 @@ public class FeedsDownloader {
         }
     }
 
-    private static void waitUntilNextRequest() {
-        Instant until = Instant.now().plusSeconds(5);
-        waitUntil(until);
-    }
-
     private static void waitUntil(Instant until) {
         Instant now;
         while ((now = Instant.now()).isBefore(until)) {
@@ -135,57 +231,41 @@ public class FeedsDownloader {
     }
 
     public void downloadFeeds() {
-        Instant nextDownload = calcFirstDownloadTime();
+        Instant firstDownload = calcFirstDownloadTime();
+        logger.info("Sleeping until {}", firstDownload);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (FeedDownload feedDownload : feedDownloads) {
+                executor.execute(() -> downloadFeedLoop(feedDownload, firstDownload));
+            }
+        }
+    }
+
+    private void downloadFeedLoop(FeedDownload feedDownload, Instant firstDownload) {
         try {
-            Instant lastV4TakeEntry = null;
-            Instant lastV4MedalChatEntry = null;
-            Instant lastV4ZoneEntry = null;
-            Instant lastV5TakeEntry = null;
-            Instant lastV5MedalChatEntry = null;
-            Instant lastV5ZoneEntry = null;
-            Instant lastV6TakeEntry = null;
-            Instant lastV6MedalChatEntry = null;
-            Instant lastV6ZoneEntry = null;
+            FeedPollScheduler pollScheduler = new FeedPollScheduler(minPollInterval, defaultPollInterval,
+                    maxPollInterval, feedPageLimit);
+            Instant nextDownload = firstDownload;
+            Instant lastEntry = null;
             while (true) {
-                logger.info("Sleeping until {}", nextDownload);
                 waitUntil(nextDownload);
-                nextDownload = nextDownload.plusSeconds(5 * 60);
-                lastV4TakeEntry = downloadFeed(feedsV4Path, FEEDS_V4_REQUEST, "takeover", "feeds_takeover_%s.%sjson",
-                        lastV4TakeEntry);
-                waitUntilNextRequest();
-                lastV4MedalChatEntry = downloadFeed(feedsV4Path, FEEDS_V4_REQUEST, "medal+chat",
-                        "feeds_medal_chat_%s.%sjson", lastV4MedalChatEntry);
-                waitUntilNextRequest();
-                lastV4ZoneEntry = downloadFeed(feedsV4Path, FEEDS_V4_REQUEST, "zone", "feeds_zone_%s.%sjson",
-                        lastV4ZoneEntry);
-                waitUntilNextRequest();
-                lastV5TakeEntry = downloadFeed(feedsV5Path, FEEDS_V5_REQUEST, "takeover", "feeds_takeover_%s.%sjson",
-                        lastV5TakeEntry);
-                waitUntilNextRequest();
-                lastV5MedalChatEntry = downloadFeed(feedsV5Path, FEEDS_V5_REQUEST, "medal+chat",
-                        "feeds_medal_chat_%s.%sjson", lastV5MedalChatEntry);
-                waitUntilNextRequest();
-                lastV5ZoneEntry = downloadFeed(feedsV5Path, FEEDS_V5_REQUEST, "zone", "feeds_zone_%s.%sjson",
-                        lastV5ZoneEntry);
-                waitUntilNextRequest();
-                lastV6TakeEntry = downloadFeed(feedsV6Path, FEEDS_V6_REQUEST, "takeover", "feeds_takeover_%s.%sjson",
-                        lastV6TakeEntry);
-                waitUntilNextRequest();
-                lastV6MedalChatEntry = downloadFeed(feedsV6Path, FEEDS_V6_REQUEST, "medal+chat",
-                        "feeds_medal_chat_%s.%sjson", lastV6MedalChatEntry);
-                waitUntilNextRequest();
-                lastV6ZoneEntry = downloadFeed(feedsV6Path, FEEDS_V6_REQUEST, "zone", "feeds_zone_%s.%sjson",
-                        lastV6ZoneEntry);
+                lastEntry = downloadFeed(feedDownload.feedPath, feedDownload.feedRequest, feedDownload.feed,
+                        feedDownload.filenamePattern, lastEntry, pollScheduler);
+                nextDownload = nextDownload.plus(pollScheduler.getInterval());
+                Instant now = Instant.now();
+                if (nextDownload.isBefore(now)) {
+                    nextDownload = now;
+                }
             }
         } catch (Throwable e) {
-            logger.error("Exception in downloadsFeeds(feedsV4Path: \"{}\", feedsV5Path: \"{}\", feedsV6Path: \"{}\") :",
-                    feedsV4Path, feedsV5Path, feedsV6Path, e);
+            logger.error("Exception in downloadFeedLoop(feedPath: \"{}\", feedRequest: \"{}\", feed: \"{}\") :",
+                    feedDownload.feedPath, feedDownload.feedRequest, feedDownload.feed, e);
             System.exit(-1);
         }
     }
 
     private Instant downloadFeed(
-            Path feedPath, String feedRequest, String feed, String filenamePattern, Instant since) {
+            Path feedPath, String feedRequest, String feed, String filenamePattern, Instant since,
+            FeedPollScheduler pollScheduler) {
         String version = switch (feedRequest) {
             case FEEDS_V4_REQUEST -> "v4";
             case FEEDS_V5_REQUEST -> "v5";
@@ -194,13 +274,24 @@ public class FeedsDownloader {
         };
         String logQuantifier = String.format("%s (%s)", feed, version);
         String content = null;
+        Path downloadFile = null;
+        FeedEntries feedEntries = null;
         boolean tooManyRequests = false;
         Instant lastEntryTime = null;
         Path file = null;
         try {
             for (int attempt = 1; content == null && attempt <= requestAttempts; attempt += 1) {
+                downloadFile = Files.createTempFile(feedPath, "feed_download",
+                        ".json" + FilesUtil.GZIP_SUFFIX + PARTIAL_SUFFIX);
                 try {
-                    Response response = downloadFeedContent(feedRequest, feed, since);
+                    FeedEntries[] scannedEntries = { null };
+                    Response response = downloadFeedContent(feedRequest, feed, since, downloadFile,
+                            in -> scannedEntries[0] = getFeedEntries(in));
+                    if (response == null) {
+                        feedEntries = scannedEntries[0];
+                        tooManyRequests = false;
+                        break;
+                    }
                     if (response.statusCode() == TurfgameURLReader.HTTP_TOO_MANY_REQUESTS
                             && TurfgameURLReader.ERROR_MESSAGE_TOO_MANY_REQUESTS.equals(response.content())) {
                         logger.info("{} Request attempt {}, statusCode 429/Too Many Requests", logQuantifier, attempt);
@@ -230,6 +321,10 @@ public class FeedsDownloader {
                     } else {
                         logger.error("{} Request attempt {}", logQuantifier, attempt, e);
                     }
+                } finally {
+                    if (feedEntries == null) {
+                        discardDownloadFile(logQuantifier, downloadFile);
+                    }
                 }
                 waitUntil(Instant.now().plusSeconds(2));
             }
@@ -237,26 +332,30 @@ public class FeedsDownloader {
                 logger.error("{} StatusCode 429/Too Many Request", logQuantifier);
                 return since;
             }
-            if (content == null || content.equals("[]")) {
+            if (feedEntries != null) {
+                updatePollScheduler(pollScheduler, logQuantifier, feedEntries, since != null);
+                if (feedEntries.count == 0) {
+                    Files.delete(downloadFile);
+                } else {
+                    lastEntryTime = feedEntries.last;
+                    return storeDownloadFile(feedPath, feedRequest, feed, filenamePattern, since, logQuantifier,
+                            downloadFile, feedEntries);
+                }
+            }
+            if (feedEntries != null || content == null || content.equals("[]")) {
                 if (since != null) {
                     logger.error("{} No data since {}.", logQuantifier, since);
                 } else {
                     logger.error("{} No data.", logQuantifier);
                 }
-                return null;
+                // keep polling for the entries since the last entry, a poll without since returns a full page
+                return since;
             }
-            try {
-                if (isHTML(content)) {
-                    filenamePattern += ".html";
-                } else {
-                    lastEntryTime = getLastEntryTime(content);
-                }
-            } catch (JsonProcessingException e) {
-                logger.error("{} Unable to retrieve time from JSON: ", logQuantifier, e);
-                logger.error("{} content: {}", logQuantifier, content);
+            if (isHTML(content)) {
+                filenamePattern += ".html";
             }
             try {
-                file = getFilePath(feedPath, filenamePattern, lastEntryTime);
+                file = getFilePath(feedPath, filenamePattern, null);
                 Files.writeString(file, content, StandardCharsets.UTF_8);
                 logger.info("Downloaded {}", file);
             } catch (IOException e) {
@@ -272,39 +371,132 @@ public class FeedsDownloader {
                 }
                 return since;
             }
-            return (lastEntryTime != null) ? lastEntryTime.minusSeconds(1) : null;
+            return null;
         } catch (Throwable e) {
             logger.error("Exception in getFeed(\"{}\", \"{}\", \"{}\", \"{}\", {}): ", feedPath, feedRequest, feed, filenamePattern, since, e);
             logger.error("{} content:       {}", logQuantifier, content);
+            logger.error("{} downloadFile:  {}", logQuantifier, downloadFile);
             logger.error("{} lastEntryTime: {}", logQuantifier, lastEntryTime);
             logger.error("{} file:          {}", logQuantifier, file);
             return null;
         }
     }
 
-    private Response downloadFeedContent(String feedRequest, String feed, Instant since)
+    private Instant storeDownloadFile(
+            Path feedPath, String feedRequest, String feed, String filenamePattern, Instant since,
+            String logQuantifier, Path downloadFile, FeedEntries feedEntries) {
+        Path file = null;
+        try {
+            file = getFilePath(feedPath, filenamePattern + FilesUtil.GZIP_SUFFIX, feedEntries.last);
+            Files.move(downloadFile, file, StandardCopyOption.REPLACE_EXISTING);
+            logger.info("Downloaded {}", file);
+        } catch (IOException e) {
+            logger.error("{} Unable to store to {}:", logQuantifier, file, e);
+            logger.info("Stored {}", downloadFile);
+            return since;
+        }
+        addToCoverageIndex(logQuantifier, file, feedEntries);
+        appendToTakeoverLog(feedRequest, feed, file);
+        return feedEntries.last.minusSeconds(1);
+    }
+
+    private static void discardDownloadFile(String logQuantifier, Path downloadFile) {
+        try {
+            Files.delete(downloadFile);
+        } catch (IOException e) {
+            logger.error("{} Unable to delete {}:", logQuantifier, downloadFile, e);
+        }
+    }
+
+    private void addToCoverageIndex(String logQuantifier, Path file, FeedEntries feedEntries) {
+        try {
+            coverageIndex.addFeedFile(file, feedEntries.first.getEpochSecond(), feedEntries.last.getEpochSecond());
+        } catch (IOException | RuntimeException e) {
+            logger.error("{} Unable to add {} to coverage index:", logQuantifier, file, e);
+        }
+    }
+
+    private void appendToTakeoverLog(String feedRequest, String feed, Path file) {
+        if (takeoverLog == null || !feedRequest.equals(FEEDS_V5_REQUEST) || !feed.equals("takeover")) {
+            return;
+        }
+        try {
+            int appended = takeoverLog.appendFeedPath(file);
+            logger.debug("Appended {} takeovers to takeover log", appended);
+        } catch (IOException | RuntimeException e) {
+            logger.error("Unable to append takeovers to takeover log:", e);
+        }
+    }
+
+    private Response downloadFeedContent(
+            String feedRequest, String feed, Instant since, Path gzipFile, TurfgameURLReader.ContentScanner scanner)
             throws RequestFailureException, RequestContentException {
         String afterDate = "";
         if (since != null) {
             afterDate = "?afterDate=" + TimeUtil.turfAPITimestampFormatter(since);
         }
         String request = feedRequest + '/' + feed + afterDate;
-        return TurfgameURLReader.getTurfgameRequest(request);
+        try {
+            rateLimiter.acquire();
+        } catch (InterruptedException e) {
+            throw new RequestFailureException("GET " + request, e);
+        }
+        return TurfgameURLReader.getTurfgameRequest(request, gzipFile, scanner);
+    }
+
+    private static void updatePollScheduler(
+            FeedPollScheduler pollScheduler, String logQuantifier, FeedEntries feedEntries, boolean sincePoll) {
+        Duration interval = pollScheduler.update(feedEntries.count, feedEntries.first, feedEntries.last, sincePoll);
+        double gapRisk = pollScheduler.getGapRisk();
+        String msg = "{} {} entries, fill ratio {}, next poll in {}, gap risk {}";
+        Object[] args = { logQuantifier, feedEntries.count, String.format("%.2f", pollScheduler.getFillRatio()),
+                interval, String.format("%.2f", gapRisk) };
+        if (gapRisk >= 1.0) {
+            logger.warn(msg, args);
+        } else {
+            logger.info(msg, args);
+        }
     }
 
-    private Instant getLastEntryTime(String json) throws JsonProcessingException {
+    private static FeedEntries getFeedEntries(InputStream in) throws IOException {
+        int count = 0;
+        Instant first = null;
         Instant latest = null;
-        for (JsonNode node : JacksonUtil.readValue(json, JsonNode[].class)) {
-            String timeStamp = node.get("time").asText();
-            Instant instant = TimeUtil.turfAPITimestampToInstant(timeStamp);
-            if (latest == null || instant.isAfter(latest)) {
-                latest = instant;
+        try (JsonParser parser = JacksonUtil.createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw MismatchedInputException.from(parser, JsonNode[].class, "Feed content is not a JSON array");
+            }
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                Instant instant = null;
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String fieldName = parser.currentName();
+                    parser.nextToken();
+                    if (fieldName.equals("time")) {
+                        instant = TimeUtil.turfAPITimestampToInstant(parser.getValueAsString());
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+                if (instant == null) {
+                    throw MismatchedInputException.from(parser, JsonNode[].class, "Feed entry lacks attribute time");
+                }
+                count += 1;
+                if (first == null || instant.isBefore(first)) {
+                    first = instant;
+                }
+                if (latest == null || instant.isAfter(latest)) {
+                    latest = instant;
+                }
+            }
+            if (parser.currentToken() != JsonToken.END_ARRAY) {
+                throw MismatchedInputException.from(parser, JsonNode[].class,
+                        "Feed array contains non-object element " + parser.currentToken());
             }
         }
-        return latest;
+        return new FeedEntries(count, first, latest);
     }
 
-    private Path getFilePath(Path feedPath, String filenamePattern, Instant lastEntryTime) throws IOException {
+    static Path getFilePath(Path feedPath, String filenamePattern, Instant lastEntryTime) throws IOException {
         String timeString = toTimeString(lastEntryTime);
         String name = String.format(filenamePattern, timeString, "");
         Path filePath = feedPath.resolve(name);
@@ -313,13 +505,15 @@ public class FeedsDownloader {
             name = String.format(filenamePattern, timeString, nowString + '.');
             filePath = feedPath.resolve(name);
             if (Files.exists(filePath)) {
-                filePath = Files.createTempFile(feedPath, name.substring(0, name.indexOf(".json") + 1), ".json");
+                int suffixIndex = name.indexOf(".json");
+                filePath = Files.createTempFile(feedPath, name.substring(0, suffixIndex + 1),
+                        name.substring(suffixIndex));
             }
         }
         return filePath;
     }
 
-    private String toTimeString(Instant instant) {
+    private static String toTimeString(Instant instant) {
         if (instant == null) {
             instant = Instant.now();
             logger.debug("toTimeString(null) - using instant {}", instant);
@@ -0,0 +1,259 @@
+package org.joelson.turf.turfgame.util;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import org.joelson.turf.util.FilesUtil;
+import org.joelson.turf.util.JacksonUtil;
+import org.joelson.turf.util.TimeUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Time index of the feed files of a feeds directory, as stored by {@link FeedsDownloader}. Every feed file covers the
+ * time from its earliest to its latest feed object for the feed types downloaded to it. Feed files in zip files, such
+ * as archived months, are only indexed when reading zip files, and then only add to the coverage of the index, as their
+ * paths can not be read once the zip file is closed.
+ */
+public class FeedsIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(FeedsIndex.class);
+
+    record FeedFile(Path path, Set<String> types, long from, long to) {
+    }
+
+    static final class TypeIndex {
+
+        private final NavigableMap<Long, List<FeedFile>> feedFilesByFrom = new TreeMap<>();
+        private final FeedCoverage coverage = new FeedCoverage();
+        private long maxSpan = 0;
+
+        void add(FeedFile feedFile) {
+            feedFilesByFrom.computeIfAbsent(feedFile.from, from -> new ArrayList<>()).add(feedFile);
+            coverage.add(feedFile.from, feedFile.to);
+            maxSpan = Math.max(maxSpan, feedFile.to - feedFile.from);
+        }
+
+        void addCoverage(long from, long to) {
+            coverage.add(from, to);
+        }
+
+        List<FeedFile> getFeedFiles(long from, long to) {
+            List<FeedFile> feedFiles = new ArrayList<>();
+            long fromStart = (from >= Long.MIN_VALUE + maxSpan) ? from - maxSpan : Long.MIN_VALUE;
+            for (List<FeedFile> files : feedFilesByFrom.subMap(fromStart, true, to, true).values()) {
+                for (FeedFile feedFile : files) {
+                    if (feedFile.to >= from) {
+                        feedFiles.add(feedFile);
+                    }
+                }
+            }
+            return feedFiles;
+        }
+
+        FeedCoverage getCoverage() {
+            return coverage;
+        }
+    }
+
+    private final Path feedsPath;
+    private final boolean readZipFiles;
+    private final Set<URI> indexedPaths = new HashSet<>();
+    private final Map<URI, FileTime> failedPaths = new HashMap<>();
+    private final Map<String, TypeIndex> typeIndexes = new HashMap<>();
+
+    public FeedsIndex(Path feedsPath) {
+        this(feedsPath, false);
+    }
+
+    /**
+     * @param readZipFiles if the coverage of feed files in zip files should be indexed
+     */
+    public FeedsIndex(Path feedsPath, boolean readZipFiles) {
+        this.feedsPath = Objects.requireNonNull(feedsPath, "feedsPath is null");
+        this.readZipFiles = readZipFiles;
+    }
+
+    /**
+     * Indexes feed files added to the directory since the last refresh, and feed files modified since they failed to
+     * be read.
+     *
+     * @return the number of indexed feed files
+     */
+    public synchronized int refresh() throws IOException {
+        int[] indexed = { 0 };
+        FilesUtil.forEachFile(feedsPath, readZipFiles, new FeedsPathComparator(), path -> {
+            if (isFeedFile(path) && indexFeedFile(path)) {
+                indexed[0] += 1;
+            }
+        });
+        return indexed[0];
+    }
+
+    private boolean indexFeedFile(Path path) {
+        URI uri = path.toUri();
+        if (indexedPaths.contains(uri)) {
+            return false;
+        }
+        FileTime lastModified = null;
+        try {
+            lastModified = Files.getLastModifiedTime(path);
+            if (lastModified.equals(failedPaths.get(uri))) {
+                return false;
+            }
+            FeedFile feedFile = scanFeedFile(path);
+            boolean zipEntry = path.getFileSystem() != FileSystems.getDefault();
+            if (feedFile != null) {
+                for (String type : feedFile.types) {
+                    TypeIndex typeIndex = typeIndexes.computeIfAbsent(type, t -> new TypeIndex());
+                    if (zipEntry) {
+                        typeIndex.addCoverage(feedFile.from, feedFile.to);
+                    } else {
+                        typeIndex.add(feedFile);
+                    }
+                }
+            }
+            indexedPaths.add(uri);
+            failedPaths.remove(uri);
+            return feedFile != null;
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Unable to index {}: {}", uri, e.toString());
+            if (lastModified != null) {
+                failedPaths.put(uri, lastModified);
+            }
+            return false;
+        }
+    }
+
+    static boolean isFeedFile(Path path) {
+        String fileName = path.getFileName().toString();
+        return fileName.endsWith(".json") || fileName.endsWith(".json" + FilesUtil.GZIP_SUFFIX);
+    }
+
+    static FeedFile scanFeedFile(Path path) throws IOException {
+        Set<String> entryTypes = new HashSet<>();
+        long from = Long.MAX_VALUE;
+        long to = Long.MIN_VALUE;
+        try (InputStream in = FilesUtil.newInputStream(path); JsonParser parser = JacksonUtil.createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw MismatchedInputException.from(parser, Object[].class, "Feed content is not a JSON array");
+            }
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                String type = null;
+                String time = null;
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String fieldName = parser.currentName();
+                    parser.nextToken();
+                    switch (fieldName) {
+                        case "type" -> type = parser.getValueAsString();
+                        case "time" -> time = parser.getValueAsString();
+                        default -> parser.skipChildren();
+                    }
+                }
+                if (type == null) {
+                    throw new NoFeedTypeException();
+                }
+                if (time == null) {
+                    throw new IllegalArgumentException("Node lacks attribute time of type " + type);
+                }
+                entryTypes.add(type);
+                long epochSecond = TimeUtil.turfAPITimestampToEpochSecond(time);
+                from = Math.min(from, epochSecond);
+                to = Math.max(to, epochSecond);
+            }
+            if (parser.currentToken() != JsonToken.END_ARRAY) {
+                throw MismatchedInputException.from(parser, Object[].class,
+                        "Feed array contains non-object element " + parser.currentToken());
+            }
+        }
+        if (entryTypes.isEmpty()) {
+            return null;
+        }
+        return new FeedFile(path, getFeedTypes(path, entryTypes), from, to);
+    }
+
+    static Set<String> getFeedTypes(Path path, Set<String> entryTypes) {
+        String fileName = path.getFileName().toString();
+        if (fileName.startsWith("feeds_medal_chat_")) {
+            return Set.of("chat", "medal");
+        } else if (fileName.startsWith("feeds_takeover_")) {
+            return Set.of("takeover");
+        } else if (fileName.startsWith("feeds_zone_")) {
+            return Set.of("zone");
+        } else {
+            return Set.copyOf(entryTypes);
+        }
+    }
+
+    /**
+     * Returns the feed files with feed objects of a type in an interval, ordered by the time of their earliest feed
+     * object.
+     *
+     * @param type feed type
+     * @param from inclusive start epoch second
+     * @param to   inclusive end epoch second
+     */
+    public synchronized List<Path> getFeedPaths(String type, long from, long to) {
+        return getFeedFiles(type, from, to).stream().map(FeedFile::path).toList();
+    }
+
+    /**
+     * Returns the feed files of a type intersecting an interval, ordered by their first second.
+     *
+     * @param type feed type
+     * @param from inclusive start epoch second
+     * @param to   inclusive end epoch second
+     */
+    synchronized List<FeedFile> getFeedFiles(String type, long from, long to) {
+        TypeIndex typeIndex = typeIndexes.get(type);
+        if (typeIndex == null || from > to) {
+            return List.of();
+        }
+        return typeIndex.getFeedFiles(from, to);
+    }
+
+    /**
+     * Returns the intervals covered by feed files of a type intersecting an interval. Overlapping intervals are
+     * joined, so the first interval may start before and the last interval may end after the interval.
+     *
+     * @param type feed type
+     * @param from inclusive start epoch second
+     * @param to   inclusive end epoch second
+     */
+    public synchronized List<FeedCoverage.Interval> getIntervals(String type, long from, long to) {
+        TypeIndex typeIndex = typeIndexes.get(type);
+        if (typeIndex == null) {
+            return List.of();
+        }
+        return typeIndex.coverage.getIntervals(from, to);
+    }
+
+    /**
+     * @return a copy of the coverage of the feed files of a type
+     */
+    public synchronized FeedCoverage getCoverage(String type) {
+        FeedCoverage coverage = new FeedCoverage();
+        TypeIndex typeIndex = typeIndexes.get(type);
+        if (typeIndex != null) {
+            coverage.add(typeIndex.coverage);
+        }
+        return coverage;
+    }
+}
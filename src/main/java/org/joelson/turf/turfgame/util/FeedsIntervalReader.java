@@ -3,20 +3,19 @@ package org.joelson.turf.turfgame.util;
 import com.fasterxml.jackson.databind.JsonNode;
 import org.joelson.turf.util.FilesUtil;
 import org.joelson.turf.util.JacksonUtil;
+import org.joelson.turf.util.TimeUtil;
 
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Arrays;
-import java.util.Comparator;
+import java.util.EnumMap;
 import java.util.List;
-import java.util.SortedSet;
-import java.util.TreeSet;
+import java.util.Map;
 
 public class FeedsIntervalReader {
 
     private static int fileCount = 0;
-    private static final SortedSet<FeedInterval> feedIntervals = new TreeSet<>(new FeedIntervalComparator());
+    private static final Map<FeedType, FeedCoverage> feedCoverages = new EnumMap<>(FeedType.class);
     private static final DefaultFeedContentErrorHandler errorHandler = new DefaultFeedContentErrorHandler();
 
     public static void main(String[] args) throws IOException {
@@ -29,8 +28,9 @@ public class FeedsIntervalReader {
             FilesUtil.forEachFile(Path.of(filename), true, new FeedsPathComparator(),
                     FeedsIntervalReader::readFeedFile);
         }
-        feedIntervals.forEach(feedInterval
-                -> System.out.printf("%s: %s - %s%n", feedInterval.type, feedInterval.start, feedInterval.end));
+        feedCoverages.forEach((type, coverage) -> coverage.getIntervals().forEach(interval
+                -> System.out.printf("%s: %s - %s%n", type, TimeUtil.epochSecondToTurfAPITimestamp(interval.from()),
+                TimeUtil.epochSecondToTurfAPITimestamp(interval.to()))));
 
         errorHandler.messageErrorPaths(20);
     }
@@ -47,30 +47,20 @@ public class FeedsIntervalReader {
             case null -> throw new NoFeedTypeException();
             default -> throw new UnknownFeedTypeException(nodeType);
        };
-        String start = fileNodes.getLast().get("time").asText();
-        String end = fileNodes.getFirst().get("time").asText();
-        if (start.equals(end)) {
-            return;
-        }
-        FeedInterval newInterval = new FeedInterval(type, start, end);
-        outer:
-        while (true) {
-            for (FeedInterval feedInterval : feedIntervals) {
-                if (feedInterval.intersects(newInterval)) {
-                    newInterval = joinIntervals(feedInterval, newInterval);
-                    feedIntervals.remove(feedInterval);
-                    continue outer;
-                }
+        long start = toEpochSecond(fileNodes.getLast());
+        long end = toEpochSecond(fileNodes.getFirst());
+        if (start >= end) {
+            if (start > end) {
+                throw new IllegalArgumentException("Wrong order " + fileNodes.getLast().get("time").asText()
+                        + " and " + fileNodes.getFirst().get("time").asText());
             }
-            break;
+            return;
         }
-        feedIntervals.add(newInterval);
+        feedCoverages.computeIfAbsent(type, t -> new FeedCoverage()).add(start, end);
     }
 
-    private static FeedInterval joinIntervals(FeedInterval interval1, FeedInterval interval2) {
-        String start = interval1.start.compareTo(interval2.start) <= 0 ? interval1.start : interval2.start;
-        String end = interval1.end.compareTo(interval2.end) > 0 ? interval1.end : interval2.end;
-        return new FeedInterval(interval1.type, start, end);
+    private static long toEpochSecond(JsonNode node) {
+        return TimeUtil.turfAPITimestampToEpochSecond(node.get("time").asText());
     }
 
     private static void readFeedFile(Path feedPath) {
@@ -80,7 +70,7 @@ public class FeedsIntervalReader {
         fileCount += 1;
         String content = null;
         try {
-            content = Files.readString(feedPath);
+            content = FilesUtil.readString(feedPath);
             List<JsonNode> jsonNodes = readJsonNodes(content);
             readFeedNodes(jsonNodes);
         } catch (IOException e) {
@@ -95,40 +85,4 @@ public class FeedsIntervalReader {
     private enum FeedType {
         CHAT_MEDAL, TAKEOVER, ZONE
     }
-
-    private record FeedInterval(FeedType type, String start, String end) {
-
-        private FeedInterval {
-            if (start.compareTo(end) >= 0) {
-                throw new IllegalArgumentException("Wrong order " + start + " and " + end);
-            }
-        }
-
-        public boolean intersects(FeedInterval that) {
-            if (type != that.type) {
-                return false;
-            }
-            if (end.compareTo(that.start) < 0 || that.end.compareTo(start) < 0) {
-                return false;
-            }
-            if (end.compareTo(that.start) >= 0 || that.end.compareTo(start) >= 0) {
-                return true;
-            }
-            throw new IllegalStateException("Should not come here...");
-        }
-    }
-
-    private static class FeedIntervalComparator implements Comparator<FeedInterval> {
-        @Override
-        public int compare(FeedInterval fi1, FeedInterval fi2) {
-            if (fi1.type != fi2.type) {
-                return fi1.type.ordinal() - fi2.type.ordinal();
-            }
-            int startCompare = fi1.start.compareTo(fi2.start);
-            if (startCompare != 0) {
-                return startCompare;
-            }
-            return fi1.end.compareTo(fi2.end);
-        }
-    }
 }
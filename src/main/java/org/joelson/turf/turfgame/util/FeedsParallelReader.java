@@ -0,0 +1,249 @@
+package org.joelson.turf.turfgame.util;
+
+import org.joelson.turf.turfgame.FeedObject;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Reads several feed paths (typically monthly archives) in parallel. Every path is decoded on its own virtual thread,
+ * while the number of feed files decoded at the same time is bounded by the parallelism. All feed objects are
+ * delivered to the consumer on the calling thread.
+ * <p>
+ * In ordered mode the feed objects of the different paths are merged by time, the feed objects of one path are
+ * delivered in the same order as {@link FeedsReader} delivers them. In unordered mode feed objects are delivered file
+ * by file as soon as they are decoded.
+ */
+public class FeedsParallelReader {
+
+    private static final int CHUNKS_PER_PATH = 4;
+
+    private final FeedsReader feedsReader;
+    private final int parallelism;
+    private final boolean ordered;
+
+    public FeedsParallelReader(Map<String, Class<? extends FeedObject>> typesToHandle,
+            FeedContentErrorHandler errorHandler, int parallelism, boolean ordered) {
+        this(typesToHandle, errorHandler, parallelism, ordered, null);
+    }
+
+    /**
+     * @param modelPool pool of the model objects shared between feed objects of all paths, or null to not share any
+     */
+    public FeedsParallelReader(Map<String, Class<? extends FeedObject>> typesToHandle,
+            FeedContentErrorHandler errorHandler, int parallelism, boolean ordered, FeedModelPool modelPool) {
+        Objects.requireNonNull(errorHandler);
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Invalid parallelism " + parallelism);
+        }
+        this.feedsReader = new FeedsReader(typesToHandle, synchronizedErrorHandler(errorHandler), false, true, true,
+                modelPool);
+        this.parallelism = parallelism;
+        this.ordered = ordered;
+    }
+
+    private static FeedContentErrorHandler synchronizedErrorHandler(FeedContentErrorHandler errorHandler) {
+        return (path, content, e) -> {
+            synchronized (errorHandler) {
+                errorHandler.handleErrorContent(path, content, e);
+            }
+        };
+    }
+
+    /**
+     * Reads all paths and delivers their feed objects to the consumer.
+     *
+     * @param paths             the paths to read, in time order
+     * @param forEachPath       predicate deciding which feed files to read, called from decoding threads
+     * @param forEachFeedObject consumer of feed objects, called from the calling thread
+     * @throws IOException if reading a path failed or the calling thread was interrupted
+     */
+    public void handleFeedObjectPaths(List<Path> paths, Predicate<Path> forEachPath,
+            Consumer<FeedObject> forEachFeedObject) throws IOException {
+        List<BlockingQueue<Chunk>> queues = new ArrayList<>(paths.size());
+        BlockingQueue<Chunk> sharedQueue = new ArrayBlockingQueue<>(CHUNKS_PER_PATH * parallelism);
+        for (int i = 0; i < paths.size(); i += 1) {
+            queues.add((ordered) ? new ArrayBlockingQueue<>(CHUNKS_PER_PATH) : sharedQueue);
+        }
+        Semaphore permits = new Semaphore(parallelism);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            try {
+                for (int i = 0; i < paths.size(); i += 1) {
+                    PathDecoder decoder = new PathDecoder(i, paths.get(i), forEachPath, queues.get(i), permits);
+                    executor.execute(decoder);
+                }
+                if (ordered) {
+                    mergeChunks(paths, queues, forEachFeedObject);
+                } else {
+                    deliverChunks(paths, sharedQueue, forEachFeedObject);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while reading feeds");
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    private static void deliverChunks(List<Path> paths, BlockingQueue<Chunk> queue,
+            Consumer<FeedObject> forEachFeedObject) throws InterruptedException, IOException {
+        int pathsLeft = paths.size();
+        while (pathsLeft > 0) {
+            Chunk chunk = queue.take();
+            chunk.throwFailure(paths);
+            chunk.feedObjects.forEach(forEachFeedObject);
+            if (chunk.last) {
+                pathsLeft -= 1;
+            }
+        }
+    }
+
+    private static void mergeChunks(List<Path> paths, List<BlockingQueue<Chunk>> queues,
+            Consumer<FeedObject> forEachFeedObject) throws InterruptedException, IOException {
+        PriorityQueue<Head> heads = new PriorityQueue<>(
+                Comparator.comparing((Head head) -> head.feedObject, FeedObject.TIME_ORDER)
+                        .thenComparingInt(head -> head.index));
+        for (int i = 0; i < queues.size(); i += 1) {
+            Head head = new Head(i, queues.get(i));
+            if (head.advance(paths)) {
+                heads.add(head);
+            }
+        }
+        while (!heads.isEmpty()) {
+            Head head = heads.poll();
+            forEachFeedObject.accept(head.feedObject);
+            if (head.advance(paths)) {
+                heads.add(head);
+            }
+        }
+    }
+
+    private record Chunk(int index, List<FeedObject> feedObjects, boolean last, Throwable failure) {
+
+        private void throwFailure(List<Path> paths) throws IOException {
+            if (failure instanceof IOException ioException) {
+                throw new IOException("Error reading " + paths.get(index), ioException);
+            } else if (failure instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            } else if (failure instanceof Error error) {
+                throw error;
+            }
+        }
+    }
+
+    private static final class Head {
+
+        private final int index;
+        private final BlockingQueue<Chunk> queue;
+        private Iterator<FeedObject> iterator = null;
+        private boolean last = false;
+        private FeedObject feedObject;
+
+        private Head(int index, BlockingQueue<Chunk> queue) {
+            this.index = index;
+            this.queue = queue;
+        }
+
+        private boolean advance(List<Path> paths) throws InterruptedException, IOException {
+            while (iterator == null || !iterator.hasNext()) {
+                if (last) {
+                    return false;
+                }
+                Chunk chunk = queue.take();
+                chunk.throwFailure(paths);
+                iterator = chunk.feedObjects.iterator();
+                last = chunk.last;
+            }
+            feedObject = iterator.next();
+            return true;
+        }
+    }
+
+    private final class PathDecoder implements Runnable {
+
+        private final int index;
+        private final Path path;
+        private final Predicate<Path> forEachPath;
+        private final BlockingQueue<Chunk> queue;
+        private final Semaphore permits;
+        private List<FeedObject> feedObjects = null;
+
+        private PathDecoder(int index, Path path, Predicate<Path> forEachPath, BlockingQueue<Chunk> queue,
+                Semaphore permits) {
+            this.index = index;
+            this.path = path;
+            this.forEachPath = forEachPath;
+            this.queue = queue;
+            this.permits = permits;
+        }
+
+        @Override
+        public void run() {
+            try {
+                try {
+                    feedsReader.handleFeedObjectPath(path, this::startFile, this::addFeedObject);
+                    endFile();
+                    queue.put(new Chunk(index, List.of(), true, null));
+                } catch (CancellationException e) {
+                    // interrupted by shutdown, nobody is waiting for more chunks
+                } catch (IOException | RuntimeException | Error e) {
+                    releaseFile();
+                    queue.put(new Chunk(index, List.of(), true, e));
+                }
+            } catch (InterruptedException e) {
+                // interrupted by shutdown, nobody is waiting for more chunks
+            }
+        }
+
+        private boolean startFile(Path feedPath) {
+            if (!forEachPath.test(feedPath)) {
+                return false;
+            }
+            try {
+                endFile();
+                permits.acquire();
+            } catch (InterruptedException e) {
+                throw new CancellationException("Interrupted reading " + feedPath);
+            }
+            feedObjects = new ArrayList<>();
+            return true;
+        }
+
+        private void addFeedObject(FeedObject feedObject) {
+            feedObjects.add(feedObject);
+        }
+
+        private void endFile() throws InterruptedException {
+            List<FeedObject> fileFeedObjects = releaseFile();
+            if (fileFeedObjects != null && !fileFeedObjects.isEmpty()) {
+                queue.put(new Chunk(index, fileFeedObjects, false, null));
+            }
+        }
+
+        private List<FeedObject> releaseFile() {
+            List<FeedObject> fileFeedObjects = feedObjects;
+            if (fileFeedObjects != null) {
+                feedObjects = null;
+                permits.release();
+            }
+            return fileFeedObjects;
+        }
+    }
+}
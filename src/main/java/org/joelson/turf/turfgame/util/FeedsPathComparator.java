@@ -19,15 +19,26 @@ public class FeedsPathComparator implements Comparator<Path> {
         } else {
             String o1FileName = o1.getFileName().toString();
             String o2FileName = o2.getFileName().toString();
-            if (o1FileName.endsWith(".json") && o2FileName.endsWith(".json")) {
-                return o1FileName.substring(0, o1FileName.length() - 5)
-                        .compareTo(o2FileName.substring(0, o2FileName.length() - 5));
+            String o1Name = stripFeedSuffix(o1FileName);
+            String o2Name = stripFeedSuffix(o2FileName);
+            if (o1Name != null && o2Name != null) {
+                return o1Name.compareTo(o2Name);
             } else {
                 return o1FileName.compareTo(o2FileName);
             }
         }
     }
 
+    private static String stripFeedSuffix(String fileName) {
+        if (fileName.endsWith(".json.gz")) {
+            return fileName.substring(0, fileName.length() - 8);
+        } else if (fileName.endsWith(".json")) {
+            return fileName.substring(0, fileName.length() - 5);
+        } else {
+            return null;
+        }
+    }
+
     @Override
     public boolean equals(Object obj) {
         return obj instanceof FeedsPathComparator && getClass().equals(obj.getClass());
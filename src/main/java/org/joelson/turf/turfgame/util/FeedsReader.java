@@ -1,14 +1,20 @@
 package org.joelson.turf.turfgame.util;
 
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
 import org.joelson.turf.turfgame.FeedObject;
 import org.joelson.turf.util.FilesUtil;
 import org.joelson.turf.util.JacksonUtil;
+import org.joelson.turf.util.TimeUtil;
 
 import java.io.IOException;
-import java.nio.file.Files;
+import java.io.InputStream;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
@@ -22,7 +28,9 @@ public class FeedsReader {
     private final Map<String, Class<? extends FeedObject>> typesToHandle;
     private final boolean filesReversed;
     private final boolean feedReversed;
+    private final boolean streaming;
     private final FeedContentErrorHandler errorHandler;
+    private final FeedModelPool modelPool;
 
     public FeedsReader(Map<String, Class<? extends FeedObject>> typesToHandle, FeedContentErrorHandler errorHandler) {
         this(typesToHandle, errorHandler, false, true);
@@ -30,18 +38,47 @@ public class FeedsReader {
 
     public FeedsReader(Map<String, Class<? extends FeedObject>> typesToHandle, FeedContentErrorHandler errorHandler,
             boolean filesReversed, boolean feedReversed) {
+        this(typesToHandle, errorHandler, filesReversed, feedReversed, false);
+    }
+
+    /**
+     * Creates a feeds reader.
+     *
+     * @param typesToHandle the feed object class to bind each handled feed type to
+     * @param errorHandler  handler of files that could not be read
+     * @param filesReversed if files should be handled in reversed order
+     * @param feedReversed  if the feed objects of each file are stored in reversed (descending time) order
+     * @param streaming     if feed objects should be bound directly from a parser over the file input stream instead
+     *                      of reading the whole file content and JSON tree into memory first, the feed objects
+     *                      of a file are still only handled if the whole file is read without errors
+     */
+    public FeedsReader(Map<String, Class<? extends FeedObject>> typesToHandle, FeedContentErrorHandler errorHandler,
+            boolean filesReversed, boolean feedReversed, boolean streaming) {
+        this(typesToHandle, errorHandler, filesReversed, feedReversed, streaming, null);
+    }
+
+    /**
+     * Creates a feeds reader canonicalizing the users, regions and zones of the feed objects.
+     *
+     * @param modelPool pool of the model objects shared between feed objects, or null to not share any
+     * @see #FeedsReader(Map, FeedContentErrorHandler, boolean, boolean, boolean)
+     */
+    public FeedsReader(Map<String, Class<? extends FeedObject>> typesToHandle, FeedContentErrorHandler errorHandler,
+            boolean filesReversed, boolean feedReversed, boolean streaming, FeedModelPool modelPool) {
         this.typesToHandle = Objects.requireNonNull(typesToHandle);
         this.errorHandler = Objects.requireNonNull(errorHandler);
         this.filesReversed = filesReversed;
         this.feedReversed = feedReversed;
+        this.streaming = streaming;
+        this.modelPool = modelPool;
     }
 
-    private static String getJsonNodeTime(JsonNode node) {
+    private static long getJsonNodeTime(JsonNode node) {
         JsonNode timeNode = node.get("time");
         if (timeNode == null) {
             throw new IllegalArgumentException("Node lacks attribute time: " + node);
         }
-        return timeNode.asText();
+        return TimeUtil.turfAPITimestampToEpochSecond(timeNode.asText());
     }
 
     public void handleFeedObjectPath(Path path, Predicate<Path> forEachPath, Consumer<FeedObject> forEachFeedObject)
@@ -55,9 +92,13 @@ public class FeedsReader {
         if (!forEachPath.test(path)) {
             return;
         }
+        if (streaming) {
+            streamFeedObjectFile(path, forEachFeedObject);
+            return;
+        }
         String content = null;
         try {
-            content = Files.readString(path);
+            content = FilesUtil.readString(path);
             handleFeedObjects(content, forEachFeedObject);
         } catch (IOException e) {
             errorHandler.handleErrorContent(path, content, e);
@@ -68,17 +109,14 @@ public class FeedsReader {
             throws IOException {
         List<JsonNode> nodes = getJsonNodes(content);
         if (!nodes.isEmpty()) {
-            String time = null;
+            long time = Long.MIN_VALUE;
             for (JsonNode node : nodes) {
-                String nodeTime = getJsonNodeTime(node);
-                if (time == null) {
-                    time = nodeTime;
-                } else if (time.compareTo(nodeTime) <= 0) {
-                    time = nodeTime;
-                } else {
-                    throw new IllegalArgumentException(
-                            "Node with time " + nodeTime + " is not after " + time + ": " + node);
+                long nodeTime = getJsonNodeTime(node);
+                if (time > nodeTime) {
+                    throw new IllegalArgumentException("Node with time " + node.get("time").asText()
+                            + " is not after " + TimeUtil.epochSecondToTurfAPITimestamp(time) + ": " + node);
                 }
+                time = nodeTime;
                 handleFeedObject(node, forEachFeedObject);
             }
         }
@@ -96,10 +134,103 @@ public class FeedsReader {
         if (feedObjectClass == null) {
             return;
         }
-        FeedObject feedObject = JacksonUtil.treeToValue(node, feedObjectClass);
+        FeedObject feedObject = (modelPool != null) ? modelPool.treeToValue(node, feedObjectClass)
+                : JacksonUtil.treeToValue(node, feedObjectClass);
         if (!feedObject.getType().equals(type)) {
             throw new ConflictingFeedTypeException(feedObject, type);
         }
         forEachFeedObject.accept(feedObject);
     }
+
+    private void streamFeedObjectFile(Path path, Consumer<FeedObject> forEachFeedObject) {
+        try (InputStream in = FilesUtil.newInputStream(path)) {
+            streamFeedObjects(in, forEachFeedObject);
+        } catch (IOException e) {
+            errorHandler.handleErrorContent(path, readErrorContent(path), e);
+        }
+    }
+
+    private static String readErrorContent(Path path) {
+        try {
+            return FilesUtil.readString(path);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private void streamFeedObjects(InputStream in, Consumer<FeedObject> forEachFeedObject) throws IOException {
+        try (JsonParser parser = JacksonUtil.createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw MismatchedInputException.from(parser, FeedObject[].class, "Feed content is not a JSON array");
+            }
+            // the feed objects are handled once the whole file is read, so a file with errors handles none of them
+            List<FeedObject> feedObjects = new ArrayList<>();
+            String time = null;
+            long epochSecond = 0;
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                TokenBuffer buffer = new TokenBuffer(parser);
+                buffer.copyCurrentStructure(parser);
+                String[] typeAndTime = getTypeAndTime(buffer);
+                String nodeTime = typeAndTime[1];
+                FeedObject feedObject = bindFeedObject(buffer, typeAndTime[0]);
+                long nodeEpochSecond = (feedObject != null) ? feedObject.getEpochSecond()
+                        : TimeUtil.turfAPITimestampToEpochSecond(nodeTime);
+                if (time != null && (feedReversed ? nodeEpochSecond > epochSecond : epochSecond > nodeEpochSecond)) {
+                    throw new IllegalArgumentException(String.format("Node with time %s is not after %s",
+                            feedReversed ? time : nodeTime, feedReversed ? nodeTime : time));
+                }
+                time = nodeTime;
+                epochSecond = nodeEpochSecond;
+                if (feedObject == null) {
+                    continue;
+                }
+                feedObjects.add(feedObject);
+            }
+            if (parser.currentToken() != JsonToken.END_ARRAY) {
+                throw MismatchedInputException.from(parser, FeedObject[].class,
+                        "Feed array contains non-object element " + parser.currentToken());
+            }
+            (feedReversed ? feedObjects.reversed() : feedObjects).forEach(forEachFeedObject);
+        }
+    }
+
+    private static String[] getTypeAndTime(TokenBuffer buffer) throws IOException {
+        String type = null;
+        String time = null;
+        try (JsonParser parser = buffer.asParser()) {
+            parser.nextToken();
+            while ((type == null || time == null) && parser.nextToken() == JsonToken.FIELD_NAME) {
+                String fieldName = parser.currentName();
+                parser.nextToken();
+                switch (fieldName) {
+                    case "type" -> type = parser.getValueAsString();
+                    case "time" -> time = parser.getValueAsString();
+                    default -> parser.skipChildren();
+                }
+            }
+        }
+        if (type == null) {
+            throw new NoFeedTypeException();
+        }
+        if (time == null) {
+            throw new IllegalArgumentException("Node lacks attribute time of type " + type);
+        }
+        return new String[] { type, time };
+    }
+
+    private FeedObject bindFeedObject(TokenBuffer buffer, String type) throws IOException {
+        Class<? extends FeedObject> feedObjectClass = typesToHandle.get(type);
+        if (feedObjectClass == null) {
+            return null;
+        }
+        FeedObject feedObject;
+        try (JsonParser parser = buffer.asParser()) {
+            feedObject = (modelPool != null) ? modelPool.readValue(parser, feedObjectClass)
+                    : JacksonUtil.readValue(parser, feedObjectClass);
+        }
+        if (!feedObject.getType().equals(type)) {
+            throw new ConflictingFeedTypeException(feedObject, type);
+        }
+        return feedObject;
+    }
 }
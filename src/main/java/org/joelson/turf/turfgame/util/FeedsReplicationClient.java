@@ -0,0 +1,281 @@
+package org.joelson.turf.turfgame.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.joelson.turf.util.FilesUtil;
+import org.joelson.turf.util.JacksonUtil;
+import org.joelson.turf.util.TimeUtil;
+import org.joelson.turf.util.URLReader.Response;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Backfills the gaps of a local feeds directory from peers running {@link FeedsReplicationServer}. For every version
+ * and feed the local coverage is compared with the intervals of the peers, and only the missing intervals are fetched,
+ * from the first peer covering them. The local coverage includes the feed files in zip files, such as archived months.
+ * The fetched feed objects are stored as feed files in the same layout as {@link FeedsDownloader} stores them, and
+ * added to the {@link FeedsCoverageIndex} of the feeds directory, so fetched intervals are part of the local coverage
+ * the next time.
+ */
+public class FeedsReplicationClient {
+
+    private static final Logger logger = LoggerFactory.getLogger(FeedsReplicationClient.class);
+
+    private record Feed(String name, List<String> types) {
+    }
+
+    private static final List<Feed> FEEDS = List.of(
+            new Feed("takeover", List.of("takeover")),
+            new Feed("medal_chat", List.of("medal", "chat")),
+            new Feed("zone", List.of("zone")));
+
+    private record Backfill(String peer, String version, Feed feed, FeedCoverage.Interval interval) {
+    }
+
+    private final Path feedsPath;
+    private final List<String> peers;
+    private final int parallelism;
+    private final Object storeLock = new Object();
+
+    /**
+     * @param feedsPath   feeds directory with the feeds_v4, feeds_v5 and feeds_v6 directories
+     * @param peers       peer URLs, such as "http://localhost:8080", in order of preference
+     * @param parallelism maximum number of intervals fetched at the same time
+     */
+    public FeedsReplicationClient(Path feedsPath, List<String> peers, int parallelism) {
+        this.feedsPath = Objects.requireNonNull(feedsPath, "feedsPath is null");
+        this.peers = List.copyOf(peers);
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Invalid parallelism " + parallelism);
+        }
+        this.parallelism = parallelism;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3) {
+            System.out.printf("Usage:%n\t%s feeds_dir parallelism peer_url ...%n",
+                    FeedsReplicationClient.class.getName());
+            return;
+        }
+        List<String> peers = new ArrayList<>();
+        for (int i = 2; i < args.length; i += 1) {
+            peers.add(args[i]);
+        }
+        int stored = new FeedsReplicationClient(Path.of(args[0]), peers, Integer.parseInt(args[1])).backfill();
+        System.out.printf("Stored %d feed files%n", stored);
+    }
+
+    /**
+     * Fetches all intervals the peers have and the feeds directory lacks.
+     *
+     * @return the number of stored feed files
+     */
+    public int backfill() throws IOException {
+        List<Backfill> backfills = new ArrayList<>();
+        for (Map.Entry<String, String> versionPathName : FeedsReplicationServer.VERSION_PATH_NAMES.entrySet()) {
+            String version = versionPathName.getKey();
+            Path versionPath = feedsPath.resolve(versionPathName.getValue());
+            FeedsIndex feedsIndex = new FeedsIndex(versionPath, true);
+            if (Files.isDirectory(versionPath)) {
+                feedsIndex.refresh();
+            }
+            for (Feed feed : FEEDS) {
+                FeedCoverage covered = getLocalCoverage(feedsIndex, feed);
+                for (String peer : peers) {
+                    FeedCoverage peerMissing = getPeerCoverage(peer, version, feed).difference(covered);
+                    for (FeedCoverage.Interval interval : peerMissing.getIntervals()) {
+                        backfills.add(new Backfill(peer, version, feed, interval));
+                    }
+                    covered.add(peerMissing);
+                }
+            }
+        }
+        logger.info("Backfilling {} intervals", backfills.size());
+        if (backfills.isEmpty()) {
+            return 0;
+        }
+        try (FeedsCoverageIndex coverageIndex = new FeedsCoverageIndex(feedsPath)) {
+            return fetchBackfills(backfills, coverageIndex);
+        }
+    }
+
+    private int fetchBackfills(List<Backfill> backfills, FeedsCoverageIndex coverageIndex) throws IOException {
+        Semaphore permits = new Semaphore(parallelism);
+        List<Future<Integer>> futures = new ArrayList<>();
+        int stored = 0;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Backfill backfill : backfills) {
+                futures.add(executor.submit(() -> {
+                    permits.acquire();
+                    try {
+                        return fetchBackfill(backfill, coverageIndex);
+                    } finally {
+                        permits.release();
+                    }
+                }));
+            }
+            for (Future<Integer> future : futures) {
+                stored += future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while backfilling");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException ioException) {
+                throw ioException;
+            }
+            throw new IOException("Unable to backfill", e.getCause());
+        }
+        return stored;
+    }
+
+    private static FeedCoverage getLocalCoverage(FeedsIndex feedsIndex, Feed feed) {
+        FeedCoverage coverage = null;
+        for (String type : feed.types) {
+            FeedCoverage typeCoverage = feedsIndex.getCoverage(type);
+            coverage = (coverage == null) ? typeCoverage : coverage.intersection(typeCoverage);
+        }
+        return coverage;
+    }
+
+    private static FeedCoverage getPeerCoverage(String peer, String version, Feed feed) throws IOException {
+        FeedCoverage coverage = null;
+        for (String type : feed.types) {
+            JsonNode response = getPeerJson(peer, String.format("/%s/feeds/%s/interval", version, type));
+            FeedCoverage typeCoverage = new FeedCoverage();
+            if (response != null) {
+                for (JsonNode interval : response.get("interval")) {
+                    typeCoverage.add(toEpochSecond(interval.get("from")), toEpochSecond(interval.get("to")));
+                }
+            }
+            coverage = (coverage == null) ? typeCoverage : coverage.intersection(typeCoverage);
+        }
+        return coverage;
+    }
+
+    private static JsonNode getPeerJson(String peer, String request) throws IOException {
+        Response response = TurfgameURLReader.getTurfgameRequest(peer + request);
+        if (response.statusCode() == HttpURLConnection.HTTP_NOT_FOUND) {
+            return null;
+        } else if (response.statusCode() != HttpURLConnection.HTTP_OK) {
+            throw new IOException(String.format("GET %s%s, statusCode %d: %s",
+                    peer, request, response.statusCode(), response.content()));
+        }
+        return JacksonUtil.readValue(response.content(), JsonNode.class);
+    }
+
+    private static long toEpochSecond(JsonNode time) {
+        return TimeUtil.turfAPITimestampToEpochSecond(time.asText());
+    }
+
+    private static String toAPITimestampParameter(long epochSecond) {
+        return URLEncoder.encode(TimeUtil.epochSecondToTurfAPITimestamp(epochSecond), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Fetches the feed objects of a missing interval page by page, every page is stored as a feed file. The seconds
+     * before and after the interval are included, so the stored feed files overlap the local coverage.
+     */
+    private int fetchBackfill(Backfill backfill, FeedsCoverageIndex coverageIndex) throws IOException {
+        long from = backfill.interval.from() - 1;
+        long to = backfill.interval.to() + 1;
+        int stored = 0;
+        while (from <= to) {
+            long pageTo = to;
+            List<JsonNode> feedObjects = new ArrayList<>();
+            for (String type : backfill.feed.types) {
+                JsonNode response = getPeerJson(backfill.peer, String.format(
+                        "/%s/feeds/%s?afterDate=%s&beforeDate=%s", backfill.version, type,
+                        toAPITimestampParameter(from - 1), toAPITimestampParameter(pageTo + 1)));
+                if (response == null) {
+                    throw new IOException(String.format("Peer %s lacks %s %s feed", backfill.peer, backfill.version,
+                            type));
+                }
+                JsonNode responseTo = response.get("to");
+                if (responseTo != null && !responseTo.isNull()) {
+                    pageTo = Math.min(pageTo, toEpochSecond(responseTo));
+                }
+                response.get("feed").forEach(feedObjects::add);
+            }
+            if (pageTo < from) {
+                throw new IOException(String.format("Peer %s responded with feed objects to %s before %s",
+                        backfill.peer, TimeUtil.epochSecondToTurfAPITimestamp(pageTo),
+                        TimeUtil.epochSecondToTurfAPITimestamp(from)));
+            }
+            long lastTo = pageTo;
+            List<JsonNode> pageFeedObjects = feedObjects.stream()
+                    .filter(feedObject -> toEpochSecond(feedObject.get("time")) <= lastTo)
+                    .sorted(Comparator.comparing((JsonNode feedObject) -> feedObject.get("time").asText()).reversed())
+                    .toList();
+            if (!pageFeedObjects.isEmpty()) {
+                storeFeedObjects(backfill, pageFeedObjects, coverageIndex);
+                stored += 1;
+            }
+            // overlap the next page with the last second of this page, unless this page was a single second
+            from = (pageTo > from) ? pageTo : pageTo + 1;
+            if (pageTo == to) {
+                break;
+            }
+        }
+        return stored;
+    }
+
+    private void storeFeedObjects(Backfill backfill, List<JsonNode> feedObjects, FeedsCoverageIndex coverageIndex)
+            throws IOException {
+        Path versionPath = feedsPath.resolve(FeedsReplicationServer.VERSION_PATH_NAMES.get(backfill.version));
+        Files.createDirectories(versionPath);
+        Path tempFile = Files.createTempFile(versionPath, "feed_replication",
+                ".json" + FilesUtil.GZIP_SUFFIX + FeedsDownloader.PARTIAL_SUFFIX);
+        try {
+            try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(tempFile));
+                 JsonGenerator generator = JacksonUtil.createGenerator(out)) {
+                generator.writeStartArray();
+                for (JsonNode feedObject : feedObjects) {
+                    generator.writeTree(feedObject);
+                }
+                generator.writeEndArray();
+            }
+            Instant lastEntryTime = TimeUtil.turfAPITimestampToInstant(feedObjects.getFirst().get("time").asText());
+            String filenamePattern = "feeds_" + backfill.feed.name + "_%s.%sjson" + FilesUtil.GZIP_SUFFIX;
+            synchronized (storeLock) {
+                Path file = FeedsDownloader.getFilePath(versionPath, filenamePattern, lastEntryTime);
+                Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+                logger.info("Replicated {} from {}", file, backfill.peer);
+                addToCoverageIndex(coverageIndex, file, toEpochSecond(feedObjects.getLast().get("time")),
+                        toEpochSecond(feedObjects.getFirst().get("time")));
+            }
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    private static void addToCoverageIndex(FeedsCoverageIndex coverageIndex, Path file, long from, long to) {
+        try {
+            coverageIndex.addFeedFile(file, from, to);
+        } catch (IOException | RuntimeException e) {
+            logger.error("Unable to add {} to coverage index:", file, e);
+        }
+    }
+}
@@ -0,0 +1,417 @@
+package org.joelson.turf.turfgame.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.joelson.turf.util.FilesUtil;
+import org.joelson.turf.util.JacksonUtil;
+import org.joelson.turf.util.TimeUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Serial;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serves downloaded feeds to other servers as described in replikering.md. For every version ({@code v4}, {@code v5}
+ * and {@code unstable}) and feed type ({@code chat}, {@code medal}, {@code takeover} and {@code zone}) there are two
+ * endpoints:
+ * <ul>
+ *     <li>{@code GET /v5/feeds/takeover?afterDate=...&beforeDate=...} returns the feed objects between the exclusive
+ *     dates in descending time order, at most a maximum number of feed objects per response.</li>
+ *     <li>{@code GET /v5/feeds/takeover/interval?from=...&to=...} returns the intervals covered by the feed files
+ *     between the inclusive times.</li>
+ * </ul>
+ * Responses are gzip encoded if the request accepts it. Feed files in zip files, such as archived months, are not
+ * served. A feed file that can not be read is skipped and logged, and a request failing otherwise gets an internal
+ * server error response.
+ */
+public class FeedsReplicationServer {
+
+    private static final Logger logger = LoggerFactory.getLogger(FeedsReplicationServer.class);
+
+    private static final int DEFAULT_MAX_OBJECTS = 10_000;
+    private static final long REFRESH_INTERVAL_SECONDS = 60;
+    private static final Set<String> FEED_TYPES = Set.of("chat", "medal", "takeover", "zone");
+    static final Map<String, String> VERSION_PATH_NAMES = Map.of(
+            "v4", "feeds_v4", "v5", "feeds_v5", "unstable", "feeds_v6");
+    private static final String CONTENT_TYPE_APPLICATION_JSON_CHARSET_UTF_8 = "application/json;charset=utf-8";
+
+    private final Map<String, FeedsIndex> feedsIndexes = new HashMap<>();
+    private final int maxObjects;
+    private final ScheduledExecutorService refreshExecutor = Executors.newSingleThreadScheduledExecutor();
+    private HttpServer httpServer;
+
+    /**
+     * Creates a server of the feeds directories of a feeds directory, as created by {@link FeedsDownloader}.
+     *
+     * @param feedsPath  feeds directory
+     * @param maxObjects maximum number of feed objects in a response
+     */
+    public FeedsReplicationServer(Path feedsPath, int maxObjects) throws IOException {
+        Objects.requireNonNull(feedsPath, "feedsPath is null");
+        if (maxObjects < 1) {
+            throw new IllegalArgumentException("Invalid maxObjects " + maxObjects);
+        }
+        this.maxObjects = maxObjects;
+        for (Map.Entry<String, String> versionPathName : VERSION_PATH_NAMES.entrySet()) {
+            Path versionPath = feedsPath.resolve(versionPathName.getValue());
+            if (Files.isDirectory(versionPath)) {
+                FeedsIndex feedsIndex = new FeedsIndex(versionPath);
+                logger.info("Indexed {} feed files in {}", feedsIndex.refresh(), versionPath);
+                feedsIndexes.put(versionPathName.getKey(), feedsIndex);
+            }
+        }
+        if (feedsIndexes.isEmpty()) {
+            throw new IOException("No feeds directories in " + feedsPath);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2 || args.length > 3) {
+            System.out.printf("Usage:%n\t%s feeds_dir port [max_objects]%n", FeedsReplicationServer.class.getName());
+            System.out.printf("\tmax_objects   Maximum number of feed objects in a response. (default %d)%n",
+                    DEFAULT_MAX_OBJECTS);
+            return;
+        }
+        int maxObjects = (args.length == 3) ? Integer.parseInt(args[2]) : DEFAULT_MAX_OBJECTS;
+        new FeedsReplicationServer(Path.of(args[0]), maxObjects).start(Integer.parseInt(args[1]));
+    }
+
+    /**
+     * Starts serving on a port, the feeds directories are refreshed every minute.
+     *
+     * @param port port to listen to, 0 for any free port
+     * @return the port listened to
+     */
+    public synchronized int start(int port) throws IOException {
+        if (httpServer != null) {
+            throw new IllegalStateException("Server already started");
+        }
+        httpServer = HttpServer.create(new InetSocketAddress(port), 0);
+        httpServer.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        httpServer.createContext("/", this::handle);
+        httpServer.start();
+        refreshExecutor.scheduleWithFixedDelay(this::refresh, REFRESH_INTERVAL_SECONDS, REFRESH_INTERVAL_SECONDS,
+                TimeUnit.SECONDS);
+        logger.info("Serving feeds on port {}", httpServer.getAddress().getPort());
+        return httpServer.getAddress().getPort();
+    }
+
+    public synchronized void stop() {
+        refreshExecutor.shutdownNow();
+        if (httpServer != null) {
+            httpServer.stop(0);
+        }
+    }
+
+    private void refresh() {
+        for (Map.Entry<String, FeedsIndex> feedsIndex : feedsIndexes.entrySet()) {
+            try {
+                int indexed = feedsIndex.getValue().refresh();
+                if (indexed > 0) {
+                    logger.info("Indexed {} new {} feed files", indexed, feedsIndex.getKey());
+                }
+            } catch (IOException | RuntimeException e) {
+                logger.error("Unable to refresh {} feed files:", feedsIndex.getKey(), e);
+            }
+        }
+    }
+
+    private void handle(HttpExchange exchange) {
+        try (exchange) {
+            handleRequest(exchange);
+        } catch (IOException | RuntimeException e) {
+            logger.error("Unable to handle {}:", exchange.getRequestURI(), e);
+            if (exchange.getResponseCode() == -1) {
+                try {
+                    sendError(exchange, HttpURLConnection.HTTP_INTERNAL_ERROR, "Unable to handle request");
+                } catch (IOException | RuntimeException sendException) {
+                    logger.error("Unable to send error response of {}:", exchange.getRequestURI(), sendException);
+                }
+            }
+        }
+    }
+
+    private void handleRequest(HttpExchange exchange) throws IOException {
+        if (!exchange.getRequestMethod().equals("GET")) {
+            sendError(exchange, HttpURLConnection.HTTP_BAD_METHOD, "Only GET requests allowed");
+            return;
+        }
+        // "/v5/feeds/takeover" or "/v5/feeds/takeover/interval"
+        String[] pathParts = exchange.getRequestURI().getPath().split("/");
+        FeedsIndex feedsIndex = (pathParts.length >= 4) ? feedsIndexes.get(pathParts[1]) : null;
+        if (feedsIndex == null || !pathParts[0].isEmpty() || !pathParts[2].equals("feeds")
+                || !FEED_TYPES.contains(pathParts[3])
+                || (pathParts.length == 5 && !pathParts[4].equals("interval")) || pathParts.length > 5) {
+            sendError(exchange, HttpURLConnection.HTTP_NOT_FOUND, "Unknown endpoint");
+            return;
+        }
+        boolean intervals = pathParts.length == 5;
+        Map<String, String> parameters = getParameters(exchange.getRequestURI().getRawQuery());
+        Long from;
+        Long to;
+        try {
+            from = getTimeParameter(parameters, (intervals) ? "from" : "afterDate");
+            to = getTimeParameter(parameters, (intervals) ? "to" : "beforeDate");
+        } catch (InvalidParameterException e) {
+            sendError(exchange, HttpURLConnection.HTTP_BAD_REQUEST, e.getMessage());
+            return;
+        }
+        if (intervals) {
+            sendIntervals(exchange, feedsIndex, pathParts[3], from, to);
+        } else {
+            sendFeedObjects(exchange, feedsIndex, pathParts[3], from, to);
+        }
+    }
+
+    private static Map<String, String> getParameters(String rawQuery) {
+        Map<String, String> parameters = new HashMap<>();
+        if (rawQuery != null) {
+            for (String parameter : rawQuery.split("&")) {
+                int index = parameter.indexOf('=');
+                if (index > 0) {
+                    parameters.put(URLDecoder.decode(parameter.substring(0, index), StandardCharsets.UTF_8),
+                            URLDecoder.decode(parameter.substring(index + 1), StandardCharsets.UTF_8));
+                }
+            }
+        }
+        return parameters;
+    }
+
+    /**
+     * Returns a time parameter as epoch seconds, or null if missing.
+     */
+    private static Long getTimeParameter(Map<String, String> parameters, String name)
+            throws InvalidParameterException {
+        String value = parameters.get(name);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return TimeUtil.turfAPITimestampToEpochSecond(value);
+        } catch (RuntimeException e) {
+            throw new InvalidParameterException("Invalid " + name + ": " + value);
+        }
+    }
+
+    private void sendFeedObjects(HttpExchange exchange, FeedsIndex feedsIndex, String type, Long afterDate,
+            Long beforeDate) throws IOException {
+        long from = (afterDate != null) ? afterDate + 1 : Long.MIN_VALUE;
+        long to = (beforeDate != null) ? beforeDate - 1 : Long.MAX_VALUE;
+        NavigableMap<Long, Set<String>> feedObjects = new TreeMap<>();
+        int count = 0;
+        boolean truncated = false;
+        for (FeedsIndex.FeedFile feedFile : feedsIndex.getFeedFiles(type, from, to)) {
+            // seconds after the last kept second are dropped, and feed files are ordered by their first second
+            long lastSecond = (truncated) ? feedObjects.lastKey() : to;
+            if (feedFile.from() > lastSecond) {
+                break;
+            }
+            count += readFeedObjects(feedFile.path(), type, from, lastSecond, feedObjects);
+            // keep the earliest complete seconds, unless a single second exceeds the maximum
+            while (count > maxObjects && feedObjects.size() > 1) {
+                count -= feedObjects.pollLastEntry().getValue().size();
+                truncated = true;
+            }
+        }
+        Long responseFrom = (afterDate != null) ? Long.valueOf(from)
+                : (feedObjects.isEmpty()) ? null : feedObjects.firstKey();
+        Long responseTo = (beforeDate != null && !truncated) ? Long.valueOf(to)
+                : (feedObjects.isEmpty()) ? null : feedObjects.lastKey();
+        try (JsonGenerator generator = startResponse(exchange)) {
+            generator.writeStartObject();
+            writeTimeField(generator, "from", responseFrom);
+            writeTimeField(generator, "to", responseTo);
+            generator.writeArrayFieldStart("feed");
+            for (Set<String> secondFeedObjects : feedObjects.descendingMap().values()) {
+                for (String feedObject : secondFeedObjects) {
+                    generator.writeRawValue(feedObject);
+                }
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+    }
+
+    /**
+     * Adds the feed objects of a type in an interval of a feed file. A feed file that can not be read, such as a feed
+     * file moved or removed since indexed, is logged and none of its feed objects are added.
+     *
+     * @return the number of added feed objects
+     */
+    private static int readFeedObjects(Path path, String type, long from, long to,
+            NavigableMap<Long, Set<String>> feedObjects) {
+        List<Map.Entry<Long, String>> fileFeedObjects = new ArrayList<>();
+        try (InputStream in = FilesUtil.newInputStream(path); JsonParser parser = JacksonUtil.createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw MismatchedInputException.from(parser, JsonNode[].class, "Feed content is not a JSON array");
+            }
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                ObjectNode node = readFeedObject(parser, type, from, to);
+                if (node != null) {
+                    fileFeedObjects.add(Map.entry(TimeUtil.turfAPITimestampToEpochSecond(node.get("time").asText()),
+                            node.toString()));
+                }
+            }
+            if (parser.currentToken() != JsonToken.END_ARRAY) {
+                throw MismatchedInputException.from(parser, JsonNode[].class,
+                        "Feed array contains non-object element " + parser.currentToken());
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Skipping unreadable feed file {}: {}", path, e.toString());
+            return 0;
+        }
+        int added = 0;
+        for (Map.Entry<Long, String> feedObject : fileFeedObjects) {
+            if (feedObjects.computeIfAbsent(feedObject.getKey(), t -> new LinkedHashSet<>()).add(
+                    feedObject.getValue())) {
+                added += 1;
+            }
+        }
+        return added;
+    }
+
+    /**
+     * Reads a feed object of a type and time in an interval, field by field so that other feed objects are skipped as
+     * soon as their type or time is read.
+     *
+     * @return the feed object, or null if skipped
+     */
+    private static ObjectNode readFeedObject(JsonParser parser, String type, long from, long to) throws IOException {
+        ObjectNode node = JsonNodeFactory.instance.objectNode();
+        boolean hasType = false;
+        boolean hasTime = false;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            parser.nextToken();
+            JsonNode value = JacksonUtil.readValue(parser, JsonNode.class);
+            if (name.equals("type")) {
+                hasType = type.equals(value.asText());
+                if (!hasType) {
+                    return skipFeedObject(parser);
+                }
+            } else if (name.equals("time")) {
+                long time = TimeUtil.turfAPITimestampToEpochSecond(value.asText());
+                hasTime = time >= from && time <= to;
+                if (!hasTime) {
+                    return skipFeedObject(parser);
+                }
+            }
+            node.set(name, value);
+        }
+        return (hasType && hasTime) ? node : null;
+    }
+
+    private static ObjectNode skipFeedObject(JsonParser parser) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            parser.nextToken();
+            parser.skipChildren();
+        }
+        return null;
+    }
+
+    private static void sendIntervals(HttpExchange exchange, FeedsIndex feedsIndex, String type, Long from, Long to)
+            throws IOException {
+        List<FeedCoverage.Interval> intervals = feedsIndex.getIntervals(type,
+                (from != null) ? from : Long.MIN_VALUE, (to != null) ? to : Long.MAX_VALUE);
+        Long responseFrom = from;
+        Long responseTo = to;
+        if (!intervals.isEmpty()) {
+            long intervalsFrom = intervals.getFirst().from();
+            long intervalsTo = intervals.getLast().to();
+            responseFrom = (from != null) ? Long.valueOf(Math.min(from, intervalsFrom)) : Long.valueOf(intervalsFrom);
+            responseTo = (to != null) ? Long.valueOf(Math.max(to, intervalsTo)) : Long.valueOf(intervalsTo);
+        }
+        try (JsonGenerator generator = startResponse(exchange)) {
+            generator.writeStartObject();
+            writeTimeField(generator, "from", responseFrom);
+            writeTimeField(generator, "to", responseTo);
+            generator.writeArrayFieldStart("interval");
+            for (FeedCoverage.Interval interval : intervals) {
+                generator.writeStartObject();
+                writeTimeField(generator, "from", interval.from());
+                writeTimeField(generator, "to", interval.to());
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+    }
+
+    private static void writeTimeField(JsonGenerator generator, String name, Long epochSecond) throws IOException {
+        if (epochSecond == null) {
+            generator.writeNullField(name);
+        } else {
+            generator.writeStringField(name, TimeUtil.epochSecondToTurfAPITimestamp(epochSecond));
+        }
+    }
+
+    private static JsonGenerator startResponse(HttpExchange exchange) throws IOException {
+        boolean gzip = acceptsGzip(exchange);
+        exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE_APPLICATION_JSON_CHARSET_UTF_8);
+        if (gzip) {
+            exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+        }
+        exchange.sendResponseHeaders(HttpURLConnection.HTTP_OK, 0);
+        OutputStream out = exchange.getResponseBody();
+        return JacksonUtil.createGenerator((gzip) ? new GZIPOutputStream(out, 1 << 13) : out);
+    }
+
+    private static boolean acceptsGzip(HttpExchange exchange) {
+        for (String acceptEncoding : exchange.getRequestHeaders().getOrDefault("Accept-Encoding", List.of())) {
+            for (String encoding : acceptEncoding.split(",")) {
+                if (encoding.trim().startsWith("gzip")) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static final class InvalidParameterException extends IOException {
+
+        @Serial
+        private static final long serialVersionUID = 0;
+
+        private InvalidParameterException(String message) {
+            super(message);
+        }
+    }
+
+    private static void sendError(HttpExchange exchange, int statusCode, String errorMessage) throws IOException {
+        byte[] content = JacksonUtil.writeValueAsBytes(Map.of("errorMessage", errorMessage));
+        exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE_APPLICATION_JSON_CHARSET_UTF_8);
+        exchange.sendResponseHeaders(statusCode, content.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(content);
+        }
+    }
+}
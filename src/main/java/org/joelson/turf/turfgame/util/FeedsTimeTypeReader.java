@@ -5,7 +5,6 @@ import org.joelson.turf.util.FilesUtil;
 import org.joelson.turf.util.JacksonUtil;
 
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
 
 public class FeedsTimeTypeReader {
@@ -25,7 +24,7 @@ public class FeedsTimeTypeReader {
     private static void readFeedFile(Path feedPath) {
         JsonNode[] nodes = null;
         try {
-            String content = Files.readString(feedPath);
+            String content = FilesUtil.readString(feedPath);
             nodes = JacksonUtil.readValue(content, JsonNode[].class);
         } catch (IOException e) {
             e.printStackTrace();
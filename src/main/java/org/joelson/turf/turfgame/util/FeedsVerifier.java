@@ -5,6 +5,9 @@ import org.joelson.turf.turfgame.FeedObject;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.stream.Stream;
 
@@ -15,50 +18,78 @@ public class FeedsVerifier {
     private static final DefaultFeedContentErrorHandler errorHandler = new DefaultFeedContentErrorHandler();
 
     public static void main(String[] args) throws IOException {
-        if (args.length != 1 || !Files.isDirectory(Path.of(args[0]))) {
-            System.out.printf("Usage:%n\t%s directory_with_zipped_feeds", FeedsVerifier.class);
+        if (args.length < 1 || args.length > 2 || !Files.isDirectory(Path.of(args[0]))) {
+            System.out.printf("Usage:%n\t%s directory_with_zipped_feeds [parallelism]", FeedsVerifier.class);
             System.exit(1);
         }
 
         Path dirPath = Path.of(args[0]);
-        try (Stream<Path> files = Files.list(dirPath)) {
-            files.forEach(FeedsVerifier::verifyPath);
+        int parallelism = (args.length == 2) ? Integer.parseInt(args[1]) : 1;
+        if (parallelism > 1) {
+            verifyParallel(dirPath, parallelism);
+        } else {
+            try (Stream<Path> files = Files.list(dirPath)) {
+                files.forEach(FeedsVerifier::verifyPath);
+            }
         }
 
         errorHandler.messageErrorPaths(20);
     }
 
-    private static void verifyPath(Path path) {
+    private static void verifyParallel(Path dirPath, int parallelism) throws IOException {
+        Map<String, List<Path>> versionPaths = new LinkedHashMap<>();
+        try (Stream<Path> files = Files.list(dirPath)) {
+            for (Path path : files.sorted(new FeedsPathComparator()).toList()) {
+                versionPaths.computeIfAbsent(getVersion(path), version -> new ArrayList<>()).add(path);
+            }
+        }
+        for (Map.Entry<String, List<Path>> entry : versionPaths.entrySet()) {
+            String version = entry.getKey();
+            List<Path> paths = entry.getValue();
+            System.out.printf("--> %s %d paths%n", version, paths.size());
+            lastFeedObject = null;
+            FeedsParallelReader feedsReader = new FeedsParallelReader(getTypes(version), errorHandler, parallelism,
+                    false);
+            try {
+                feedsReader.handleFeedObjectPaths(paths, path -> true, FeedsVerifier::rememberFeedObject);
+            } catch (Exception e) {
+                e.printStackTrace();
+                System.err.printf("Error handling %s paths:%n", version);
+                System.err.printf("  lastObj:  %s%n", lastFeedObject);
+                System.exit(-1);
+            }
+        }
+    }
+
+    private static String getVersion(Path path) {
         if (path.toString().contains("v4")) {
-            verifyV4Zip(path);
+            return "v4";
         } else if (path.toString().contains("v5")) {
-            verifyV5Zip(path);
+            return "v5";
         } else if (path.toString().contains("v6")) {
-            verifyV6Zip(path);
+            return "v6";
         } else {
             throw new RuntimeException("Unknown version type: " + path.toString() );
         }
     }
 
-    private static void verifyV4Zip(Path path) {
-        verifyZip("v4", path, Map.of("chat", org.joelson.turf.turfgame.apiv4.FeedChat.class,
-                "medal", org.joelson.turf.turfgame.apiv4.FeedMedal.class,
-                "takeover", org.joelson.turf.turfgame.apiv4.FeedTakeover.class,
-                "zone", org.joelson.turf.turfgame.apiv4.FeedZone.class));
+    private static Map<String, Class<? extends FeedObject>> getTypes(String version) {
+        return switch (version) {
+            case "v4" -> Map.of("chat", org.joelson.turf.turfgame.apiv4.FeedChat.class,
+                    "medal", org.joelson.turf.turfgame.apiv4.FeedMedal.class,
+                    "takeover", org.joelson.turf.turfgame.apiv4.FeedTakeover.class,
+                    "zone", org.joelson.turf.turfgame.apiv4.FeedZone.class);
+            case "v5", "v6" -> Map.of("chat", org.joelson.turf.turfgame.apiv5.FeedChat.class,
+                    "medal", org.joelson.turf.turfgame.apiv5.FeedMedal.class,
+                    "takeover", org.joelson.turf.turfgame.apiv5.FeedTakeover.class,
+                    "zone", org.joelson.turf.turfgame.apiv5.FeedZone.class);
+            default -> throw new IllegalArgumentException("Unknown version " + version);
+        };
     }
 
-    private static void verifyV5Zip(Path path) {
-        verifyZip("v5", path, Map.of("chat", org.joelson.turf.turfgame.apiv5.FeedChat.class,
-                "medal", org.joelson.turf.turfgame.apiv5.FeedMedal.class,
-                "takeover", org.joelson.turf.turfgame.apiv5.FeedTakeover.class,
-                "zone", org.joelson.turf.turfgame.apiv5.FeedZone.class));
-    }
-
-    private static void verifyV6Zip(Path path) {
-        verifyZip("v6", path, Map.of("chat", org.joelson.turf.turfgame.apiv5.FeedChat.class,
-                "medal", org.joelson.turf.turfgame.apiv5.FeedMedal.class,
-                "takeover", org.joelson.turf.turfgame.apiv5.FeedTakeover.class,
-                "zone", org.joelson.turf.turfgame.apiv5.FeedZone.class));
+    private static void verifyPath(Path path) {
+        String version = getVersion(path);
+        verifyZip(version, path, getTypes(version));
     }
 
     private static boolean rememberPath(Path path) {
@@ -75,7 +106,7 @@ public class FeedsVerifier {
         System.out.printf("--> %s %s%n", version, path);
         lastPath = null;
         lastFeedObject = null;
-        FeedsReader feedsReader = new FeedsReader(types, errorHandler);
+        FeedsReader feedsReader = new FeedsReader(types, errorHandler, false, true, true);
         try {
             feedsReader.handleFeedObjectPath(path, FeedsVerifier::rememberPath, FeedsVerifier::rememberFeedObject);
         } catch (Exception e) {
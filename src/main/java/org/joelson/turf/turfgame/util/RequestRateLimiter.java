@@ -0,0 +1,40 @@
+package org.joelson.turf.turfgame.util;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A token bucket holding a single token, shared by threads making requests to a rate limited API. Permits are handed
+ * out in the order they are asked for, never closer in time than the interval.
+ */
+public class RequestRateLimiter {
+
+    private final long intervalNanos;
+    private long nextPermitNanos;
+
+    public RequestRateLimiter(Duration interval) {
+        if (interval.isNegative() || interval.isZero()) {
+            throw new IllegalArgumentException("Invalid interval " + interval);
+        }
+        intervalNanos = interval.toNanos();
+        nextPermitNanos = System.nanoTime();
+    }
+
+    /**
+     * Waits until the next request may be made.
+     *
+     * @throws InterruptedException if interrupted while waiting, the reserved permit is then lost
+     */
+    public void acquire() throws InterruptedException {
+        long waitNanos;
+        synchronized (this) {
+            long now = System.nanoTime();
+            long permitNanos = (now - nextPermitNanos > 0) ? now : nextPermitNanos;
+            nextPermitNanos = permitNanos + intervalNanos;
+            waitNanos = permitNanos - now;
+        }
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+}
@@ -0,0 +1,349 @@
+package org.joelson.turf.turfgame.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.joelson.turf.turfgame.FeedObject;
+import org.joelson.turf.util.FilesUtil;
+import org.joelson.turf.util.JacksonUtil;
+import org.joelson.turf.util.TimeUtil;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * An append-only log of takeover JSON objects in time order, with a sparse time index to find where a time range
+ * starts. The log is read through memory mapped windows.
+ * <p>
+ * Every record of the log file consists of the epoch second of the takeover, the zone id, the length of the JSON and
+ * the JSON itself. Takeovers older than the last appended takeover, or of a zone already appended for the same second,
+ * are skipped as they are already in the log. The index file, named as the log file with suffix ".idx", holds the time
+ * and offset of a record about every {@link #INDEX_INTERVAL} bytes.
+ */
+public class TakeoverLog implements Closeable {
+
+    private static final int RECORD_HEADER_SIZE = Long.BYTES + Integer.BYTES + Integer.BYTES;
+    private static final int INDEX_ENTRY_SIZE = Long.BYTES + Long.BYTES;
+    private static final long INDEX_INTERVAL = 1 << 16;
+    private static final long MAP_WINDOW_SIZE = 1 << 26;
+
+    private final FileChannel logChannel;
+    private final FileChannel indexChannel;
+    private long[] indexTimes = new long[1024];
+    private long[] indexOffsets = new long[1024];
+    private int indexSize = 0;
+    private long logSize;
+    private long lastTime = Long.MIN_VALUE;
+    private final Set<Integer> lastTimeZoneIds = new HashSet<>();
+
+    public TakeoverLog(Path logPath) throws IOException {
+        Objects.requireNonNull(logPath);
+        Path indexPath = logPath.resolveSibling(logPath.getFileName() + ".idx");
+        logChannel = FileChannel.open(logPath, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        indexChannel = FileChannel.open(indexPath, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        logSize = logChannel.size();
+        readIndex();
+        recoverTail();
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length >= 3 && args[1].equals("build")) {
+            try (TakeoverLog takeoverLog = new TakeoverLog(Path.of(args[0]))) {
+                for (int i = 2; i < args.length; i += 1) {
+                    System.out.printf("Appending %s%n", args[i]);
+                    takeoverLog.appendFeedPath(Path.of(args[i]));
+                }
+                System.out.printf("Log size %d bytes, %d index entries%n", takeoverLog.logSize,
+                        takeoverLog.indexSize);
+            }
+        } else if (args.length == 4 && args[1].equals("query")) {
+            try (TakeoverLog takeoverLog = new TakeoverLog(Path.of(args[0]))) {
+                takeoverLog.forEachTakeover(TimeUtil.turfAPITimestampToInstant(args[2]),
+                        TimeUtil.turfAPITimestampToInstant(args[3]),
+                        org.joelson.turf.turfgame.apiv5.FeedTakeover.class, System.out::println);
+            }
+        } else {
+            System.out.printf("""
+                            Usage:
+                            \t%1$s takeover_log build feeds_v5_path ...
+                            \t%1$s takeover_log query 2024-06-15T19:00:00+0000 2024-06-15T20:00:00+0000%n""",
+                    TakeoverLog.class.getName());
+            System.exit(-1);
+        }
+    }
+
+    private void readIndex() throws IOException {
+        long entries = indexChannel.size() / INDEX_ENTRY_SIZE;
+        ByteBuffer buffer = ByteBuffer.allocate(INDEX_ENTRY_SIZE);
+        for (long i = 0; i < entries; i += 1) {
+            buffer.clear();
+            readFully(indexChannel, buffer, i * INDEX_ENTRY_SIZE);
+            long time = buffer.getLong(0);
+            long offset = buffer.getLong(Long.BYTES);
+            if (offset >= logSize) {
+                break;
+            }
+            addIndexEntry(time, offset);
+        }
+        indexChannel.truncate((long) indexSize * INDEX_ENTRY_SIZE);
+    }
+
+    private void recoverTail() throws IOException {
+        long offset = (indexSize > 0) ? indexOffsets[indexSize - 1] : 0;
+        ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_SIZE);
+        while (offset + RECORD_HEADER_SIZE <= logSize) {
+            header.clear();
+            readFully(logChannel, header, offset);
+            long time = header.getLong(0);
+            int zoneId = header.getInt(Long.BYTES);
+            int length = header.getInt(Long.BYTES + Integer.BYTES);
+            if (length < 0 || offset + RECORD_HEADER_SIZE + length > logSize) {
+                break;
+            }
+            indexRecord(time, offset);
+            rememberLast(time, zoneId);
+            offset += RECORD_HEADER_SIZE + length;
+        }
+        if (offset < logSize) {
+            logChannel.truncate(offset);
+            logSize = offset;
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of file");
+            }
+        }
+    }
+
+    private void addIndexEntry(long time, long offset) {
+        if (indexSize == indexTimes.length) {
+            indexTimes = Arrays.copyOf(indexTimes, indexSize * 2);
+            indexOffsets = Arrays.copyOf(indexOffsets, indexSize * 2);
+        }
+        indexTimes[indexSize] = time;
+        indexOffsets[indexSize] = offset;
+        indexSize += 1;
+    }
+
+    private void indexRecord(long time, long offset) throws IOException {
+        if (indexSize > 0 && offset - indexOffsets[indexSize - 1] < INDEX_INTERVAL) {
+            return;
+        }
+        writeIndexEntry(time, offset);
+    }
+
+    private void writeIndexEntry(long time, long offset) throws IOException {
+        ByteBuffer entry = ByteBuffer.allocate(INDEX_ENTRY_SIZE).putLong(time).putLong(offset).flip();
+        while (entry.hasRemaining()) {
+            indexChannel.write(entry, (long) indexSize * INDEX_ENTRY_SIZE + entry.position());
+        }
+        addIndexEntry(time, offset);
+    }
+
+    private void rememberLast(long time, int zoneId) {
+        if (time != lastTime) {
+            lastTime = time;
+            lastTimeZoneIds.clear();
+        }
+        lastTimeZoneIds.add(zoneId);
+    }
+
+    public synchronized long getLastTime() {
+        return lastTime;
+    }
+
+    /**
+     * Appends all takeovers of a feeds directory, zip file or feed file, file by file in name order.
+     *
+     * @return the number of appended takeovers
+     */
+    public synchronized int appendFeedPath(Path path) throws IOException {
+        int[] appended = { 0 };
+        DefaultFeedContentErrorHandler errorHandler = new DefaultFeedContentErrorHandler();
+        FilesUtil.forEachFile(path, true, new FeedsPathComparator(), feedPath -> {
+            String content = null;
+            try {
+                content = FilesUtil.readString(feedPath);
+                appended[0] += appendFeed(content);
+            } catch (IOException e) {
+                errorHandler.handleErrorContent(feedPath, content, e);
+            }
+        });
+        return appended[0];
+    }
+
+    private record Takeover(long time, int zoneId, byte[] json) {
+    }
+
+    /**
+     * Appends the takeovers of a feed as returned by the Turf API, a JSON array in descending time order.
+     *
+     * @return the number of appended takeovers
+     */
+    public synchronized int appendFeed(String content) throws IOException {
+        JsonNode[] nodes = JacksonUtil.readValue(content, JsonNode[].class);
+        List<Takeover> takeovers = new ArrayList<>(nodes.length);
+        for (int i = nodes.length - 1; i >= 0; i -= 1) {
+            JsonNode node = nodes[i];
+            JsonNode typeNode = node.get("type");
+            JsonNode timeNode = node.get("time");
+            if (typeNode != null && timeNode != null && typeNode.asText().equals("takeover")) {
+                takeovers.add(new Takeover(TimeUtil.turfAPITimestampToEpochSecond(timeNode.asText()),
+                        node.path("zone").path("id").asInt(), JacksonUtil.writeValueAsBytes(node)));
+            }
+        }
+
+        // the records, index entries and last takeovers are only committed once the records are written to the log
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        long offset = logSize;
+        List<long[]> indexEntries = new ArrayList<>();
+        long indexedOffset = (indexSize > 0) ? indexOffsets[indexSize - 1] : Long.MIN_VALUE;
+        long appendedTime = lastTime;
+        Set<Integer> appendedTimeZoneIds = new HashSet<>(lastTimeZoneIds);
+        int appended = 0;
+        for (Takeover takeover : takeovers) {
+            if (takeover.time < appendedTime
+                    || (takeover.time == appendedTime && appendedTimeZoneIds.contains(takeover.zoneId))) {
+                continue;
+            }
+            long recordOffset = offset + out.size();
+            if (indexedOffset == Long.MIN_VALUE || recordOffset - indexedOffset >= INDEX_INTERVAL) {
+                indexEntries.add(new long[] { takeover.time, recordOffset });
+                indexedOffset = recordOffset;
+            }
+            out.writeLong(takeover.time);
+            out.writeInt(takeover.zoneId);
+            out.writeInt(takeover.json.length);
+            out.write(takeover.json);
+            if (takeover.time != appendedTime) {
+                appendedTime = takeover.time;
+                appendedTimeZoneIds.clear();
+            }
+            appendedTimeZoneIds.add(takeover.zoneId);
+            appended += 1;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+        try {
+            while (buffer.hasRemaining()) {
+                logChannel.write(buffer, offset + buffer.position());
+            }
+        } catch (IOException e) {
+            // drop the records partly written, so the log does not end with them after a restart
+            try {
+                logChannel.truncate(offset);
+            } catch (IOException te) {
+                e.addSuppressed(te);
+            }
+            throw e;
+        }
+        logSize = offset + buffer.limit();
+        lastTime = appendedTime;
+        lastTimeZoneIds.clear();
+        lastTimeZoneIds.addAll(appendedTimeZoneIds);
+        for (long[] indexEntry : indexEntries) {
+            writeIndexEntry(indexEntry[0], indexEntry[1]);
+        }
+        return appended;
+    }
+
+    private long findStartOffset(long fromEpochSecond) {
+        int low = 0;
+        int high = indexSize - 1;
+        long offset = 0;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (indexTimes[middle] < fromEpochSecond) {
+                offset = indexOffsets[middle];
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return offset;
+    }
+
+    /**
+     * Calls the consumer with the JSON of each takeover between the times, both inclusive. The buffer is only valid
+     * during the call.
+     */
+    public synchronized void forEachTakeoverJson(long fromEpochSecond, long toEpochSecond,
+            Consumer<ByteBuffer> forEachJson) throws IOException {
+        long offset = findStartOffset(fromEpochSecond);
+        long windowStart = 0;
+        MappedByteBuffer window = null;
+        while (offset + RECORD_HEADER_SIZE <= logSize) {
+            if (window == null || offset + RECORD_HEADER_SIZE > windowStart + window.capacity()) {
+                windowStart = offset;
+                window = map(offset, RECORD_HEADER_SIZE);
+            }
+            int position = (int) (offset - windowStart);
+            long time = window.getLong(position);
+            if (time > toEpochSecond) {
+                break;
+            }
+            int length = window.getInt(position + Long.BYTES + Integer.BYTES);
+            if (offset + RECORD_HEADER_SIZE + length > windowStart + window.capacity()) {
+                windowStart = offset;
+                window = map(offset, RECORD_HEADER_SIZE + length);
+                position = 0;
+            }
+            if (time >= fromEpochSecond) {
+                forEachJson.accept(window.slice(position + RECORD_HEADER_SIZE, length).asReadOnlyBuffer());
+            }
+            offset += RECORD_HEADER_SIZE + length;
+        }
+    }
+
+    private MappedByteBuffer map(long offset, int minimumSize) throws IOException {
+        long size = Math.min(Math.max(MAP_WINDOW_SIZE, minimumSize), logSize - offset);
+        return logChannel.map(FileChannel.MapMode.READ_ONLY, offset, size);
+    }
+
+    /**
+     * Calls the consumer with each takeover between the instants, both inclusive, bound to the given class.
+     */
+    public <T extends FeedObject> void forEachTakeover(Instant from, Instant to, Class<T> takeoverClass,
+            Consumer<T> forEachTakeover) throws IOException {
+        try {
+            forEachTakeoverJson(from.getEpochSecond(), to.getEpochSecond(), json -> {
+                byte[] bytes = new byte[json.remaining()];
+                json.get(bytes);
+                try {
+                    forEachTakeover.accept(JacksonUtil.readValue(bytes, 0, bytes.length, takeoverClass));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        try (logChannel; indexChannel) {
+            logChannel.force(false);
+            indexChannel.force(false);
+        }
+    }
+}
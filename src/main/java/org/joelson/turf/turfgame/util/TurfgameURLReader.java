@@ -2,8 +2,10 @@ package org.joelson.turf.turfgame.util;
 
 import org.joelson.turf.util.URLReader;
 
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.HttpURLConnection;
 import java.net.URI;
 import java.net.URISyntaxException;
@@ -11,7 +13,10 @@ import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.net.http.HttpResponse.BodyHandlers;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 import static org.joelson.turf.util.URLReader.Response;
 
@@ -38,6 +43,14 @@ public final class TurfgameURLReader {
         throw new InstantiationException("Should not be instantiated!");
     }
 
+    /**
+     * Reads the decompressed content of a response while it is stored.
+     */
+    @FunctionalInterface
+    public interface ContentScanner {
+        void scan(InputStream content) throws IOException;
+    }
+
     public static Response getTurfgameRequest(String request) throws RequestFailureException, RequestContentException {
         String requestMessage = "GET " + request;
         HttpResponse<InputStream> httpResponse;
@@ -53,6 +66,52 @@ public final class TurfgameURLReader {
         return getTurfgameBody(requestMessage, httpResponse);
     }
 
+    /**
+     * Gets a request and stores a successful JSON response gzip compressed to a file. A gzip encoded response body is
+     * written to the file as is, without being decompressed and compressed again. The content is decompressed only
+     * for the scanner. The scanner may stop reading at any point, the rest of the body is still stored.
+     *
+     * @param request  the request
+     * @param gzipFile file the content of a 200/OK JSON response is stored to
+     * @param scanner  scanner of the stored content
+     * @return null if the content was stored, otherwise the response which was not stored
+     * @throws RequestContentException if the body could not be read or stored or the scanner failed, any content
+     *                                 already written is left in the file
+     */
+    public static Response getTurfgameRequest(String request, Path gzipFile, ContentScanner scanner)
+            throws RequestFailureException, RequestContentException {
+        String requestMessage = "GET " + request;
+        HttpResponse<InputStream> httpResponse;
+        try {
+            HttpRequest httpRequest = HttpRequest.newBuilder()
+                    .headers(TURFGAME_GET_HEADERS)
+                    .uri(new URI(request))
+                    .GET().build();
+            httpResponse = httpClient.send(httpRequest, BodyHandlers.ofInputStream());
+        } catch (URISyntaxException | InterruptedException | IOException e) {
+            throw new RequestFailureException(requestMessage, e);
+        }
+        String contentType = httpResponse.headers().firstValue(CONTENT_TYPE).orElse(null);
+        String contentEncoding = httpResponse.headers().firstValue(CONTENT_ENCODING).orElse(null);
+        if (httpResponse.statusCode() != HttpURLConnection.HTTP_OK
+                || (contentEncoding != null && !CONTENT_ENCODING_GZIP.equals(contentEncoding))
+                || !CONTENT_TYPE_APPLICATION_JSON_CHARSET_UTF_8.equals(contentType)) {
+            return getTurfgameBody(requestMessage, httpResponse);
+        }
+        boolean gzipEncoded = CONTENT_ENCODING_GZIP.equals(contentEncoding);
+        try (InputStream body = httpResponse.body();
+             OutputStream fileOut = Files.newOutputStream(gzipFile);
+             OutputStream out = (gzipEncoded) ? fileOut : new GZIPOutputStream(fileOut, 1 << 13);
+             InputStream teeBody = new TeeInputStream(body, out)) {
+            scanner.scan((gzipEncoded) ? new GZIPInputStream(teeBody, 1 << 13) : teeBody);
+            teeBody.transferTo(OutputStream.nullOutputStream());
+        } catch (IOException e) {
+            throw new RequestContentException(requestMessage, httpResponse.statusCode(), contentType, contentEncoding,
+                    e);
+        }
+        return null;
+    }
+
     public static String getRequestAndPrintStatusCode(String request) throws IOException {
         Response response = getTurfgameRequest(request);
         if (response.statusCode() != HttpURLConnection.HTTP_OK) {
@@ -110,4 +169,53 @@ public final class TurfgameURLReader {
         }
         return new Response(httpResponse.statusCode(), content);
     }
+
+    /**
+     * Writes all bytes read from the input stream to the output stream.
+     */
+    private static final class TeeInputStream extends FilterInputStream {
+
+        private final OutputStream out;
+
+        private TeeInputStream(InputStream in, OutputStream out) {
+            super(in);
+            this.out = out;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = in.read();
+            if (b >= 0) {
+                out.write(b);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = in.read(b, off, len);
+            if (read > 0) {
+                out.write(b, off, read);
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            if (n <= 0) {
+                return 0;
+            }
+            return Math.max(0, read(new byte[(int) Math.min(n, 1 << 13)]));
+        }
+
+        @Override
+        public void close() {
+            // the rest of the input is drained after the scanner is done, the owner closes both streams
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+    }
 }
@@ -0,0 +1,198 @@
+package org.joelson.turf.turfgame.util;
+
+import org.joelson.turf.turfgame.Zone;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A spatial index of zones in a grid of latitude and longitude cells. A query only visits the cells of the bounding
+ * box of the query, and only computes the haversine distance of the zones inside the bounding box.
+ *
+ * @param <Z> zone type
+ */
+public class ZoneIndex<Z extends Zone> {
+
+    public static final double DEFAULT_CELL_DEGREES = 0.02;
+
+    private final double cellDegrees;
+    private final int longitudeCells;
+    private final Map<Long, List<Z>> cells = new HashMap<>();
+    private final int size;
+
+    public ZoneIndex(Collection<Z> zones) {
+        this(zones, DEFAULT_CELL_DEGREES);
+    }
+
+    /**
+     * @param cellDegrees height and width in degrees of the cells
+     */
+    public ZoneIndex(Collection<Z> zones, double cellDegrees) {
+        if (!(cellDegrees > 0 && cellDegrees <= 90)) {
+            throw new IllegalArgumentException("Invalid cell degrees " + cellDegrees);
+        }
+        this.cellDegrees = cellDegrees;
+        longitudeCells = (int) Math.ceil(360 / cellDegrees);
+        for (Z zone : zones) {
+            cells.computeIfAbsent(toKey(latitudeCell(zone.getLatitude()), longitudeCell(zone.getLongitude())),
+                    key -> new ArrayList<>()).add(zone);
+        }
+        size = zones.size();
+    }
+
+    private static long toKey(int latitudeCell, int longitudeCell) {
+        return ((long) latitudeCell << 32) | (longitudeCell & 0xFFFFFFFFL);
+    }
+
+    private int latitudeCell(double latitude) {
+        return (int) Math.floor(latitude / cellDegrees);
+    }
+
+    private int longitudeCell(double longitude) {
+        return Math.floorMod((int) Math.floor((longitude + 180) / cellDegrees), longitudeCells);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the zones inside a bounding box. The box crosses the antimeridian when the minimum longitude is larger
+     * than the maximum longitude.
+     */
+    public List<Z> withinBounds(double minLatitude, double minLongitude, double maxLatitude, double maxLongitude) {
+        List<Z> result = new ArrayList<>();
+        forEachInBounds(minLatitude, minLongitude, maxLatitude, maxLongitude, result::add);
+        return result;
+    }
+
+    private interface ZoneConsumer<Z> {
+        void accept(Z zone);
+    }
+
+    private void forEachInBounds(double minLatitude, double minLongitude, double maxLatitude, double maxLongitude,
+            ZoneConsumer<Z> consumer) {
+        if (minLatitude > maxLatitude) {
+            return;
+        }
+        boolean crossesAntimeridian = minLongitude > maxLongitude;
+        int minLatitudeCell = latitudeCell(minLatitude);
+        int maxLatitudeCell = latitudeCell(maxLatitude);
+        int minLongitudeCell = longitudeCell(minLongitude);
+        int maxLongitudeCell = longitudeCell(maxLongitude);
+        int longitudeCellCount = Math.floorMod(maxLongitudeCell - minLongitudeCell, longitudeCells) + 1;
+        if (!crossesAntimeridian && maxLongitude - minLongitude >= 360) {
+            longitudeCellCount = longitudeCells;
+        }
+        long cellCount = (long) (maxLatitudeCell - minLatitudeCell + 1) * longitudeCellCount;
+        if (cellCount > cells.size()) {
+            for (List<Z> cell : cells.values()) {
+                addInBounds(cell, minLatitude, minLongitude, maxLatitude, maxLongitude, crossesAntimeridian, consumer);
+            }
+            return;
+        }
+        for (int latitudeCell = minLatitudeCell; latitudeCell <= maxLatitudeCell; latitudeCell += 1) {
+            for (int i = 0; i < longitudeCellCount; i += 1) {
+                List<Z> cell = cells.get(toKey(latitudeCell, (minLongitudeCell + i) % longitudeCells));
+                if (cell != null) {
+                    addInBounds(cell, minLatitude, minLongitude, maxLatitude, maxLongitude, crossesAntimeridian,
+                            consumer);
+                }
+            }
+        }
+    }
+
+    private static <Z extends Zone> void addInBounds(List<Z> cell, double minLatitude, double minLongitude,
+            double maxLatitude, double maxLongitude, boolean crossesAntimeridian, ZoneConsumer<Z> consumer) {
+        for (Z zone : cell) {
+            double latitude = zone.getLatitude();
+            double longitude = zone.getLongitude();
+            if (latitude >= minLatitude && latitude <= maxLatitude
+                    && (crossesAntimeridian ? longitude >= minLongitude || longitude <= maxLongitude
+                            : longitude >= minLongitude && longitude <= maxLongitude)) {
+                consumer.accept(zone);
+            }
+        }
+    }
+
+    /**
+     * Returns the zones within a distance, nearest first. Only the zones inside the bounding box of the circle have
+     * their haversine distance computed. The longitude extent of the box is the exact extent of the circle on the
+     * sphere, so no zone within the distance is missed.
+     *
+     * @param meters distance in meters
+     */
+    public List<Z> withinDistance(double latitude, double longitude, double meters) {
+        List<ZoneDistance<Z>> distances = new ArrayList<>();
+        forEachWithinDistance(latitude, longitude, meters, distances);
+        distances.sort(Comparator.comparingDouble(ZoneDistance::distance));
+        return distances.stream().map(ZoneDistance::zone).toList();
+    }
+
+    private record ZoneDistance<Z>(Z zone, double distance) {
+    }
+
+    private void forEachWithinDistance(double latitude, double longitude, double meters,
+            List<ZoneDistance<Z>> distances) {
+        double angle = meters / ZoneUtil.R;
+        if (angle >= Math.PI) {
+            forEachInBounds(-90, -180, 90, 180, zone -> distances.add(
+                    new ZoneDistance<>(zone, ZoneUtil.calcDistance(latitude, longitude, zone))));
+            return;
+        }
+        // a small margin keeps zones on the circle, where rounding may differ between the box and the distance
+        angle = angle * (1 + 1e-9) + 1e-12;
+        double angleDegrees = Math.toDegrees(angle);
+        double minLatitude = latitude - angleDegrees;
+        double maxLatitude = latitude + angleDegrees;
+        double minLongitude = -180;
+        double maxLongitude = 180;
+        if (minLatitude > -90 && maxLatitude < 90) {
+            // the longitude extent of a circle on a sphere, the circle does not contain a pole
+            double deltaLongitude = Math.toDegrees(Math.asin(Math.min(1,
+                    Math.sin(angle) / Math.cos(Math.toRadians(latitude)))));
+            minLongitude = normalizeLongitude(longitude - deltaLongitude);
+            maxLongitude = normalizeLongitude(longitude + deltaLongitude);
+        }
+        forEachInBounds(Math.max(-90, minLatitude), minLongitude, Math.min(90, maxLatitude), maxLongitude, zone -> {
+            double distance = ZoneUtil.calcDistance(latitude, longitude, zone);
+            if (distance <= meters) {
+                distances.add(new ZoneDistance<>(zone, distance));
+            }
+        });
+    }
+
+    private static double normalizeLongitude(double longitude) {
+        if (longitude < -180) {
+            return longitude + 360;
+        } else if (longitude > 180) {
+            return longitude - 360;
+        }
+        return longitude;
+    }
+
+    /**
+     * Returns the nearest zones, nearest first. The distance searched is doubled until enough zones are found.
+     *
+     * @param count maximum number of zones
+     */
+    public List<Z> nearest(double latitude, double longitude, int count) {
+        if (count <= 0 || size == 0) {
+            return List.of();
+        }
+        double meters = cellDegrees * Math.PI / 180 * ZoneUtil.R;
+        while (true) {
+            List<ZoneDistance<Z>> distances = new ArrayList<>();
+            forEachWithinDistance(latitude, longitude, meters, distances);
+            if (distances.size() >= count || meters >= Math.PI * ZoneUtil.R) {
+                distances.sort(Comparator.comparingDouble(ZoneDistance::distance));
+                return distances.stream().limit(count).map(ZoneDistance::zone).toList();
+            }
+            meters *= 2;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package org.joelson.turf.turfgame.util;
+
+import org.joelson.turf.turfgame.Zone;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * The positions of zones as unit vectors in primitive arrays, for computing many distances at once. The distance
+ * between two positions is the great-circle distance computed from the chord between their unit vectors, which is
+ * the same distance as {@link ZoneUtil#calcDistance} computes with the haversine formula but needs no trigonometry
+ * except one arcsine per distance.
+ * <p>
+ * The chords of a row are computed in a loop of plain array arithmetic before the arcsines, which lets the JIT
+ * compiler unroll and vectorize it.
+ *
+ * @param <Z> zone type
+ */
+public class ZonePositions<Z extends Zone> {
+
+    private final List<Z> zones;
+    private final double[] x;
+    private final double[] y;
+    private final double[] z;
+
+    public ZonePositions(Collection<Z> zones) {
+        this.zones = List.copyOf(zones);
+        int size = this.zones.size();
+        x = new double[size];
+        y = new double[size];
+        z = new double[size];
+        for (int i = 0; i < size; i += 1) {
+            Z zone = this.zones.get(i);
+            double latitude = Math.toRadians(zone.getLatitude());
+            double longitude = Math.toRadians(zone.getLongitude());
+            double cosLatitude = Math.cos(latitude);
+            x[i] = cosLatitude * Math.cos(longitude);
+            y[i] = cosLatitude * Math.sin(longitude);
+            z[i] = Math.sin(latitude);
+        }
+    }
+
+    public int size() {
+        return zones.size();
+    }
+
+    public List<Z> getZones() {
+        return zones;
+    }
+
+    private static double toDistance(double chordSquared) {
+        return 2 * ZoneUtil.R * Math.asin(Math.min(1, Math.sqrt(chordSquared) / 2));
+    }
+
+    /**
+     * @return distance in meters between the zones at two indexes
+     */
+    public double distance(int index1, int index2) {
+        double dx = x[index1] - x[index2];
+        double dy = y[index1] - y[index2];
+        double dz = z[index1] - z[index2];
+        return toDistance(dx * dx + dy * dy + dz * dz);
+    }
+
+    private void distances(double fromX, double fromY, double fromZ, double[] result, int offset, int from, int to) {
+        for (int i = from; i < to; i += 1) {
+            double dx = fromX - x[i];
+            double dy = fromY - y[i];
+            double dz = fromZ - z[i];
+            result[offset + i - from] = dx * dx + dy * dy + dz * dz;
+        }
+        for (int i = offset; i < offset + to - from; i += 1) {
+            result[i] = toDistance(result[i]);
+        }
+    }
+
+    /**
+     * @return distances in meters from a position to every zone, in zone order
+     */
+    public double[] distancesFrom(double latitude, double longitude) {
+        double phi = Math.toRadians(latitude);
+        double lambda = Math.toRadians(longitude);
+        double[] result = new double[size()];
+        distances(Math.cos(phi) * Math.cos(lambda), Math.cos(phi) * Math.sin(lambda), Math.sin(phi), result, 0, 0,
+                size());
+        return result;
+    }
+
+    /**
+     * @return distances in meters from the zone at an index to every zone, in zone order
+     */
+    public double[] distancesFrom(int index) {
+        double[] result = new double[size()];
+        distances(x[index], y[index], z[index], result, 0, 0, size());
+        return result;
+    }
+
+    /**
+     * Returns the distances between all zones. Only the upper triangle is computed and mirrored to the lower.
+     *
+     * @return symmetric matrix of distances in meters, indexed by zone order
+     */
+    public double[][] distanceMatrix() {
+        int size = size();
+        double[][] matrix = new double[size][size];
+        for (int i = 0; i < size; i += 1) {
+            distances(x[i], y[i], z[i], matrix[i], i + 1, i + 1, size);
+            for (int j = i + 1; j < size; j += 1) {
+                matrix[j][i] = matrix[i][j];
+            }
+        }
+        return matrix;
+    }
+
+    /**
+     * @return matrix of distances in meters from every zone of these positions to every zone of the other positions
+     */
+    public double[][] distanceMatrix(ZonePositions<?> other) {
+        double[][] matrix = new double[size()][];
+        for (int i = 0; i < size(); i += 1) {
+            matrix[i] = new double[other.size()];
+            other.distances(x[i], y[i], z[i], matrix[i], 0, 0, other.size());
+        }
+        return matrix;
+    }
+}
@@ -8,7 +8,7 @@ import java.util.Map;
 
 public class ZoneUtil {
 
-    private static final double R = 6371.0e3; // radius of Earth in meters
+    static final double R = 6371.0e3; // radius of Earth in meters
 
     private ZoneUtil() throws InstantiationException {
         throw new InstantiationException("Should not be instantiated!");
@@ -56,6 +56,20 @@ public class ZoneUtil {
         return zonesMap;
     }
 
+    /**
+     * @return a spatial index of the zones, for distance, nearest and bounding box queries
+     */
+    public static <Z extends Zone> ZoneIndex<Z> toSpatialIndex(Collection<Z> zones) {
+        return new ZoneIndex<>(zones);
+    }
+
+    /**
+     * @return the positions of the zones, for computing one-to-many and many-to-many distances
+     */
+    public static <Z extends Zone> ZonePositions<Z> toPositions(Collection<Z> zones) {
+        return new ZonePositions<>(zones);
+    }
+
     public static <Z extends Zone> Map<Integer, Z> toIdMap(Collection<Z> zones) {
         Map<Integer, Z> zonesMap = new HashMap<>(zones.size());
         for (Z zone : zones) {
@@ -0,0 +1,76 @@
+package org.joelson.turf.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes characters UTF-8 encoded to a file through a large direct byte buffer, which is written to the file channel
+ * when full.
+ */
+public class ByteBufferWriter implements Closeable {
+
+    public static final int DEFAULT_BUFFER_SIZE = 1 << 20;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+
+    public ByteBufferWriter(Path path) throws IOException {
+        this(path, DEFAULT_BUFFER_SIZE);
+    }
+
+    public ByteBufferWriter(Path path, int bufferSize) throws IOException {
+        this(path, bufferSize, false);
+    }
+
+    /**
+     * @param append if the characters should be written after the current content of the file instead of replacing it
+     */
+    public ByteBufferWriter(Path path, int bufferSize, boolean append) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                (append) ? StandardOpenOption.APPEND : StandardOpenOption.TRUNCATE_EXISTING);
+        buffer = ByteBuffer.allocateDirect(bufferSize);
+    }
+
+    /**
+     * Writes the characters, which should not end with half a surrogate pair.
+     */
+    public void write(CharSequence chars) throws IOException {
+        CharBuffer in = CharBuffer.wrap(chars);
+        while (true) {
+            CoderResult result = encoder.encode(in, buffer, true);
+            if (result.isOverflow()) {
+                flushBuffer();
+            } else if (result.isError()) {
+                encoder.reset();
+                result.throwException();
+            } else {
+                break;
+            }
+        }
+        encoder.reset();
+    }
+
+    private void flushBuffer() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try (channel) {
+            flushBuffer();
+        }
+    }
+}
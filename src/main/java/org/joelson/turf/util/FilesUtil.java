@@ -4,6 +4,8 @@ import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.FileSystem;
 import java.nio.file.FileSystems;
 import java.nio.file.Files;
@@ -14,10 +16,12 @@ import java.nio.file.StandardOpenOption;
 import java.util.Comparator;
 import java.util.function.Consumer;
 import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
 
 public final class FilesUtil {
 
     private static final String DEFAULT_OUTPUT_DIRECTORY = "output";
+    public static final String GZIP_SUFFIX = ".gz";
     private static final OpenOption[] DEFAULT_OPEN_OPTIONS =
             { StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING };
 
@@ -62,6 +66,40 @@ public final class FilesUtil {
         }
     }
 
+    public static boolean isGzipFile(Path path) {
+        Path fileName = path.getFileName();
+        return fileName != null && fileName.toString().endsWith(GZIP_SUFFIX);
+    }
+
+    /**
+     * Opens a file for reading, decompressing the content of gzip files (ending with {@value #GZIP_SUFFIX}).
+     */
+    public static InputStream newInputStream(Path path) throws IOException {
+        InputStream in = Files.newInputStream(path);
+        if (!isGzipFile(path)) {
+            return in;
+        }
+        try {
+            return new GZIPInputStream(in, 1 << 13);
+        } catch (IOException e) {
+            in.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Reads all content of a UTF-8 encoded file, decompressing the content of gzip files (ending with
+     * {@value #GZIP_SUFFIX}).
+     */
+    public static String readString(Path path) throws IOException {
+        if (!isGzipFile(path)) {
+            return Files.readString(path);
+        }
+        try (InputStream in = newInputStream(path)) {
+            return StandardCharsets.UTF_8.newDecoder().decode(ByteBuffer.wrap(in.readAllBytes())).toString();
+        }
+    }
+
     public static void forEachFile(
             Path path, boolean readZipFiles, Comparator<Path> pathComparator, Consumer<Path> pathConsumer)
             throws IOException {
@@ -0,0 +1,91 @@
+package org.joelson.turf.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * A bounded pool of canonical values, one per key. A value is only shared while it was created from equal content,
+ * when the content of a key changes the new value replaces the pooled one. The least recently used keys are evicted
+ * when the pool is full.
+ *
+ * @param <K> key type
+ * @param <V> value type
+ */
+public class InterningPool<K, V> {
+
+    private record Entry<V>(Object content, V value) {
+    }
+
+    private final Map<K, Entry<V>> entries;
+    private long hits;
+    private long misses;
+
+    /**
+     * @param maxSize maximum number of pooled values
+     */
+    public InterningPool(int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Invalid max size " + maxSize);
+        }
+        entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * Returns the pooled value of a key if it was created from equal content, otherwise creates and pools a new value.
+     * The value is created without holding the lock of the pool, as creating it may intern values in other pools.
+     *
+     * @param key     the key, typically an id
+     * @param content the content the value is created from, compared with equals
+     * @param factory creates the value from the content
+     * @return the canonical value
+     */
+    public V intern(K key, Object content, Supplier<? extends V> factory) {
+        Objects.requireNonNull(key);
+        Objects.requireNonNull(content);
+        synchronized (this) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null && entry.content.equals(content)) {
+                hits += 1;
+                return entry.value;
+            }
+            misses += 1;
+        }
+        V value = Objects.requireNonNull(factory.get());
+        synchronized (this) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null && entry.content.equals(content)) {
+                return entry.value;
+            }
+            entries.put(key, new Entry<>(content, value));
+        }
+        return value;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("InterningPool[size=%d, hits=%d, misses=%d]", entries.size(), hits, misses);
+    }
+}
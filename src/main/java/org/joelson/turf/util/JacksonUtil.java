@@ -1,9 +1,15 @@
 package org.joelson.turf.util;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.TreeNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
 public final class JacksonUtil {
 
     private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
@@ -16,6 +22,26 @@ public final class JacksonUtil {
         return OBJECT_MAPPER.readValue(content, valueType);
     }
 
+    public static <T> T readValue(byte[] content, int offset, int length, Class<T> valueType) throws IOException {
+        return OBJECT_MAPPER.readValue(content, offset, length, valueType);
+    }
+
+    public static byte[] writeValueAsBytes(Object value) throws JsonProcessingException {
+        return OBJECT_MAPPER.writeValueAsBytes(value);
+    }
+
+    public static <T> T readValue(JsonParser parser, Class<T> valueType) throws IOException {
+        return OBJECT_MAPPER.readValue(parser, valueType);
+    }
+
+    public static JsonParser createParser(InputStream in) throws IOException {
+        return OBJECT_MAPPER.createParser(in);
+    }
+
+    public static JsonGenerator createGenerator(OutputStream out) throws IOException {
+        return OBJECT_MAPPER.createGenerator(out);
+    }
+
     public static <T> T treeToValue(TreeNode n, Class<T> valueType) throws JsonProcessingException {
         return OBJECT_MAPPER.treeToValue(n, valueType);
     }
@@ -0,0 +1,149 @@
+package org.joelson.turf.util;
+
+import java.util.function.LongConsumer;
+import java.util.function.LongPredicate;
+
+/**
+ * A set of primitive longs, stored with open addressing and linear probing in an array of longs, without boxing the
+ * elements.
+ */
+public class LongHashSet {
+
+    private static final long FREE = 0;
+    private static final int MIN_CAPACITY = 16;
+
+    private long[] elements;
+    private boolean containsFree;
+    private int size;
+    private int resizeSize;
+
+    public LongHashSet() {
+        this(MIN_CAPACITY);
+    }
+
+    /**
+     * @param expectedSize number of elements the set holds without resizing
+     */
+    public LongHashSet(int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Invalid expected size " + expectedSize);
+        }
+        allocate(capacityOf(expectedSize));
+    }
+
+    private static int capacityOf(int size) {
+        long capacity = Long.highestOneBit(Math.max(MIN_CAPACITY, (long) size * 2 - 1) * 2);
+        if (capacity > 1 << 30) {
+            throw new IllegalStateException("Too many elements " + size);
+        }
+        return (int) capacity;
+    }
+
+    private void allocate(int capacity) {
+        elements = new long[capacity];
+        resizeSize = capacity / 2;
+    }
+
+    private static int hash(long element) {
+        long h = element * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private int indexOf(long element) {
+        int mask = elements.length - 1;
+        int index = hash(element) & mask;
+        while (elements[index] != FREE && elements[index] != element) {
+            index = (index + 1) & mask;
+        }
+        return index;
+    }
+
+    /**
+     * @return true if the element was not already in the set
+     */
+    public boolean add(long element) {
+        if (element == FREE) {
+            if (containsFree) {
+                return false;
+            }
+            containsFree = true;
+            size += 1;
+            return true;
+        }
+        int index = indexOf(element);
+        if (elements[index] == element) {
+            return false;
+        }
+        elements[index] = element;
+        size += 1;
+        if (size > resizeSize) {
+            rehash(capacityOf(size), e -> false);
+        }
+        return true;
+    }
+
+    public boolean contains(long element) {
+        if (element == FREE) {
+            return containsFree;
+        }
+        return elements[indexOf(element)] == element;
+    }
+
+    /**
+     * Removes the elements matching a filter. The set is rehashed, so this is intended for removing many elements at
+     * once.
+     *
+     * @return number of removed elements
+     */
+    public int removeIf(LongPredicate filter) {
+        int oldSize = size;
+        if (containsFree && filter.test(FREE)) {
+            containsFree = false;
+            size -= 1;
+        }
+        rehash(elements.length, filter);
+        if (size < resizeSize / 4 && elements.length > MIN_CAPACITY) {
+            rehash(capacityOf(size), e -> false);
+        }
+        return oldSize - size;
+    }
+
+    private void rehash(int capacity, LongPredicate filter) {
+        long[] oldElements = elements;
+        allocate(capacity);
+        for (long element : oldElements) {
+            if (element != FREE) {
+                if (filter.test(element)) {
+                    size -= 1;
+                } else {
+                    elements[indexOf(element)] = element;
+                }
+            }
+        }
+    }
+
+    public void forEach(LongConsumer action) {
+        if (containsFree) {
+            action.accept(FREE);
+        }
+        for (long element : elements) {
+            if (element != FREE) {
+                action.accept(element);
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        allocate(MIN_CAPACITY);
+        containsFree = false;
+        size = 0;
+    }
+}
@@ -1,6 +1,7 @@
 package org.joelson.turf.util;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
@@ -36,11 +37,145 @@ public final class TimeUtil {
     }
 
     public static Instant turfAPITimestampToInstant(String timestamp) {
+        return Instant.ofEpochSecond(turfAPITimestampToEpochSecond(timestamp));
+    }
+
+    /**
+     * Converts a Turf API timestamp to epoch seconds. Timestamps on the fixed format are parsed without allocation,
+     * others are parsed as by {@link #turfAPITimestampToInstant(String)}.
+     *
+     * @param timestamp on format "2016-02-10T20:47:08+0000", "+0000" can be omitted
+     * @return seconds since the epoch
+     */
+    public static long turfAPITimestampToEpochSecond(CharSequence timestamp) {
+        if (timestamp.length() >= TIMESTAMP_END_INDEX
+                && timestamp.charAt(4) == '-' && timestamp.charAt(7) == '-' && timestamp.charAt(10) == 'T'
+                && timestamp.charAt(13) == ':' && timestamp.charAt(16) == ':') {
+            int year = getDigits(timestamp, 0, 4);
+            int month = getDigits(timestamp, 5, 2);
+            int day = getDigits(timestamp, 8, 2);
+            int hour = getDigits(timestamp, 11, 2);
+            int minute = getDigits(timestamp, 14, 2);
+            int second = getDigits(timestamp, 17, 2);
+            if (isValid(year, month, day, hour, minute, second)) {
+                return toEpochSecond(year, month, day, hour, minute, second);
+            }
+        }
+        return parseTurfAPITimestamp(timestamp.toString());
+    }
+
+    /**
+     * Converts a Turf API timestamp in ASCII bytes, such as in a JSON document, to epoch seconds.
+     *
+     * @param bytes  bytes containing a timestamp on format "2016-02-10T20:47:08+0000", "+0000" can be omitted
+     * @param offset offset of the timestamp
+     * @param length length of the timestamp
+     * @return seconds since the epoch
+     */
+    public static long turfAPITimestampToEpochSecond(byte[] bytes, int offset, int length) {
+        if (length >= TIMESTAMP_END_INDEX
+                && bytes[offset + 4] == '-' && bytes[offset + 7] == '-' && bytes[offset + 10] == 'T'
+                && bytes[offset + 13] == ':' && bytes[offset + 16] == ':') {
+            int year = getDigits(bytes, offset, 4);
+            int month = getDigits(bytes, offset + 5, 2);
+            int day = getDigits(bytes, offset + 8, 2);
+            int hour = getDigits(bytes, offset + 11, 2);
+            int minute = getDigits(bytes, offset + 14, 2);
+            int second = getDigits(bytes, offset + 17, 2);
+            if (isValid(year, month, day, hour, minute, second)) {
+                return toEpochSecond(year, month, day, hour, minute, second);
+            }
+        }
+        return parseTurfAPITimestamp(new String(bytes, offset, length, StandardCharsets.ISO_8859_1));
+    }
+
+    private static long parseTurfAPITimestamp(String timestamp) {
         TemporalAccessor temporalAccessor
                 = DateTimeFormatter.ISO_DATE_TIME.parse(timestamp.substring(0, TIMESTAMP_END_INDEX));
         LocalDateTime localDateTime = LocalDateTime.from(temporalAccessor);
-        ZonedDateTime zonedDateTime = ZonedDateTime.of(localDateTime, ZoneOffset.UTC);
-        return Instant.from(zonedDateTime);
+        return localDateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    /**
+     * @return the value of the decimal digits, or -1 if any character is not a digit
+     */
+    private static int getDigits(CharSequence chars, int offset, int length) {
+        int value = 0;
+        for (int i = offset; i < offset + length; i += 1) {
+            int digit = chars.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    /**
+     * @return the value of the decimal digits, or -1 if any byte is not a digit
+     */
+    private static int getDigits(byte[] bytes, int offset, int length) {
+        int value = 0;
+        for (int i = offset; i < offset + length; i += 1) {
+            int digit = bytes[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private static boolean isValid(int year, int month, int day, int hour, int minute, int second) {
+        return year >= 1 && month >= 1 && month <= 12 && day >= 1 && day <= lengthOfMonth(year, month)
+                && hour >= 0 && hour <= 23 && minute >= 0 && minute <= 59 && second >= 0 && second <= 59;
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        return switch (month) {
+            case 2 -> (year % 4 == 0 && (year % 100 != 0 || year % 400 == 0)) ? 29 : 28;
+            case 4, 6, 9, 11 -> 30;
+            default -> 31;
+        };
+    }
+
+    /**
+     * Computes the epoch second of a UTC date and time, with the days from civil algorithm of the proleptic
+     * Gregorian calendar, where March is the first month of the year.
+     */
+    private static long toEpochSecond(int year, int month, int day, int hour, int minute, int second) {
+        int marchYear = (month <= 2) ? year - 1 : year;
+        int era = marchYear / 400;
+        int yearOfEra = marchYear - era * 400;
+        int dayOfYear = (153 * (month + ((month > 2) ? -3 : 9)) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        long epochDay = era * 146097L + dayOfEra - 719468;
+        return epochDay * 86400 + hour * 3600 + minute * 60 + second;
+    }
+
+    /**
+     * Converts epoch seconds to a Turf API timestamp.
+     *
+     * @param epochSecond seconds since the epoch
+     * @return timestamp on format "2016-02-10T20:47:08+0000"
+     */
+    public static String epochSecondToTurfAPITimestamp(long epochSecond) {
+        LocalDateTime dateTime = LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC);
+        char[] chars = "0000-00-00T00:00:00+0000".toCharArray();
+        putDigits(chars, 0, 4, dateTime.getYear());
+        putDigits(chars, 5, 2, dateTime.getMonthValue());
+        putDigits(chars, 8, 2, dateTime.getDayOfMonth());
+        putDigits(chars, 11, 2, dateTime.getHour());
+        putDigits(chars, 14, 2, dateTime.getMinute());
+        putDigits(chars, 17, 2, dateTime.getSecond());
+        return new String(chars);
+    }
+
+    private static void putDigits(char[] chars, int offset, int length, int value) {
+        for (int i = offset + length - 1; i >= offset; i -= 1) {
+            chars[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
     }
 
     public static String turfAPITimestampFormatter(Instant instant) {
@@ -0,0 +1,141 @@
+package org.joelson.turf.zundin;
+
+import java.time.Duration;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoField;
+import java.time.temporal.TemporalAccessor;
+
+/**
+ * A cursor over the rows of an HTML page. The values of a row are found one after the other from the position of the
+ * cursor, and are ranges of the row until converted, so numbers are parsed without creating strings and only the
+ * values used as strings are copied out of the row.
+ * <p>
+ * Each row is copied out of the page once, as a page with any character outside Latin-1 is stored by {@link String} as
+ * UTF-16, which is much slower to search than the Latin-1 copies of its rows.
+ */
+final class HTMLScanner {
+
+    private final String html;
+    private String row;
+    private int position;
+    private int valueStart;
+    private int valueEnd;
+
+    /**
+     * Creates a scanner of a page, with the whole page as the row.
+     */
+    HTMLScanner(String html) {
+        this.html = html;
+        setRow(0, html.length());
+    }
+
+    /**
+     * Sets the row to scan, and the position to the start of the row.
+     */
+    void setRow(int start, int end) {
+        row = html.substring(start, end);
+        position = 0;
+        valueStart = 0;
+        valueEnd = 0;
+    }
+
+    /**
+     * @return position in the row
+     */
+    int getPosition() {
+        return position;
+    }
+
+    void setPosition(int position) {
+        this.position = position;
+    }
+
+    /**
+     * @return index in the row of a pattern, or -1 if not in the row
+     */
+    int indexOf(String pattern) {
+        return row.indexOf(pattern);
+    }
+
+    /**
+     * @return true if the row continues with a prefix at the position
+     */
+    boolean startsWith(String prefix) {
+        return row.startsWith(prefix, position);
+    }
+
+    private int endOf(int start, String endPattern) {
+        int end = row.indexOf(endPattern, start);
+        if (end < 0) {
+            throw new IllegalArgumentException("No '" + endPattern + "' in row after " + row.substring(start));
+        }
+        return end;
+    }
+
+    /**
+     * Finds the contents of the tag starting with a pattern after the position, up to the next tag. If the pattern is
+     * not found the contents of the first tag of the row are found. The position is set to the end of the contents.
+     */
+    HTMLScanner cell(String afterPattern) {
+        valueStart = row.indexOf('>', row.indexOf(afterPattern, position)) + 1;
+        valueEnd = endOf(valueStart, "<");
+        position = valueEnd;
+        return this;
+    }
+
+    /**
+     * Finds the text between a pattern after the position and an end pattern. If the pattern is not found the text
+     * starts at the length of the pattern minus one into the row. The position is set to the end of the text.
+     */
+    HTMLScanner value(String afterPattern, String endPattern) {
+        valueStart = row.indexOf(afterPattern, position) + afterPattern.length();
+        valueEnd = endOf(valueStart, endPattern);
+        position = valueEnd;
+        return this;
+    }
+
+    boolean isEmpty() {
+        return valueStart == valueEnd;
+    }
+
+    String stringValue() {
+        return row.substring(valueStart, valueEnd);
+    }
+
+    int integerValue() {
+        int start = valueStart;
+        int end = valueEnd;
+        while (start < end && row.charAt(start) <= ' ') {
+            start += 1;
+        }
+        while (end > start && row.charAt(end - 1) <= ' ') {
+            end -= 1;
+        }
+        return Integer.parseInt(row, start, end, 10);
+    }
+
+    int integerValue(int valueIfEmpty) {
+        for (int i = valueStart; i < valueEnd; i += 1) {
+            if (row.charAt(i) > ' ') {
+                return integerValue();
+            }
+        }
+        return valueIfEmpty;
+    }
+
+    Duration durationValue() {
+        String str = stringValue();
+        int dayIndex = str.indexOf(" days ");
+        int days = 0;
+        if (dayIndex > 0) {
+            days = Integer.parseInt(str, 0, dayIndex, 10);
+            dayIndex += 5;
+        }
+        // assists have no time
+        if (dayIndex + 1 == str.length()) {
+            return Duration.ofSeconds(0);
+        }
+        TemporalAccessor time = DateTimeFormatter.ISO_TIME.parse(str.substring(dayIndex + 1));
+        return Duration.ofSeconds(time.getLong(ChronoField.SECOND_OF_DAY)).plusDays(days);
+    }
+}
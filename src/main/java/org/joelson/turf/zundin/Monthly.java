@@ -93,6 +93,7 @@ public class Monthly {
 
     public static Monthly fromHTML(String userName, int round, String html) {
         List<MonthlyZone> zones = new ArrayList<>();
+        HTMLScanner scanner = new HTMLScanner(html);
         int pos = html.indexOf(TURF_LINK_TAG);
         if (pos == -1) {
             return new Monthly(userName, round, zones);
@@ -102,7 +103,8 @@ public class Monthly {
             if (end == -1) {
                 end = html.length();
             }
-            MonthlyZone zone = MonthlyZone.fromHTML(html.substring(pos, end));
+            scanner.setRow(pos, end);
+            MonthlyZone zone = MonthlyZone.fromHTML(scanner);
             zones.add(zone);
             pos = end;
         }
@@ -2,7 +2,6 @@ package org.joelson.turf.zundin;
 
 import java.time.Duration;
 
-import static org.joelson.turf.zundin.Parser.StringPosition;
 import static org.joelson.turf.zundin.Parser.validNumber;
 import static org.joelson.turf.zundin.Parser.validString;
 
@@ -33,22 +32,22 @@ public class MonthlyZone {
     }
 
     public static MonthlyZone fromHTML(String html) {
-        StringPosition namePosition = Parser.getString(html, Parser.ZONE_NAME_LINK_TAG, new StringPosition("", 0));
-        StringPosition municipalityPosition = Parser.getString(html, Parser.TABLE_CELL_TAG, namePosition);
-        StringPosition tpPosition = Parser.getString(html, Parser.RIGHT_TABLE_CELL_TAG, municipalityPosition);
-        StringPosition pphPosition = Parser.getString(html, Parser.RIGHT_TABLE_CELL_TAG, tpPosition);
-        StringPosition pointsPosition = Parser.getString(html, Parser.RIGHT_TABLE_CELL_TAG, pphPosition);
-        StringPosition averageDurationPosition = Parser.getString(html, Parser.RIGHT_TABLE_CELL_TAG, pointsPosition);
-        StringPosition visitsPosition = Parser.getString(html, Parser.RIGHT_TABLE_CELL_TAG, averageDurationPosition);
-        StringPosition takesPosition = Parser.getString(html, Parser.RIGHT_TABLE_CELL_TAG, visitsPosition);
-        StringPosition revisitsPosition = Parser.getString(html, Parser.RIGHT_TABLE_CELL_TAG, takesPosition);
-        StringPosition assistsPosition = Parser.getString(html, Parser.RIGHT_TABLE_CELL_TAG, revisitsPosition);
-
-
-        return new MonthlyZone(namePosition.stringValue(), tpPosition.integerValue(), pphPosition.integerValue(),
-                municipalityPosition.stringValue(), pointsPosition.integerValue(),
-                averageDurationPosition.durationValue(), takesPosition.integerValue(), revisitsPosition.integerValue(),
-                assistsPosition.integerValue());
+        return fromHTML(new HTMLScanner(html));
+    }
+
+    static MonthlyZone fromHTML(HTMLScanner scanner) {
+        String name = scanner.cell(Parser.ZONE_NAME_LINK_TAG).stringValue();
+        String municipality = scanner.cell(Parser.TABLE_CELL_TAG).stringValue();
+        int tp = scanner.cell(Parser.RIGHT_TABLE_CELL_TAG).integerValue();
+        int pph = scanner.cell(Parser.RIGHT_TABLE_CELL_TAG).integerValue();
+        int points = scanner.cell(Parser.RIGHT_TABLE_CELL_TAG).integerValue();
+        Duration averageDuration = scanner.cell(Parser.RIGHT_TABLE_CELL_TAG).durationValue();
+        scanner.cell(Parser.RIGHT_TABLE_CELL_TAG); // visits
+        int takes = scanner.cell(Parser.RIGHT_TABLE_CELL_TAG).integerValue();
+        int revisits = scanner.cell(Parser.RIGHT_TABLE_CELL_TAG).integerValue();
+        int assists = scanner.cell(Parser.RIGHT_TABLE_CELL_TAG).integerValue();
+
+        return new MonthlyZone(name, tp, pph, municipality, points, averageDuration, takes, revisits, assists);
     }
 
     public String getName() {
@@ -29,11 +29,12 @@ public class Today {
 
     public static Today fromHTML(String userName, String date, String html) {
         List<TodayZone> zones = new ArrayList<>();
+        HTMLScanner scanner = new HTMLScanner(html);
         int pos = html.indexOf(TURF_LINK_TAG);
         if (pos == -1) {
             return new Today(userName, date, zones);
         }
-        pos = html.substring(0, pos).lastIndexOf("<tr>");
+        pos = html.lastIndexOf("<tr>", pos - "<tr>".length());
         if (pos == -1) {
             return new Today(userName, date, zones);
         }
@@ -42,9 +43,9 @@ public class Today {
             if (end == -1) {
                 end = html.length();
             }
-            String row = html.substring(pos, end);
-            if (row.indexOf(TURF_LINK_TAG) > 0) {
-                TodayZone zone = TodayZone.fromHTML(row);
+            scanner.setRow(pos, end);
+            if (scanner.indexOf(TURF_LINK_TAG) > 0) {
+                TodayZone zone = TodayZone.fromHTML(scanner);
                 zones.add(zone);
             }
             pos = html.indexOf("<tr>", end);
@@ -2,7 +2,6 @@ package org.joelson.turf.zundin;
 
 import java.util.Objects;
 
-import static org.joelson.turf.zundin.Parser.StringPosition;
 import static org.joelson.turf.zundin.Parser.validNumber;
 import static org.joelson.turf.zundin.Parser.validString;
 
@@ -37,23 +36,28 @@ public class TodayZone {
     }
 
     public static TodayZone fromHTML(String html) {
-        StringPosition datePosition = Parser.getDateString(html, new StringPosition("", 0));
-        StringPosition eagerTimePosition = Parser.getString(html, Parser.TABLE_CELL_TAG, datePosition);
-        StringPosition namePosition = Parser.getString(html, Parser.ZONE_NAME_LINK_TAG, eagerTimePosition);
-        StringPosition areaPosition = Parser.getString(html, AREA_TABLE_CELL_TAG, namePosition);
-        StringPosition tpPosition = Parser.getString(html, Parser.RIGHT_TABLE_CELL_TAG, areaPosition);
-        StringPosition pphPosition = Parser.getString(html, Parser.LEFT_PADDED_TABLE_CELL_TAG, tpPosition);
-        StringPosition activityPosition = Parser.getString(html, ACTIVITY_TABLE_CELL_TAG, pphPosition);
-        StringPosition userIdPosition = Parser.getString(html, USER_NAME_LINK_TAG, activityPosition);
-        if (userIdPosition.getPosition() < activityPosition.getPosition()) {
+        return fromHTML(new HTMLScanner(html));
+    }
+
+    static TodayZone fromHTML(HTMLScanner scanner) {
+        String date = scanner.value(Parser.DATE_TABLE_CELL_TAG, "'").stringValue();
+        String eagerTime = scanner.cell(Parser.TABLE_CELL_TAG).stringValue();
+        String name = scanner.cell(Parser.ZONE_NAME_LINK_TAG).stringValue();
+        String area = scanner.cell(AREA_TABLE_CELL_TAG).stringValue();
+        int tp = scanner.cell(Parser.RIGHT_TABLE_CELL_TAG).integerValue();
+        int pph = scanner.cell(Parser.LEFT_PADDED_TABLE_CELL_TAG).integerValue(-1);
+        String activity = scanner.cell(ACTIVITY_TABLE_CELL_TAG).stringValue();
+        int activityPosition = scanner.getPosition();
+        scanner.cell(USER_NAME_LINK_TAG);
+        if (scanner.getPosition() < activityPosition) {
             // neutralizer
-            userIdPosition = Parser.getString(html, Parser.TABLE_CELL_TAG, activityPosition);
+            scanner.setPosition(activityPosition);
+            scanner.cell(Parser.TABLE_CELL_TAG);
         }
-        StringPosition takePosition = Parser.getString(html, Parser.TABLE_CELL_TAG, userIdPosition);
+        String userId = scanner.stringValue();
+        int take = scanner.cell(Parser.TABLE_CELL_TAG).integerValue(-1);
 
-        return new TodayZone(datePosition.stringValue(), eagerTimePosition.stringValue(), namePosition.stringValue(),
-                areaPosition.stringValue(), tpPosition.integerValue(), pphPosition.integerValue(-1),
-                activityPosition.stringValue(), userIdPosition.stringValue(), takePosition.integerValue(-1));
+        return new TodayZone(date, eagerTime, name, area, tp, pph, activity, userId, take);
     }
 
     public String getDate() {
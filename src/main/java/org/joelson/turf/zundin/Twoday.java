@@ -30,11 +30,12 @@ public class Twoday {
 
     public static Twoday fromHTML(String userName, String date, String html) {
         List<TwodayZone> zones = new ArrayList<>();
+        HTMLScanner scanner = new HTMLScanner(html);
         int pos = html.indexOf(TURF_LINK_TAG);
         if (pos == -1) {
             return new Twoday(userName, date, zones);
         }
-        pos = html.substring(0, pos).lastIndexOf("<tr>");
+        pos = html.lastIndexOf("<tr>", pos - "<tr>".length());
         if (pos == -1) {
             return new Twoday(userName, date, zones);
         }
@@ -43,9 +44,9 @@ public class Twoday {
             if (end == -1) {
                 end = html.length();
             }
-            String row = html.substring(pos, end);
-            if (row.indexOf(TURF_LINK_TAG) > 0) {
-                TwodayZone zone = TwodayZone.fromHTML(row);
+            scanner.setRow(pos, end);
+            if (scanner.indexOf(TURF_LINK_TAG) > 0) {
+                TwodayZone zone = TwodayZone.fromHTML(scanner);
                 zones.add(zone);
             }
             pos = html.indexOf("<tr>", end);
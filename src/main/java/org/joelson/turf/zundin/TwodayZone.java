@@ -2,7 +2,6 @@ package org.joelson.turf.zundin;
 
 import java.util.Objects;
 
-import static org.joelson.turf.zundin.Parser.StringPosition;
 import static org.joelson.turf.zundin.Parser.validNumber;
 import static org.joelson.turf.zundin.Parser.validString;
 
@@ -46,47 +45,47 @@ public class TwodayZone {
     }
 
     public static TwodayZone fromHTML(String html) {
-        StringPosition datePosition = Parser.getTwodayDateString(html, new StringPosition("", 0));
-        StringPosition eagerTimePosition = Parser.getString(html, Parser.TABLE_CELL_TAG, datePosition);
-        StringPosition namePosition = Parser.getString(html, Parser.ZONE_NAME_LINK_TAG, eagerTimePosition);
-        StringPosition zoneIdPosition = Parser.getString(html, Parser.ZONE_NAME_LINK_TAG, "&", eagerTimePosition);
-        StringPosition areaPosition = Parser.getString(html, AREA_TABLE_CELL_TAG, namePosition);
-        StringPosition tpPosition = Parser.getString(html, Parser.RIGHT_TABLE_CELL_TAG, areaPosition);
-        StringPosition pphPosition = Parser.getString(html, Parser.RIGHT_TABLE_CELL_TAG, tpPosition);
+        return fromHTML(new HTMLScanner(html));
+    }
+
+    static TwodayZone fromHTML(HTMLScanner scanner) {
+        String date = scanner.value(Parser.TWODAY_DATE_TABLE_CELL_TAG, "'").stringValue();
+        String eagerTime = scanner.cell(Parser.TABLE_CELL_TAG).stringValue();
+        int eagerTimePosition = scanner.getPosition();
+        int zoneId = scanner.value(Parser.ZONE_NAME_LINK_TAG, "&").integerValue();
+        scanner.setPosition(eagerTimePosition);
+        scanner.cell(Parser.ZONE_NAME_LINK_TAG); // name
+        String area = scanner.cell(AREA_TABLE_CELL_TAG).stringValue();
+        int tp = scanner.cell(Parser.RIGHT_TABLE_CELL_TAG).integerValue();
+        int pph = scanner.cell(Parser.RIGHT_TABLE_CELL_TAG).integerValue(-1);
         // neutralized
         // durationPosition
-        StringPosition activityPosition = Parser.getString(html, ACTIVITY_TABLE_CELL_TAG, pphPosition);
-        StringPosition pointsPosition = Parser.getString(html, Parser.RIGHT_TABLE_CELL_TAG, activityPosition);
-        StringPosition durationPosition = Parser.getString(html, Parser.RIGHT_TABLE_CELL_TAG, pointsPosition);
-        StringPosition takenFromCellPosition = Parser.getString(html, Parser.RIGHT_TABLE_CELL_TAG, durationPosition);
-        StringPosition takenFromIdPosition;
-        if (html.startsWith(
-                "</td>", takenFromCellPosition.getPosition())) {
-            takenFromIdPosition = Parser.getString(html, Parser.TABLE_CELL_TAG, takenFromCellPosition);
-        } else {
-            takenFromIdPosition = Parser.getString(html, USER_NAME_TWODAY_LINK_TAG, takenFromCellPosition);
-        }
-        StringPosition lostToCellPosition = Parser.getString(html, Parser.RIGHT_TABLE_CELL_TAG, takenFromCellPosition);
-        StringPosition lostToIdPosition;
-        if (html.startsWith("</td>", lostToCellPosition.getPosition())) {
-            lostToIdPosition = Parser.getString(html, Parser.TABLE_CELL_TAG, lostToCellPosition);
-        } else {
-            lostToIdPosition = Parser.getString(html, USER_NAME_TWODAY_LINK_TAG, lostToCellPosition);
-        }
-        StringPosition takePosition = Parser.getString(html, Parser.LEFT_TABLE_CELL_TAG, lostToIdPosition);
+        String activity = scanner.cell(ACTIVITY_TABLE_CELL_TAG).stringValue();
+        int points = scanner.cell(Parser.RIGHT_TABLE_CELL_TAG).integerValue();
+        String duration = scanner.cell(Parser.RIGHT_TABLE_CELL_TAG).stringValue();
+        scanner.cell(Parser.RIGHT_TABLE_CELL_TAG);
+        int takenFromCellPosition = scanner.getPosition();
+        String takenFromUserId = userIdOf(scanner);
+        scanner.setPosition(takenFromCellPosition);
+        scanner.cell(Parser.RIGHT_TABLE_CELL_TAG);
+        String lostToUserId = userIdOf(scanner);
+        int take = scanner.cell(Parser.LEFT_TABLE_CELL_TAG).integerValue(-1);
         boolean neutralized = false;
-        if (activityPosition.stringValue().equals("Takeover") && takenFromIdPosition.stringValue().isEmpty()) {
+        if (activity.equals("Takeover") && takenFromUserId.isEmpty()) {
             neutralized = true;
-        } else if (activityPosition.stringValue().equals("Assist")
-                && pointsPosition.integerValue() == tpPosition.integerValue() + 50) {
+        } else if (activity.equals("Assist") && points == tp + 50) {
             neutralized = true;
         } // date fel, take fel
 
-        return new TwodayZone(datePosition.stringValue(), eagerTimePosition.stringValue(),
-                zoneIdPosition.integerValue(), areaPosition.stringValue(), tpPosition.integerValue(),
-                pphPosition.integerValue(-1), activityPosition.stringValue(), neutralized,
-                pointsPosition.integerValue(), durationPosition.stringValue(), takenFromIdPosition.stringValue(),
-                lostToIdPosition.stringValue(), takePosition.integerValue(-1));
+        return new TwodayZone(date, eagerTime, zoneId, area, tp, pph, activity, neutralized, points, duration,
+                takenFromUserId, lostToUserId, take);
+    }
+
+    private static String userIdOf(HTMLScanner userCell) {
+        if (userCell.startsWith("</td>")) {
+            return userCell.cell(Parser.TABLE_CELL_TAG).stringValue();
+        }
+        return userCell.cell(USER_NAME_TWODAY_LINK_TAG).stringValue();
     }
 
     public String getDate() {
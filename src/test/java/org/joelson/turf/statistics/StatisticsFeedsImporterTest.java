@@ -0,0 +1,158 @@
+package org.joelson.turf.statistics;
+
+import org.joelson.turf.turfgame.util.FeedsReaderTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.ZonedDateTime;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class StatisticsFeedsImporterTest {
+
+    private static Statistics createStatistics() {
+        Statistics statistics = new Statistics();
+        statistics.addRound(new Round(180, "June", ZonedDateTime.parse("2024-06-02T12:00:00Z")));
+        // a made up round starting between the takeovers of the feed files
+        statistics.addRound(new Round(181, "Test", ZonedDateTime.parse("2024-06-15T19:20:00Z")));
+        return statistics;
+    }
+
+    private static String toString(Visits visits) {
+        return String.join(";", visits.getRound().getName(), visits.getZone().getName(), visits.getUser().getName(),
+                String.valueOf(visits.getTP()), String.valueOf(visits.getPPH()), String.valueOf(visits.getTakes()),
+                String.valueOf(visits.getAssists()), String.valueOf(visits.getRevisits()));
+    }
+
+    private static Set<String> toStrings(Statistics statistics) {
+        return statistics.getVisits().stream().map(StatisticsFeedsImporterTest::toString).collect(Collectors.toSet());
+    }
+
+    @Test
+    public void importsFeeds() throws IOException {
+        Statistics statistics = createStatistics();
+        StatisticsFeedsImporter importer = new StatisticsFeedsImporter(statistics);
+        importer.importFeeds(FeedsReaderTest.getFeedsV5Path());
+        assertEquals(6, importer.getImported());
+        assertEquals(1, importer.getSkips());
+        assertEquals(Set.of(
+                "June;Domkyrkan;Turfer;95;4;1;0;0",
+                "June;Gamla Stan;ZonerX;125;7;0;0;1",
+                "June;Slussen;ZonerX;185;9;1;0;0",
+                "Test;Slussen;Oberoff;185;9;1;0;0",
+                "Test;Slussen;Turfer;185;9;0;1;0",
+                "Test;Gamla Stan;Oberoff;125;7;1;0;0",
+                "Test;Domkyrkan;Oberoff;95;4;1;0;0",
+                "Test;Domkyrkan;ZonerX;95;4;0;1;0"), toStrings(statistics));
+
+        assertEquals(Set.of(new Country("se")), statistics.getCountries());
+        assertEquals(2, statistics.getRegions().size());
+        Zone slussen = statistics.getZone("Slussen");
+        assertEquals(1001, slussen.getId());
+        assertEquals("Stockholms stad", slussen.getMunicipality().getName());
+        assertEquals("Stockholm", slussen.getMunicipality().getRegion().getName());
+        assertEquals("Uppsala", statistics.getZone("Domkyrkan").getMunicipality().getName());
+        assertEquals(7, statistics.getUser("Oberoff").getId());
+    }
+
+    @Test
+    public void importsFeedFilesAsTheyArrive() throws IOException {
+        Path feedsPath = FeedsReaderTest.getFeedsV5Path();
+        Statistics expected = createStatistics();
+        new StatisticsFeedsImporter(expected).importFeeds(feedsPath);
+
+        Statistics statistics = createStatistics();
+        StatisticsFeedsImporter importer = new StatisticsFeedsImporter(statistics);
+        importer.importFeeds(feedsPath.resolve("feeds_takeover_2024-06-15_19-20-11.json"));
+        assertEquals(4, importer.getImported());
+        assertEquals(2, statistics.getVisits().stream().filter(visits -> visits.getRound().getId() == 181).count());
+        importer.importFeeds(feedsPath);
+        importer.importFeeds(feedsPath);
+        assertEquals(6, importer.getImported());
+        assertEquals(toStrings(expected), toStrings(statistics));
+    }
+
+    private static Path zipFeeds(Path feedsPath, Path directory) throws IOException {
+        Path zipPath = directory.resolve("feeds_v5.zip");
+        try (ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(zipPath));
+                Stream<Path> paths = Files.list(feedsPath)) {
+            for (Path path : paths.sorted().toList()) {
+                out.putNextEntry(new ZipEntry("feeds_v5/" + path.getFileName()));
+                Files.copy(path, out);
+                out.closeEntry();
+            }
+        }
+        return zipPath;
+    }
+
+    @Test
+    public void importsZipFileOnce(@TempDir Path directory) throws IOException {
+        Path zipPath = zipFeeds(FeedsReaderTest.getFeedsV5Path(), directory);
+        Statistics statistics = createStatistics();
+        // remembering no takeovers, so only the remembered files keep takeovers from being imported again
+        StatisticsFeedsImporter importer = new StatisticsFeedsImporter(statistics, 0);
+        importer.importFeeds(zipPath);
+        Set<String> visits = toStrings(statistics);
+        int imported = importer.getImported();
+        importer.importFeeds(zipPath);
+        assertEquals(imported, importer.getImported());
+        assertEquals(visits, toStrings(statistics));
+    }
+
+    @Test
+    public void importsFailedFileAgain(@TempDir Path directory) throws IOException {
+        Path feedsPath = Files.createDirectory(directory.resolve("feeds_v5"));
+        Path feedPath = feedsPath.resolve("feeds_takeover_2024-06-15_19-20-11.json");
+        Files.writeString(feedPath, "[{\"type\":\"takeover\"");
+        Statistics statistics = createStatistics();
+        StatisticsFeedsImporter importer = new StatisticsFeedsImporter(statistics);
+        importer.importFeeds(feedsPath);
+        assertEquals(0, importer.getImported());
+
+        Files.copy(FeedsReaderTest.getFeedsV5Path().resolve(feedPath.getFileName().toString()), feedPath,
+                StandardCopyOption.REPLACE_EXISTING);
+        importer.importFeeds(feedsPath);
+        assertEquals(4, importer.getImported());
+    }
+
+    @Test
+    public void skipsTakeoversBeforeRounds() throws IOException {
+        Statistics statistics = new Statistics();
+        statistics.addRound(new Round(181, "Test", ZonedDateTime.parse("2024-06-15T19:20:00Z")));
+        StatisticsFeedsImporter importer = new StatisticsFeedsImporter(statistics);
+        importer.importFeeds(FeedsReaderTest.getFeedsV5Path());
+        assertEquals(3, importer.getOutsideRounds());
+        assertEquals(3, importer.getImported());
+        assertEquals(1, importer.getSkips());
+        assertEquals(5, statistics.getVisits().size());
+    }
+
+    @Test
+    public void importsTakeoversAfterRoundsOnceRoundIsAdded() throws IOException {
+        Path feedsPath = FeedsReaderTest.getFeedsV5Path();
+        Statistics expected = createStatistics();
+        new StatisticsFeedsImporter(expected).importFeeds(feedsPath);
+
+        Statistics statistics = new Statistics();
+        statistics.addRound(new Round(179, "May", ZonedDateTime.parse("2024-05-05T12:00:00Z")));
+        StatisticsFeedsImporter importer = new StatisticsFeedsImporter(statistics);
+        importer.importFeeds(feedsPath);
+        assertEquals(0, importer.getImported());
+        assertEquals(7, importer.getOutsideRounds());
+        assertEquals(0, statistics.getVisits().size());
+
+        createStatistics().getRounds().forEach(statistics::addRound);
+        importer.importFeeds(feedsPath);
+        assertEquals(6, importer.getImported());
+        assertEquals(toStrings(expected), toStrings(statistics));
+    }
+}
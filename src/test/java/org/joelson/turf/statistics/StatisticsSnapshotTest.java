@@ -0,0 +1,100 @@
+package org.joelson.turf.statistics;
+
+import org.joelson.turf.util.URLReaderTest;
+import org.joelson.turf.zundin.Monthly;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class StatisticsSnapshotTest {
+
+    private static Statistics createStatistics() throws IOException {
+        Statistics statistics = StatisticsInitializer.initialize();
+        statistics.addUser(new User(4711, "Oberoff"));
+        statistics.addRound(new Round(168, "October", ZonedDateTime.of(2023, 10, 1, 12, 0, 0, 0,
+                ZoneId.of("Europe/Stockholm"))));
+        Monthly monthly = URLReaderTest.readProperties("monthly_0beroff_round168.html",
+                s -> Monthly.fromHTML("Oberoff", 168, s));
+        Monthly.addToStatistics(monthly, statistics);
+        // a zone in a municipality and region not added to the statistics, and a region without country
+        Municipality municipality = new Municipality("Nowhere", new Region(-2, "Nowhere", null));
+        statistics.addZone(new Zone(17, "Nowhere", municipality, 12.5f, -45.25f));
+        statistics.addRegion(new Region(-3, "No Country", null));
+        return statistics;
+    }
+
+    @Test
+    public void readsWrittenSnapshot(@TempDir Path directory) throws IOException {
+        Statistics statistics = createStatistics();
+        Path path = directory.resolve("statistics.snapshot");
+        StatisticsSnapshot.write(statistics, path);
+        Statistics read = StatisticsSnapshot.read(path);
+        assertEquals(statistics.getCountries(), read.getCountries());
+        assertEquals(statistics.getRegions(), read.getRegions());
+        assertEquals(statistics.getMunicipalities(), read.getMunicipalities());
+        assertEquals(statistics.getZones(), read.getZones());
+        assertEquals(statistics.getUsers(), read.getUsers());
+        assertEquals(statistics.getRounds(), read.getRounds());
+        assertEquals(40, read.getVisits().size());
+        assertEquals(statistics.getVisits(), read.getVisits());
+        assertEquals(statistics.toString().length(), read.toString().length());
+
+        Zone zone = read.getZone("Nowhere");
+        assertNull(read.getMunicipality("Nowhere"));
+        assertNull(zone.getMunicipality().getRegion().getCountry());
+        for (Visits visits : read.getVisits()) {
+            assertSame(read.getUser("Oberoff"), visits.getUser());
+            assertSame(read.getRound(168), visits.getRound());
+            assertSame(read.getZone(visits.getZone().getName()), visits.getZone());
+        }
+    }
+
+    @Test
+    public void rejectsOtherFiles(@TempDir Path directory) throws IOException {
+        Path path = directory.resolve("statistics.snapshot");
+        Files.write(path, new byte[] { 'T', 'S', 'T', 'A', 0, 0, 0, 2 });
+        assertThrows(IOException.class, () -> StatisticsSnapshot.read(path));
+        Files.write(path, new byte[] { 'T', 'S', 'T', 'A', 0, 0, 0, 1, 0, 0, 0, 5 });
+        assertThrows(IOException.class, () -> StatisticsSnapshot.read(path));
+        Files.write(path, new byte[] { 'T', 'S', 'T', 'A', 0, 0, 0, 1, 0, 0, 0, 0, -1, -1, -1, -1, 0, 0, 0, 0 });
+        assertThrows(IOException.class, () -> StatisticsSnapshot.read(path));
+        Files.write(path, new byte[] { 'T', 'S', 'T', 'A', 0, 0, 0, 1, 0, 0, 0, 0, 0, 0, 0, 1, 0, 0, 0, 2,
+                0, 0, 0, 1, 'X' });
+        assertThrows(IOException.class, () -> StatisticsSnapshot.read(path));
+        Files.writeString(path, "<html></html>");
+        assertThrows(IOException.class, () -> StatisticsSnapshot.read(path));
+    }
+
+    @Test
+    public void rejectsMissingVisitsReferences(@TempDir Path directory) throws IOException {
+        Statistics statistics = new Statistics();
+        Zone zone = new Zone(17, "Somewhere", new Municipality("Somewhere", new Region(1, "Somewhere", null)), 59.3f,
+                18.1f);
+        User user = new User(4711, "Oberoff");
+        Round round = new Round(168, "October", ZonedDateTime.of(2023, 10, 1, 12, 0, 0, 0, ZoneId.of("UTC")));
+        statistics.addZone(zone);
+        statistics.addUser(user);
+        statistics.addRound(round);
+        statistics.addVisits(new Visits(zone, user, round, 65, 1, 1, 0, 0));
+        Path path = directory.resolve("statistics.snapshot");
+        StatisticsSnapshot.write(statistics, path);
+        assertEquals(1, StatisticsSnapshot.read(path).getVisits().size());
+
+        // the zone index of the last visits, the first of its eight ints
+        byte[] bytes = Files.readAllBytes(path);
+        ByteBuffer.wrap(bytes).putInt(bytes.length - 8 * Integer.BYTES, -1);
+        Files.write(path, bytes);
+        assertThrows(IOException.class, () -> StatisticsSnapshot.read(path));
+    }
+}
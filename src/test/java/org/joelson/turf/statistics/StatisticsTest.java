@@ -3,7 +3,17 @@ package org.joelson.turf.statistics;
 import org.joelson.turf.turfgame.apiv4.RegionsTest;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.time.ZonedDateTime;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class StatisticsTest {
 
@@ -14,4 +24,63 @@ public class StatisticsTest {
         assertEquals(164, statistics.getCountries().size());
         assertEquals(328, statistics.getRegions().size());
     }
+
+    private static Statistics createStatistics() {
+        Statistics statistics = new Statistics();
+        Country country = new Country("Sweden");
+        statistics.addCountry(country);
+        Region region = new Region(141, "Stockholm", country);
+        statistics.addRegion(region);
+        Municipality municipality = new Municipality("Solna", region);
+        statistics.addMunicipality(municipality);
+        statistics.addZone(new Zone(1, "Zone1", municipality, 59.36f, 18.0f));
+        statistics.addZone(new Zone(2, "Zone2", municipality, 59.37f, 18.01f));
+        statistics.addUser(new User(10, "User10"));
+        statistics.addRound(new Round(150, "Round 150", ZonedDateTime.parse("2023-01-01T12:00:00Z")));
+        return statistics;
+    }
+
+    @Test
+    public void testLookups() {
+        Statistics statistics = createStatistics();
+        assertEquals("Solna", statistics.getMunicipality("Solna").getName());
+        assertNull(statistics.getMunicipality("Sundbyberg"));
+        assertEquals(2, statistics.getZone("Zone2").getId());
+        assertNull(statistics.getZone("Zone3"));
+        assertEquals(10, statistics.getUser("User10").getId());
+        assertNull(statistics.getUser("User11"));
+        assertEquals("Round 150", statistics.getRound(150).getName());
+        assertNull(statistics.getRound(151));
+    }
+
+    @Test
+    public void testAddVisits() {
+        Statistics statistics = createStatistics();
+        Zone zone = statistics.getZone("Zone1");
+        User user = statistics.getUser("User10");
+        Round round = statistics.getRound(150);
+        assertTrue(statistics.addVisits(new Visits(zone, user, round, 185, 1, 1, 0, 0)));
+        assertFalse(statistics.addVisits(new Visits(zone, user, round, 370, 1, 2, 0, 0)));
+        assertTrue(statistics.addVisits(new Visits(statistics.getZone("Zone2"), user, round, 185, 1, 1, 0, 0)));
+    }
+
+    @Test
+    public void testLookupsAfterDeserialization() throws Exception {
+        Statistics statistics = createStatistics();
+        Visits visits = new Visits(statistics.getZone("Zone1"), statistics.getUser("User10"),
+                statistics.getRound(150), 185, 1, 1, 0, 0);
+        statistics.addVisits(visits);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(statistics);
+        }
+        Statistics read;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            read = (Statistics) in.readObject();
+        }
+        assertSame(read.getMunicipality("Solna"), read.getZone("Zone1").getMunicipality());
+        assertEquals(10, read.getUser("User10").getId());
+        assertEquals(150, read.getRound(150).getId());
+        assertFalse(read.addVisits(visits));
+    }
 }
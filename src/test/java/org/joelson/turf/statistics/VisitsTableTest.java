@@ -0,0 +1,100 @@
+package org.joelson.turf.statistics;
+
+import org.joelson.turf.statistics.VisitsTable.Grouping;
+import org.joelson.turf.statistics.VisitsTable.Metric;
+import org.junit.jupiter.api.Test;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class VisitsTableTest {
+
+    private static List<Visits> createVisits(int count) {
+        Random random = new Random(17);
+        Country country = new Country("se");
+        List<Region> regions = List.of(new Region(141, "Stockholm", country), new Region(142, "Uppsala", country),
+                new Region(-1, "No Country", null));
+        List<Municipality> municipalities = new ArrayList<>();
+        for (int i = 0; i < 10; i += 1) {
+            municipalities.add(new Municipality("Municipality" + i, regions.get(i % regions.size())));
+        }
+        List<Zone> zones = new ArrayList<>();
+        for (int i = 0; i < 500; i += 1) {
+            zones.add(new Zone((i % 50 == 0) ? -1 : i, "Zone" + i, municipalities.get(random.nextInt(10)), 0, 0));
+        }
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 50; i += 1) {
+            users.add(new User(i, "User" + i));
+        }
+        List<Round> rounds = new ArrayList<>();
+        for (int i = 0; i < 12; i += 1) {
+            rounds.add(new Round(150 + i, "Round" + i, ZonedDateTime.parse("2023-01-01T12:00:00Z").plusMonths(i)));
+        }
+        List<Visits> visits = new ArrayList<>();
+        for (int i = 0; i < count; i += 1) {
+            visits.add(new Visits(zones.get(random.nextInt(zones.size())), users.get(random.nextInt(users.size())),
+                    rounds.get(random.nextInt(rounds.size())), random.nextInt(100_000), random.nextInt(10),
+                    random.nextInt(20), random.nextInt(5), random.nextInt(5)));
+        }
+        return visits;
+    }
+
+    private static ToIntFunction<Visits> valueOf(Metric metric) {
+        return switch (metric) {
+            case TP -> Visits::getTP;
+            case PPH -> Visits::getPPH;
+            case TAKES -> Visits::getTakes;
+            case ASSISTS -> Visits::getAssists;
+            case REVISITS -> Visits::getRevisits;
+        };
+    }
+
+    private static <K> void assertGrouping(List<Visits> visits, VisitsTable table, Grouping<K> grouping,
+            Function<Visits, K> key) {
+        for (boolean parallel : new boolean[] { false, true }) {
+            for (Metric metric : Metric.values()) {
+                Map<K, Long> expected = visits.stream().collect(Collectors.groupingBy(key,
+                        Collectors.summingLong(valueOf(metric)::applyAsInt)));
+                assertEquals(expected, table.sumBy(grouping, metric, parallel));
+            }
+            assertEquals(visits.stream().collect(Collectors.groupingBy(key, Collectors.counting())),
+                    table.countBy(grouping, parallel));
+        }
+    }
+
+    @Test
+    public void aggregatesMatchVisits() {
+        List<Visits> visits = createVisits(3 * VisitsTable.PARALLEL_PART_SIZE + 17);
+        VisitsTable table = new VisitsTable(visits);
+        assertEquals(visits.size(), table.size());
+        for (Metric metric : Metric.values()) {
+            long expected = visits.stream().mapToLong(valueOf(metric)::applyAsInt).sum();
+            assertEquals(expected, table.sum(metric));
+            assertEquals(expected, table.sum(metric, true));
+        }
+        assertGrouping(visits, table, Grouping.ZONE, Visits::getZone);
+        assertGrouping(visits, table, Grouping.USER, Visits::getUser);
+        assertGrouping(visits, table, Grouping.ROUND, Visits::getRound);
+        assertGrouping(visits, table, Grouping.MUNICIPALITY, v -> v.getZone().getMunicipality());
+        assertGrouping(visits, table, Grouping.REGION, v -> v.getZone().getMunicipality().getRegion());
+    }
+
+    @Test
+    public void aggregatesStatisticsVisits() {
+        Statistics statistics = new Statistics();
+        createVisits(100).forEach(statistics::addVisits);
+        VisitsTable table = new VisitsTable(statistics.getVisits());
+        assertEquals(statistics.getVisits().size(), table.size());
+        assertEquals(statistics.getVisits().stream().mapToLong(Visits::getTakes).sum(), table.sum(Metric.TAKES));
+        assertEquals(Map.of(), new VisitsTable(List.of()).sumBy(Grouping.REGION, Metric.TP, true));
+        assertEquals(0, new VisitsTable(List.of()).sum(Metric.TP, true));
+    }
+}
@@ -0,0 +1,56 @@
+package org.joelson.turf.turfgame.apiv5;
+
+import org.joelson.turf.turfgame.FeedObject;
+import org.joelson.turf.turfgame.util.DefaultFeedContentErrorHandler;
+import org.joelson.turf.turfgame.util.FeedsReader;
+import org.joelson.turf.turfgame.util.FeedsReaderTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class FeedsV5CompactorTest {
+
+    private static String visitOf(FeedObject feedObject) {
+        FeedTakeover takeover = (FeedTakeover) feedObject;
+        Zone zone = takeover.getZone();
+        Region region = zone.getRegion();
+        return String.join(";", takeover.getTime(), String.valueOf(zone.getId()), zone.getName(),
+                region.getName(), FeedsV5VisitsCSVExtractor.countryOf(region),
+                FeedsV5VisitsCSVExtractor.areaOf(region), String.valueOf(zone.getTakeoverPoints()),
+                String.valueOf(zone.getPointsPerHour()), String.valueOf(zone.getTotalTakeovers()),
+                String.valueOf(takeover.getCurrentOwner().getName()), String.valueOf(takeover.getPreviousOwner()),
+                String.valueOf(zone.getPreviousOwner()), Arrays.toString(takeover.getAssists()),
+                String.valueOf(takeover.getLatitude()), String.valueOf(takeover.getLongitude()));
+    }
+
+    @Test
+    public void compactAndReplay(@TempDir Path directory) throws IOException {
+        List<String> jsonVisits = new ArrayList<>();
+        Path compactFile = directory.resolve("feeds_v5.takeovers");
+        FeedsReader feedsReader = new FeedsReader(Map.of("takeover", FeedTakeover.class),
+                new DefaultFeedContentErrorHandler(), false, true, true);
+        try (FeedsV5Compactor compactor = new FeedsV5Compactor(compactFile)) {
+            feedsReader.handleFeedObjectPath(FeedsReaderTest.getFeedsV5Path(), path -> true, feedObject -> {
+                jsonVisits.add(visitOf(feedObject));
+                try {
+                    compactor.add((FeedTakeover) feedObject);
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+            });
+        }
+
+        List<String> compactVisits = new ArrayList<>();
+        FeedsV5CompactReader.handleFeedObjectPath(compactFile, feedObject -> compactVisits.add(visitOf(feedObject)));
+        assertEquals(7, jsonVisits.size());
+        assertEquals(jsonVisits, compactVisits);
+    }
+}
@@ -0,0 +1,118 @@
+package org.joelson.turf.turfgame.apiv5;
+
+import org.joelson.turf.turfgame.util.FeedsReaderTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FeedsV5VisitsCSVExtractorTest {
+
+    private static List<List<String>> extractVisits(Path feedsPath, Path[] feedFiles, long windowSeconds)
+            throws IOException {
+        Path saveDirectory = Files.createDirectory(feedsPath.resolve("csv_" + windowSeconds));
+        new FeedsV5VisitsCSVExtractor(saveDirectory, feedFiles, windowSeconds).extractVisits();
+        List<List<String>> visits = new ArrayList<>();
+        for (Path feedFile : feedFiles) {
+            String fileName = feedFile.getFileName().toString();
+            visits.add(Files.readAllLines(saveDirectory.resolve(fileName + ".csv")));
+        }
+        return visits;
+    }
+
+    private static Path[] copyFeedFiles(Path feedsPath) throws IOException {
+        Path fixturesPath = FeedsReaderTest.getFeedsV5Path();
+        Path first = Files.copy(fixturesPath.resolve("feeds_takeover_2024-06-15_19-20-11.json"),
+                feedsPath.resolve("feeds_takeover_2024-06-15_19-20-11.json"));
+        Path second = Files.copy(fixturesPath.resolve("feeds_takeover_2024-06-15_19-27-45.json"),
+                feedsPath.resolve("feeds_takeover_2024-06-15_19-27-45.json"));
+        Path again = Files.copy(second, feedsPath.resolve("feeds_takeover_2024-06-15_19-27-46.json"));
+        return new Path[] { first, second, again };
+    }
+
+    private static List<String> extractVisitsInParallel(Path saveDirectory, Path[] feedFiles,
+            FeedsV5VisitsCSVExtractor.Shard shard) throws IOException {
+        new FeedsV5VisitsCSVExtractor(saveDirectory, feedFiles, 3600, 2, shard).extractVisits();
+        List<String> visits = new ArrayList<>();
+        try (Stream<Path> paths = Files.list(saveDirectory)) {
+            for (Path path : paths.sorted().toList()) {
+                visits.addAll(Files.readAllLines(path));
+            }
+        }
+        return visits;
+    }
+
+    private static void assertRerunReplacesVisits(Path directory, FeedsV5VisitsCSVExtractor.Shard shard)
+            throws IOException {
+        Path feedsPath = Files.createDirectory(directory.resolve("feeds_v5"));
+        Path[] feedFiles = copyFeedFiles(feedsPath);
+        Path saveDirectory = Files.createDirectory(directory.resolve("csv"));
+        List<String> visits = extractVisitsInParallel(saveDirectory, feedFiles, shard);
+        assertTrue(visits.size() > 0);
+        assertEquals(visits, extractVisitsInParallel(saveDirectory, feedFiles, shard));
+        assertEquals(visits, extractVisitsInParallel(saveDirectory, feedFiles, shard));
+    }
+
+    @Test
+    public void rerunReplacesVisits(@TempDir Path directory) throws IOException {
+        assertRerunReplacesVisits(directory, FeedsV5VisitsCSVExtractor.Shard.NONE);
+    }
+
+    @Test
+    public void rerunReplacesMonthShards(@TempDir Path directory) throws IOException {
+        assertRerunReplacesVisits(directory, FeedsV5VisitsCSVExtractor.Shard.MONTH);
+    }
+
+    @Test
+    public void rerunReplacesRegionShards(@TempDir Path directory) throws IOException {
+        assertRerunReplacesVisits(directory, FeedsV5VisitsCSVExtractor.Shard.REGION);
+    }
+
+    @Test
+    public void skipsOverlappingTakeovers(@TempDir Path directory) throws IOException {
+        Path feedsPath = Files.createDirectory(directory.resolve("feeds_v5"));
+        Path[] feedFiles = copyFeedFiles(feedsPath);
+        List<List<String>> visits = extractVisits(feedsPath, feedFiles, -1);
+        assertTrue(visits.get(0).size() > 0);
+        assertTrue(visits.get(1).size() > 0);
+        assertEquals(List.of(), visits.get(2));
+        assertEquals(visits, extractVisits(feedsPath, feedFiles, 3600));
+    }
+
+    @Test
+    public void parallelWritesSameVisits(@TempDir Path directory) throws IOException {
+        Path feedsPath = Files.createDirectory(directory.resolve("feeds_v5"));
+        Path[] feedFiles = copyFeedFiles(feedsPath);
+        List<String> visits = extractVisits(feedsPath, feedFiles, 3600).stream().flatMap(List::stream).toList();
+
+        Path parallelDirectory = Files.createDirectory(feedsPath.resolve("csv_parallel"));
+        new FeedsV5VisitsCSVExtractor(parallelDirectory, feedFiles, 3600, 3,
+                FeedsV5VisitsCSVExtractor.Shard.NONE).extractVisits();
+        List<String> parallelVisits = new ArrayList<>();
+        for (Path feedFile : feedFiles) {
+            parallelVisits.addAll(Files.readAllLines(parallelDirectory.resolve(feedFile.getFileName() + ".csv")));
+        }
+        // the same visits, but the visits of takeovers in an overlap are written for the latter feed file
+        assertEquals(visits.stream().sorted().toList(), parallelVisits.stream().sorted().toList());
+
+        Path shardDirectory = Files.createDirectory(feedsPath.resolve("csv_month"));
+        new FeedsV5VisitsCSVExtractor(shardDirectory, feedFiles, 3600, 1,
+                FeedsV5VisitsCSVExtractor.Shard.MONTH).extractVisits();
+        List<String> shardVisits = new ArrayList<>();
+        for (Path feedFile : feedFiles) {
+            Path shardPath = shardDirectory.resolve(feedFile.getFileName() + "_2024-06.csv");
+            if (Files.exists(shardPath)) {
+                shardVisits.addAll(Files.readAllLines(shardPath));
+            }
+        }
+        assertEquals(visits, shardVisits);
+    }
+}
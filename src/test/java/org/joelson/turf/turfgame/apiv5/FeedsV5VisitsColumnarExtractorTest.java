@@ -0,0 +1,93 @@
+package org.joelson.turf.turfgame.apiv5;
+
+import org.joelson.turf.turfgame.util.DefaultFeedContentErrorHandler;
+import org.joelson.turf.turfgame.util.FeedsReader;
+import org.joelson.turf.turfgame.util.FeedsReaderTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FeedsV5VisitsColumnarExtractorTest {
+
+    private static String orEmpty(String value) {
+        return (value != null) ? value : "";
+    }
+
+    private static List<String> toCSVLines(Path visitsPath) throws IOException {
+        try (FeedsV5VisitsColumnarReader reader = new FeedsV5VisitsColumnarReader(visitsPath)) {
+            long[] times = reader.readLongs("time");
+            String[] countries = reader.readStrings("country");
+            int[] regionIds = reader.readInts("region_id");
+            String[] regions = reader.readStrings("region");
+            int[] areaIds = reader.readInts("area_id");
+            String[] areas = reader.readStrings("area");
+            int[] zoneIds = reader.readInts("zone_id");
+            String[] zones = reader.readStrings("zone");
+            int[] takeoverPoints = reader.readInts("takeover_points");
+            int[] pointsPerHour = reader.readInts("points_per_hour");
+            int[] userIds = reader.readInts("user_id");
+            String[] users = reader.readStrings("user");
+            String[] types = reader.readStrings("type");
+            byte[] neutrals = reader.readBytes("neutral");
+            List<String> lines = new ArrayList<>();
+            for (int i = 0; i < reader.getRowCount(); i += 1) {
+                lines.add(String.join(";", FeedsV5VisitsCSVExtractor.dateAndTimeOf(Instant.ofEpochSecond(times[i])),
+                        orEmpty(countries[i]), String.valueOf(regionIds[i]), regions[i],
+                        (areaIds[i] >= 0) ? String.valueOf(areaIds[i]) : "", orEmpty(areas[i]),
+                        String.valueOf(zoneIds[i]), zones[i], String.valueOf(takeoverPoints[i]),
+                        String.valueOf(pointsPerHour[i]), String.valueOf(userIds[i]), users[i], types[i])
+                        + ((neutrals[i] != 0) ? ";neutral" : ""));
+            }
+            return lines;
+        }
+    }
+
+    @Test
+    public void matchesCSVExtraction(@TempDir Path directory) throws IOException {
+        Path[] feedFiles = { FeedsReaderTest.getFeedsV5Path() };
+        Path csvDirectory = Files.createDirectory(directory.resolve("csv"));
+        new FeedsV5VisitsCSVExtractor(csvDirectory, feedFiles).extractVisits();
+        Path columnarDirectory = Files.createDirectory(directory.resolve("columnar"));
+        new FeedsV5VisitsColumnarExtractor(columnarDirectory, feedFiles, -1).extractVisits();
+
+        List<String> csvLines = Files.readAllLines(csvDirectory.resolve("feeds_v5.csv"));
+        assertTrue(csvLines.size() > 0);
+        assertEquals(csvLines, toCSVLines(columnarDirectory.resolve("feeds_v5.visits")));
+    }
+
+    @Test
+    public void writesSeveralBatches(@TempDir Path directory) throws IOException {
+        List<FeedTakeover> takeovers = new ArrayList<>();
+        new FeedsReader(Map.of("takeover", FeedTakeover.class), new DefaultFeedContentErrorHandler(), false, true)
+                .handleFeedObjectPath(FeedsReaderTest.getFeedsV5Path(), path -> true,
+                        feedObject -> takeovers.add((FeedTakeover) feedObject));
+        Path visitsPath = directory.resolve("feeds_v5.visits");
+        List<Integer> zoneIds = new ArrayList<>();
+        try (FeedsV5VisitsColumnarWriter writer = new FeedsV5VisitsColumnarWriter(visitsPath)) {
+            for (int i = 0; i < 100000; i += 1) {
+                FeedTakeover takeover = takeovers.get(i % takeovers.size());
+                writer.add(takeover);
+                int assists = (takeover.getAssists() != null) ? takeover.getAssists().length : 0;
+                for (int j = 0; j <= assists; j += 1) {
+                    zoneIds.add(takeover.getZone().getId());
+                }
+            }
+        }
+        try (FeedsV5VisitsColumnarReader reader = new FeedsV5VisitsColumnarReader(visitsPath)) {
+            assertEquals(zoneIds.size(), reader.getRowCount());
+            assertEquals(zoneIds, Arrays.stream(reader.readInts("zone_id")).boxed().toList());
+            assertTrue(reader.getDictionary("type").contains("takeover"));
+        }
+    }
+}
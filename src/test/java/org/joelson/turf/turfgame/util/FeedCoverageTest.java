@@ -0,0 +1,69 @@
+package org.joelson.turf.turfgame.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FeedCoverageTest {
+
+    private static FeedCoverage.Interval interval(long from, long to) {
+        return new FeedCoverage.Interval(from, to);
+    }
+
+    private static FeedCoverage coverage(long... bounds) {
+        FeedCoverage coverage = new FeedCoverage();
+        for (int i = 0; i < bounds.length; i += 2) {
+            coverage.add(bounds[i], bounds[i + 1]);
+        }
+        return coverage;
+    }
+
+    @Test
+    public void addJoinsOverlappingIntervals() {
+        FeedCoverage coverage = coverage(30, 40, 10, 20, 50, 60);
+        assertEquals(List.of(interval(10, 20), interval(30, 40), interval(50, 60)), coverage.getIntervals());
+        coverage.add(20, 30);
+        assertEquals(List.of(interval(10, 40), interval(50, 60)), coverage.getIntervals());
+        coverage.add(35, 55);
+        assertEquals(List.of(interval(10, 60)), coverage.getIntervals());
+        coverage.add(5, 70);
+        assertEquals(List.of(interval(5, 70)), coverage.getIntervals());
+    }
+
+    @Test
+    public void keepsAdjacentIntervalsApart() {
+        FeedCoverage coverage = coverage(10, 20, 21, 30);
+        assertEquals(List.of(interval(10, 20), interval(21, 30)), coverage.getIntervals());
+        assertTrue(coverage.covers(15, 25));
+        assertEquals(List.of(interval(5, 9)), coverage.getGaps(5, 30));
+    }
+
+    @Test
+    public void lookups() {
+        FeedCoverage coverage = coverage(10, 20, 30, 40, 50, 60);
+        assertTrue(coverage.covers(12, 18));
+        assertFalse(coverage.covers(18, 32));
+        assertFalse(coverage.covers(5, 10));
+        assertEquals(List.of(interval(10, 20), interval(30, 40)), coverage.getIntervals(15, 30));
+        assertEquals(List.of(), coverage.getIntervals(41, 49));
+        assertEquals(List.of(interval(5, 9), interval(21, 29), interval(41, 45)), coverage.getGaps(5, 45));
+        assertEquals(List.of(), coverage.getGaps(31, 39));
+    }
+
+    @Test
+    public void setOperations() {
+        FeedCoverage coverage = coverage(10, 20, 30, 40);
+        assertEquals(List.of(interval(15, 20), interval(30, 35)),
+                coverage.intersection(coverage(15, 35)).getIntervals());
+        assertEquals(List.of(interval(10, 14), interval(36, 40)),
+                coverage.difference(coverage(15, 35)).getIntervals());
+        assertEquals(List.of(interval(10, 11), interval(19, 20), interval(30, 40)),
+                coverage.difference(coverage(12, 18, 25, 29)).getIntervals());
+        coverage.add(coverage(22, 28));
+        assertEquals(List.of(interval(10, 20), interval(22, 28), interval(30, 40)), coverage.getIntervals());
+    }
+}
@@ -0,0 +1,81 @@
+package org.joelson.turf.turfgame.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.joelson.turf.turfgame.apiv5.FeedTakeover;
+import org.joelson.turf.turfgame.apiv5.Region;
+import org.joelson.turf.turfgame.apiv5.User;
+import org.joelson.turf.util.JacksonUtil;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FeedModelPoolTest {
+
+    private static List<FeedTakeover> readTakeovers(FeedModelPool modelPool, boolean streaming) throws IOException {
+        DefaultFeedContentErrorHandler errorHandler = new DefaultFeedContentErrorHandler();
+        FeedsReader feedsReader = new FeedsReader(Map.of("takeover", FeedTakeover.class), errorHandler, false, true,
+                streaming, modelPool);
+        List<FeedTakeover> takeovers = new ArrayList<>();
+        feedsReader.handleFeedObjectPath(FeedsReaderTest.getFeedsV5Path(), path -> true,
+                feedObject -> takeovers.add((FeedTakeover) feedObject));
+        assertTrue(errorHandler.getErrorPaths().isEmpty());
+        return takeovers;
+    }
+
+    private static JsonNode readTree(String content) throws IOException {
+        return JacksonUtil.readValue(content, JsonNode.class);
+    }
+
+    private static void assertShared(List<FeedTakeover> takeovers) {
+        Map<Integer, User> users = new HashMap<>();
+        Map<Integer, Region> regions = new HashMap<>();
+        for (FeedTakeover takeover : takeovers) {
+            User currentOwner = takeover.getCurrentOwner();
+            assertSame(users.computeIfAbsent(currentOwner.getId(), id -> currentOwner), currentOwner);
+            assertSame(currentOwner, takeover.getZone().getCurrentOwner());
+            Region region = takeover.getZone().getRegion();
+            assertSame(regions.computeIfAbsent(region.getId(), id -> region), region);
+        }
+    }
+
+    @Test
+    public void sharesModelObjects() throws IOException {
+        List<String> expected = readTakeovers(null, true).stream().map(FeedTakeover::toString).toList();
+        for (boolean streaming : new boolean[] { false, true }) {
+            FeedModelPool modelPool = new FeedModelPool(100);
+            List<FeedTakeover> takeovers = readTakeovers(modelPool, streaming);
+            assertEquals(expected, takeovers.stream().map(FeedTakeover::toString).toList());
+            assertShared(takeovers);
+            assertTrue(modelPool.getHits() > 0);
+        }
+    }
+
+    @Test
+    public void sharesOnlyEqualContent() throws IOException {
+        FeedModelPool modelPool = new FeedModelPool(100);
+        String takeover = """
+                {"type":"takeover","time":"%s","latitude":59.3195,"longitude":18.0719,
+                "zone":{"id":1001,"name":"Slussen","latitude":59.3195,"longitude":18.0719,
+                "takeoverPoints":185,"pointsPerHour":9,"totalTakeovers":%d,
+                "currentOwner":{"id":7,"name":"Oberoff"}},
+                "currentOwner":{"id":7,"name":"Oberoff"}}""";
+        FeedTakeover first = modelPool.treeToValue(
+                readTree(String.format(takeover, "2024-06-15T19:20:11+0000", 12)), FeedTakeover.class);
+        FeedTakeover second = modelPool.treeToValue(
+                readTree(String.format(takeover, "2024-06-15T19:30:11+0000", 13)), FeedTakeover.class);
+        FeedTakeover third = modelPool.treeToValue(
+                readTree(String.format(takeover, "2024-06-15T19:40:11+0000", 13)), FeedTakeover.class);
+        assertSame(first.getCurrentOwner(), second.getCurrentOwner());
+        assertNotSame(first.getZone(), second.getZone());
+        assertSame(second.getZone(), third.getZone());
+    }
+}
@@ -0,0 +1,90 @@
+package org.joelson.turf.turfgame.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FeedPollSchedulerTest {
+
+    private static final Instant TIME = Instant.parse("2024-06-15T19:00:00Z");
+
+    private static FeedPollScheduler createScheduler() {
+        return new FeedPollScheduler(Duration.ofMinutes(1), Duration.ofMinutes(5), Duration.ofMinutes(15), 100);
+    }
+
+    @Test
+    public void emptyResponsesLengthenIntervalUpToMax() {
+        FeedPollScheduler pollScheduler = createScheduler();
+        assertEquals(Duration.ofMinutes(10), pollScheduler.update(0, null, null));
+        assertEquals(Duration.ofMinutes(15), pollScheduler.update(0, null, null));
+        assertEquals(Duration.ofMinutes(15), pollScheduler.update(0, null, null));
+        assertEquals(0.0, pollScheduler.getGapRisk());
+    }
+
+    @Test
+    public void fullResponsesShortenIntervalDownToMin() {
+        FeedPollScheduler pollScheduler = createScheduler();
+        // 100 entries in 100 seconds, half a page takes 50 seconds
+        assertEquals(Duration.ofSeconds(150), pollScheduler.update(100, TIME, TIME.plusSeconds(99)));
+        assertEquals(1.0, pollScheduler.getFillRatio());
+        assertEquals(Duration.ofSeconds(75), pollScheduler.update(100, TIME, TIME.plusSeconds(99)));
+        assertEquals(Duration.ofMinutes(1), pollScheduler.update(100, TIME, TIME.plusSeconds(99)));
+        assertEquals(0.6, pollScheduler.getGapRisk(), 0.0001);
+
+        // one entry a second is too fast even at the shortest interval
+        pollScheduler.update(100, TIME, TIME.plusSeconds(99));
+        pollScheduler.update(100, TIME, TIME.plusSeconds(33));
+        assertEquals(Duration.ofMinutes(1), pollScheduler.getInterval());
+        assertTrue(pollScheduler.getGapRisk() >= 1.0);
+    }
+
+    @Test
+    public void intervalSettlesAtHalfFullResponses() {
+        FeedPollScheduler pollScheduler = createScheduler();
+        // an entry every 30 seconds, half a page takes 25 minutes
+        for (int i = 0; i < 3; i += 1) {
+            pollScheduler.update(21, TIME, TIME.plus(Duration.ofMinutes(10)));
+        }
+        assertEquals(Duration.ofMinutes(15), pollScheduler.getInterval());
+        pollScheduler.update(51, TIME, TIME.plus(Duration.ofMinutes(5)));
+        assertEquals(Duration.ofMinutes(7).plusSeconds(30), pollScheduler.getInterval());
+        pollScheduler.update(51, TIME, TIME.plus(Duration.ofMinutes(5)));
+        assertEquals(Duration.ofMinutes(5), pollScheduler.getInterval());
+        assertEquals(0.5, pollScheduler.getGapRisk(), 0.0001);
+    }
+
+    @Test
+    public void fullResponseNotSincePollLengthensInterval() {
+        FeedPollScheduler pollScheduler = createScheduler();
+        assertEquals(Duration.ofMinutes(10), pollScheduler.update(0, null, null));
+        // the latest 100 entries of a quiet feed, an entry every 10 minutes
+        Instant first = TIME.minus(Duration.ofMinutes(990));
+        assertEquals(Duration.ofMinutes(15), pollScheduler.update(100, first, TIME, false));
+        assertEquals(Duration.ofMinutes(15), pollScheduler.update(0, null, null));
+
+        // the same entries since the previous poll are a sign of lost entries
+        pollScheduler = createScheduler();
+        pollScheduler.update(0, null, null);
+        assertEquals(Duration.ofMinutes(5), pollScheduler.update(100, first, TIME, true));
+    }
+
+    @Test
+    public void largerResponseRaisesPageLimit() {
+        FeedPollScheduler pollScheduler = createScheduler();
+        pollScheduler.update(150, TIME, TIME.plusSeconds(149));
+        assertEquals(150, pollScheduler.getPageLimit());
+    }
+
+    @Test
+    public void invalidBounds() {
+        assertThrows(IllegalArgumentException.class, () -> new FeedPollScheduler(Duration.ofMinutes(5),
+                Duration.ofMinutes(1), Duration.ofMinutes(15), 100));
+        assertThrows(IllegalArgumentException.class, () -> new FeedPollScheduler(Duration.ofMinutes(1),
+                Duration.ofMinutes(5), Duration.ofMinutes(15), 0));
+    }
+}
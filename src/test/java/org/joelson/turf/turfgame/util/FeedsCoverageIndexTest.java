@@ -0,0 +1,95 @@
+package org.joelson.turf.turfgame.util;
+
+import org.joelson.turf.util.TimeUtil;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FeedsCoverageIndexTest {
+
+    private static FeedCoverage.Interval interval(String from, String to) {
+        return new FeedCoverage.Interval(toEpochSecond(from), toEpochSecond(to));
+    }
+
+    private static long toEpochSecond(String time) {
+        return TimeUtil.turfAPITimestampToInstant(time).getEpochSecond();
+    }
+
+    @Test
+    public void rebuildQueryAndAppend(@TempDir Path feedsPath) throws IOException {
+        Path feedsV5Path = Files.createDirectory(feedsPath.resolve("feeds_v5"));
+        try (Stream<Path> paths = Files.list(FeedsReaderTest.getFeedsV5Path())) {
+            for (Path path : paths.toList()) {
+                if (!path.getFileName().toString().equals("feeds_takeover_2024-06-15_19-27-45.json")) {
+                    Files.copy(path, feedsV5Path.resolve(path.getFileName().toString()));
+                }
+            }
+        }
+        assertEquals(2, FeedsCoverageIndex.rebuild(feedsPath));
+
+        long from = toEpochSecond("2024-06-15T19:00:00+0000");
+        long to = toEpochSecond("2024-06-15T20:00:00+0000");
+        Path lastTakeoverPath = feedsV5Path.resolve("feeds_takeover_2024-06-15_19-27-45.json");
+        try (FeedsCoverageIndex coverageIndex = new FeedsCoverageIndex(feedsPath)) {
+            assertEquals(List.of(interval("2024-06-15T19:00:00+0000", "2024-06-15T19:15:01+0000"),
+                            interval("2024-06-15T19:20:12+0000", "2024-06-15T20:00:00+0000")),
+                    coverageIndex.getGaps("feeds_v5", "takeover", from, to));
+            assertEquals(List.of(interval("2024-06-15T19:16:30+0000", "2024-06-15T19:24:00+0000")),
+                    coverageIndex.getIntervals("feeds_v5", "chat", from, to));
+            assertEquals(List.of(feedsV5Path.resolve("feeds_medal_chat_2024-06-15_19-24-00.json")),
+                    coverageIndex.getFeedPaths("feeds_v5", "medal", from, to));
+            assertEquals(List.of(interval("2024-06-15T19:00:00+0000", "2024-06-15T20:00:00+0000")),
+                    coverageIndex.getGaps("feeds_v4", "takeover", from, to));
+
+            assertTrue(coverageIndex.addFeedFile(lastTakeoverPath, toEpochSecond("2024-06-15T19:20:11+0000"),
+                    toEpochSecond("2024-06-15T19:27:45+0000")));
+            assertFalse(coverageIndex.addFeedFile(lastTakeoverPath, toEpochSecond("2024-06-15T19:20:11+0000"),
+                    toEpochSecond("2024-06-15T19:27:45+0000")));
+        }
+
+        // an incomplete last record is truncated when the index is reopened
+        Files.write(feedsPath.resolve(FeedsCoverageIndex.INDEX_FILE_NAME), new byte[] { 0, 0, 1 },
+                StandardOpenOption.APPEND);
+        try (FeedsCoverageIndex coverageIndex = new FeedsCoverageIndex(feedsPath)) {
+            assertEquals(List.of(interval("2024-06-15T19:00:00+0000", "2024-06-15T19:15:01+0000"),
+                            interval("2024-06-15T19:27:46+0000", "2024-06-15T20:00:00+0000")),
+                    coverageIndex.getGaps("feeds_v5", "takeover", from, to));
+            assertEquals(List.of(feedsV5Path.resolve("feeds_takeover_2024-06-15_19-20-11.json"), lastTakeoverPath),
+                    coverageIndex.getFeedPaths("feeds_v5", "takeover", from, to));
+        }
+    }
+
+    @Test
+    public void indexesCopiedFeedFilesWhenOpened(@TempDir Path feedsPath) throws IOException {
+        Path feedsV5Path = Files.createDirectory(feedsPath.resolve("feeds_v5"));
+        long from = toEpochSecond("2024-06-15T19:00:00+0000");
+        long to = toEpochSecond("2024-06-15T20:00:00+0000");
+        try (FeedsCoverageIndex coverageIndex = new FeedsCoverageIndex(feedsPath)) {
+            assertEquals(List.of(), coverageIndex.getIntervals("feeds_v5", "takeover", from, to));
+        }
+
+        Path takeoverPath = feedsV5Path.resolve("feeds_takeover_2024-06-15_19-20-11.json");
+        Files.copy(FeedsReaderTest.getFeedsV5Path().resolve(takeoverPath.getFileName().toString()), takeoverPath);
+        List<FeedCoverage.Interval> expected = List.of(
+                interval("2024-06-15T19:15:02+0000", "2024-06-15T19:20:11+0000"));
+        try (FeedsCoverageIndex coverageIndex = new FeedsCoverageIndex(feedsPath)) {
+            assertEquals(expected, coverageIndex.getIntervals("feeds_v5", "takeover", from, to));
+        }
+
+        // the copied feed file was appended to the index, so it is covered without reading it again
+        Files.delete(takeoverPath);
+        try (FeedsCoverageIndex coverageIndex = new FeedsCoverageIndex(feedsPath)) {
+            assertEquals(expected, coverageIndex.getIntervals("feeds_v5", "takeover", from, to));
+        }
+    }
+}
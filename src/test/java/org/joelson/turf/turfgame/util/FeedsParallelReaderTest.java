@@ -0,0 +1,55 @@
+package org.joelson.turf.turfgame.util;
+
+import org.joelson.turf.turfgame.FeedObject;
+import org.joelson.turf.turfgame.apiv5.FeedChat;
+import org.joelson.turf.turfgame.apiv5.FeedMedal;
+import org.joelson.turf.turfgame.apiv5.FeedTakeover;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FeedsParallelReaderTest {
+
+    private static final Map<String, Class<? extends FeedObject>> V5_TYPES = Map.of(
+            "chat", FeedChat.class, "medal", FeedMedal.class, "takeover", FeedTakeover.class);
+
+    private static List<Path> getFeedPaths() throws IOException {
+        try (Stream<Path> paths = Files.list(FeedsReaderTest.getFeedsV5Path())) {
+            return paths.sorted(new FeedsPathComparator()).toList();
+        }
+    }
+
+    private static List<FeedObject> readFeedObjects(int parallelism, boolean ordered) throws IOException {
+        DefaultFeedContentErrorHandler errorHandler = new DefaultFeedContentErrorHandler();
+        FeedsParallelReader feedsReader = new FeedsParallelReader(V5_TYPES, errorHandler, parallelism, ordered);
+        List<FeedObject> feedObjects = new ArrayList<>();
+        feedsReader.handleFeedObjectPaths(getFeedPaths(), path -> true, feedObjects::add);
+        assertTrue(errorHandler.getErrorPaths().isEmpty());
+        return feedObjects;
+    }
+
+    @Test
+    public void orderedReadIsMergedByTime() throws IOException {
+        List<FeedObject> feedObjects = readFeedObjects(2, true);
+        assertEquals(10, feedObjects.size());
+        for (int i = 1; i < feedObjects.size(); i += 1) {
+            assertTrue(feedObjects.get(i - 1).getTime().compareTo(feedObjects.get(i).getTime()) <= 0);
+        }
+        assertEquals("medal", feedObjects.get(2).getType());
+    }
+
+    @Test
+    public void unorderedReadDeliversAll() throws IOException {
+        assertEquals(10, readFeedObjects(1, false).size());
+        assertEquals(10, readFeedObjects(3, false).size());
+    }
+}
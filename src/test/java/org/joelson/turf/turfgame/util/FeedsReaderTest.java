@@ -0,0 +1,126 @@
+package org.joelson.turf.turfgame.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.joelson.turf.turfgame.FeedObject;
+import org.joelson.turf.turfgame.apiv5.FeedChat;
+import org.joelson.turf.turfgame.apiv5.FeedMedal;
+import org.joelson.turf.turfgame.apiv5.FeedTakeover;
+import org.joelson.turf.util.JacksonUtil;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FeedsReaderTest {
+
+    private static final Map<String, Class<? extends FeedObject>> V5_TYPES = Map.of(
+            "chat", FeedChat.class, "medal", FeedMedal.class, "takeover", FeedTakeover.class);
+
+    public static Path getFeedsV5Path() {
+        return new File(FeedsReaderTest.class.getResource("/feeds_v5").getFile()).toPath();
+    }
+
+    private static List<String> readFeedObjects(boolean streaming) throws IOException {
+        DefaultFeedContentErrorHandler errorHandler = new DefaultFeedContentErrorHandler();
+        FeedsReader feedsReader = new FeedsReader(V5_TYPES, errorHandler, false, true, streaming);
+        List<String> feedObjects = new ArrayList<>();
+        feedsReader.handleFeedObjectPath(getFeedsV5Path(), path -> true,
+                feedObject -> feedObjects.add(feedObject.toString()));
+        assertTrue(errorHandler.getErrorPaths().isEmpty());
+        return feedObjects;
+    }
+
+    @Test
+    public void streamingMatchesTreeReading() throws IOException {
+        List<String> treeFeedObjects = readFeedObjects(false);
+        List<String> streamedFeedObjects = readFeedObjects(true);
+        assertEquals(10, treeFeedObjects.size());
+        assertEquals(treeFeedObjects, streamedFeedObjects);
+    }
+
+    @Test
+    public void streamingKeepsTimeOrder() throws IOException {
+        DefaultFeedContentErrorHandler errorHandler = new DefaultFeedContentErrorHandler();
+        FeedsReader feedsReader = new FeedsReader(Map.of("takeover", FeedTakeover.class), errorHandler,
+                false, true, true);
+        List<String> times = new ArrayList<>();
+        feedsReader.handleFeedObjectPath(getFeedsV5Path(), path -> path.toString().contains("takeover"),
+                feedObject -> times.add(feedObject.getTime()));
+        assertEquals(7, times.size());
+        assertEquals("2024-06-15T19:15:02+0000", times.getFirst());
+        assertEquals("2024-06-15T19:27:45+0000", times.getLast());
+    }
+
+    @Test
+    public void feedObjectEpochSeconds() throws IOException {
+        FeedsReader feedsReader = new FeedsReader(V5_TYPES, new DefaultFeedContentErrorHandler(), false, true, true);
+        List<FeedObject> feedObjects = new ArrayList<>();
+        feedsReader.handleFeedObjectPath(getFeedsV5Path(), path -> true, feedObjects::add);
+        for (FeedObject feedObject : feedObjects) {
+            assertEquals(Instant.parse(feedObject.getTime().replace("+0000", "Z")), feedObject.getInstant());
+        }
+        List<FeedObject> sorted = feedObjects.stream().sorted(FeedObject.TIME_ORDER).toList();
+        assertEquals("2024-06-15T19:15:02+0000", sorted.getFirst().getTime());
+        assertEquals("2024-06-15T19:27:45+0000", sorted.getLast().getTime());
+        assertTrue(sorted.getFirst().isBefore(sorted.getLast()));
+        assertTrue(sorted.getLast().isAfter(sorted.getFirst()));
+        long from = Instant.parse("2024-06-15T19:16:30Z").getEpochSecond();
+        long to = Instant.parse("2024-06-15T19:20:11Z").getEpochSecond();
+        assertEquals(List.of("2024-06-15T19:16:30+0000", "2024-06-15T19:18:40+0000", "2024-06-15T19:20:11+0000"),
+                sorted.stream().filter(feedObject -> feedObject.isBetween(from, to)).map(FeedObject::getTime)
+                        .distinct().toList());
+    }
+
+    @Test
+    public void readsGzipFeedFiles(@TempDir Path directory) throws IOException {
+        try (Stream<Path> paths = Files.list(getFeedsV5Path())) {
+            for (Path path : paths.toList()) {
+                Path gzipPath = directory.resolve(path.getFileName() + ".gz");
+                try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(gzipPath))) {
+                    Files.copy(path, out);
+                }
+            }
+        }
+        for (boolean streaming : new boolean[] { false, true }) {
+            DefaultFeedContentErrorHandler errorHandler = new DefaultFeedContentErrorHandler();
+            FeedsReader feedsReader = new FeedsReader(V5_TYPES, errorHandler, false, true, streaming);
+            List<String> feedObjects = new ArrayList<>();
+            feedsReader.handleFeedObjectPath(directory, path -> true,
+                    feedObject -> feedObjects.add(feedObject.toString()));
+            assertTrue(errorHandler.getErrorPaths().isEmpty());
+            assertEquals(readFeedObjects(streaming), feedObjects);
+        }
+    }
+
+    @Test
+    public void streamingHandlesNoFeedObjectsOfFileWithErrors(@TempDir Path directory) throws IOException {
+        String fileName = "feeds_takeover_2024-06-15_19-20-11.json";
+        List<JsonNode> nodes = Arrays.asList(JacksonUtil.readValue(
+                Files.readString(getFeedsV5Path().resolve(fileName)), JsonNode[].class));
+        // feed objects in ascending time order followed by an element that is not an object
+        Path path = directory.resolve(fileName);
+        Files.writeString(path, nodes.reversed().stream().map(JsonNode::toString)
+                .collect(Collectors.joining(",", "[", ",42]")));
+        DefaultFeedContentErrorHandler errorHandler = new DefaultFeedContentErrorHandler();
+        FeedsReader feedsReader = new FeedsReader(V5_TYPES, errorHandler, false, false, true);
+        List<FeedObject> feedObjects = new ArrayList<>();
+        feedsReader.handleFeedObjectPath(path, p -> true, feedObjects::add);
+        assertEquals(List.of(path), errorHandler.getErrorPaths());
+        assertEquals(List.of(), feedObjects);
+    }
+}
@@ -0,0 +1,93 @@
+package org.joelson.turf.turfgame.util;
+
+import org.joelson.turf.util.TimeUtil;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class FeedsReplicationClientTest {
+
+    private static FeedCoverage.Interval interval(long from, long to) {
+        return new FeedCoverage.Interval(from, to);
+    }
+
+    private static long toEpochSecond(String time) {
+        return TimeUtil.turfAPITimestampToInstant(time).getEpochSecond();
+    }
+
+    private static Path createPeerFeeds(Path directory) throws IOException {
+        Path peerPath = Files.createDirectory(directory.resolve("peer_feeds"));
+        Path peerV5Path = Files.createDirectory(peerPath.resolve("feeds_v5"));
+        try (Stream<Path> paths = Files.list(FeedsReaderTest.getFeedsV5Path())) {
+            for (Path path : paths.toList()) {
+                Files.copy(path, peerV5Path.resolve(path.getFileName().toString()));
+            }
+        }
+        return peerPath;
+    }
+
+    @Test
+    public void backfillFromPeer(@TempDir Path directory) throws IOException {
+        Path peerPath = createPeerFeeds(directory);
+        Path localPath = Files.createDirectory(directory.resolve("local_feeds"));
+        // at most two feed objects per response makes the takeover interval two pages
+        FeedsReplicationServer server = new FeedsReplicationServer(peerPath, 2);
+        try {
+            Path localV5Path = Files.createDirectory(localPath.resolve("feeds_v5"));
+            Files.copy(peerPath.resolve("feeds_v5/feeds_takeover_2024-06-15_19-20-11.json"),
+                    localV5Path.resolve("feeds_takeover_2024-06-15_19-20-11.json"));
+
+            String peer = "http://localhost:" + server.start(0);
+            FeedsReplicationClient client = new FeedsReplicationClient(localPath, List.of(peer), 2);
+            assertEquals(3, client.backfill());
+
+            FeedsIndex localIndex = new FeedsIndex(localV5Path);
+            localIndex.refresh();
+            assertEquals(List.of(interval(toEpochSecond("2024-06-15T19:15:02+0000"),
+                            toEpochSecond("2024-06-15T19:27:45+0000"))),
+                    localIndex.getIntervals("takeover", Long.MIN_VALUE, Long.MAX_VALUE));
+            assertEquals(List.of(interval(toEpochSecond("2024-06-15T19:16:30+0000"),
+                            toEpochSecond("2024-06-15T19:24:00+0000"))),
+                    localIndex.getIntervals("chat", Long.MIN_VALUE, Long.MAX_VALUE));
+            try (FeedsCoverageIndex coverageIndex = new FeedsCoverageIndex(localPath)) {
+                assertEquals(localIndex.getIntervals("chat", Long.MIN_VALUE, Long.MAX_VALUE),
+                        coverageIndex.getIntervals("feeds_v5", "chat", Long.MIN_VALUE, Long.MAX_VALUE));
+            }
+            assertEquals(0, client.backfill());
+        } finally {
+            server.stop();
+        }
+    }
+
+    @Test
+    public void zippedFeedFilesAreCovered(@TempDir Path directory) throws IOException {
+        Path peerPath = createPeerFeeds(directory);
+        Path localPath = Files.createDirectory(directory.resolve("local_feeds"));
+        FeedsReplicationServer server = new FeedsReplicationServer(peerPath, 2);
+        try {
+            Path localV5Path = Files.createDirectory(localPath.resolve("feeds_v5"));
+            try (ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(localV5Path.resolve("2024-06.zip")));
+                    Stream<Path> paths = Files.list(peerPath.resolve("feeds_v5"))) {
+                for (Path path : paths.sorted().toList()) {
+                    out.putNextEntry(new ZipEntry(path.getFileName().toString()));
+                    Files.copy(path, out);
+                    out.closeEntry();
+                }
+            }
+
+            String peer = "http://localhost:" + server.start(0);
+            assertEquals(0, new FeedsReplicationClient(localPath, List.of(peer), 2).backfill());
+        } finally {
+            server.stop();
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package org.joelson.turf.turfgame.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.joelson.turf.util.JacksonUtil;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class FeedsReplicationServerTest {
+
+    private static final HttpClient httpClient = HttpClient.newHttpClient();
+
+    private static void copyFeedsDirectory(Path feedsPath) throws IOException {
+        Path feedsV5Path = Files.createDirectory(feedsPath.resolve("feeds_v5"));
+        try (Stream<Path> paths = Files.list(FeedsReaderTest.getFeedsV5Path())) {
+            for (Path path : paths.toList()) {
+                Files.copy(path, feedsV5Path.resolve(path.getFileName().toString()));
+            }
+        }
+    }
+
+    private static HttpResponse<InputStream> get(int port, String request, boolean gzip)
+            throws IOException, InterruptedException {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create("http://localhost:" + port + request));
+        if (gzip) {
+            builder.header("Accept-Encoding", "gzip");
+        }
+        return httpClient.send(builder.GET().build(), HttpResponse.BodyHandlers.ofInputStream());
+    }
+
+    private static JsonNode getJson(int port, String request, boolean gzip) throws IOException, InterruptedException {
+        HttpResponse<InputStream> response = get(port, request, gzip);
+        assertEquals(200, response.statusCode());
+        assertEquals(gzip ? "gzip" : null, response.headers().firstValue("Content-Encoding").orElse(null));
+        try (InputStream in = gzip ? new GZIPInputStream(response.body()) : response.body()) {
+            return JacksonUtil.readValue(new String(in.readAllBytes(), StandardCharsets.UTF_8), JsonNode.class);
+        }
+    }
+
+    private static List<String> getTimes(JsonNode feed) {
+        List<String> times = new ArrayList<>();
+        feed.forEach(node -> times.add(node.get("time").asText()));
+        return times;
+    }
+
+    @Test
+    public void serveFeedObjectsAndIntervals(@TempDir Path feedsPath) throws IOException, InterruptedException {
+        copyFeedsDirectory(feedsPath);
+        FeedsReplicationServer server = new FeedsReplicationServer(feedsPath, 3);
+        try {
+            int port = server.start(0);
+
+            JsonNode takeovers = getJson(port, "/v5/feeds/takeover", true);
+            assertEquals("2024-06-15T19:15:02+0000", takeovers.get("from").asText());
+            assertEquals("2024-06-15T19:18:40+0000", takeovers.get("to").asText());
+            assertEquals(List.of("2024-06-15T19:18:40+0000", "2024-06-15T19:15:02+0000", "2024-06-15T19:15:02+0000"),
+                    getTimes(takeovers.get("feed")));
+
+            // the takeover at 19:20:11 is in both feed files
+            takeovers = getJson(port, "/v5/feeds/takeover?afterDate=2024-06-15T19%3A18%3A40%2B0000", false);
+            assertEquals("2024-06-15T19:18:41+0000", takeovers.get("from").asText());
+            assertEquals("2024-06-15T19:27:45+0000", takeovers.get("to").asText());
+            assertEquals(List.of("2024-06-15T19:27:45+0000", "2024-06-15T19:22:30+0000", "2024-06-15T19:20:11+0000"),
+                    getTimes(takeovers.get("feed")));
+
+            JsonNode medals = getJson(port, "/v5/feeds/medal?afterDate=2024-06-15T19%3A00%3A00%2B0000"
+                    + "&beforeDate=2024-06-15T19%3A20%3A00%2B0000", true);
+            assertEquals("2024-06-15T19:00:01+0000", medals.get("from").asText());
+            assertEquals("2024-06-15T19:19:59+0000", medals.get("to").asText());
+            assertEquals(List.of("2024-06-15T19:16:30+0000"), getTimes(medals.get("feed")));
+
+            JsonNode intervals = getJson(port, "/v5/feeds/takeover/interval?from=2024-06-15T19%3A16%3A00%2B0000",
+                    true);
+            assertEquals("2024-06-15T19:15:02+0000", intervals.get("from").asText());
+            assertEquals("2024-06-15T19:27:45+0000", intervals.get("to").asText());
+            assertEquals(1, intervals.get("interval").size());
+            assertEquals(0, getJson(port, "/v5/feeds/zone/interval", false).get("interval").size());
+
+            assertEquals(404, get(port, "/v5/feeds/visit", false).statusCode());
+            assertEquals(404, get(port, "/v4/feeds/takeover", false).statusCode());
+            assertEquals(400, get(port, "/v5/feeds/takeover?afterDate=yesterday", false).statusCode());
+        } finally {
+            server.stop();
+        }
+    }
+
+    @Test
+    public void skipsUnreadableFeedFiles(@TempDir Path feedsPath) throws IOException, InterruptedException {
+        copyFeedsDirectory(feedsPath);
+        FeedsReplicationServer server = new FeedsReplicationServer(feedsPath, 10);
+        try {
+            int port = server.start(0);
+            Files.writeString(feedsPath.resolve("feeds_v5/feeds_takeover_2024-06-15_19-27-45.json"), "[{\"type\"");
+
+            JsonNode takeovers = getJson(port, "/v5/feeds/takeover", false);
+            assertEquals(List.of("2024-06-15T19:20:11+0000", "2024-06-15T19:18:40+0000", "2024-06-15T19:15:02+0000",
+                    "2024-06-15T19:15:02+0000"), getTimes(takeovers.get("feed")));
+        } finally {
+            server.stop();
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package org.joelson.turf.turfgame.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RequestRateLimiterTest {
+
+    @Test
+    public void permitsAreSpacedByInterval() throws Exception {
+        RequestRateLimiter rateLimiter = new RequestRateLimiter(Duration.ofMillis(50));
+        long start = System.nanoTime();
+        List<Long> permitTimes = Collections.synchronizedList(new ArrayList<>());
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 5; i += 1) {
+                executor.execute(() -> {
+                    try {
+                        rateLimiter.acquire();
+                        permitTimes.add(System.nanoTime());
+                    } catch (InterruptedException e) {
+                        throw new RuntimeException(e);
+                    }
+                });
+            }
+        }
+        assertEquals(5, permitTimes.size());
+        long last = permitTimes.stream().mapToLong(Long::longValue).max().orElseThrow();
+        assertTrue(last - start >= Duration.ofMillis(4 * 50).toNanos());
+    }
+}
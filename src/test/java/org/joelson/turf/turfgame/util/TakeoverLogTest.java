@@ -0,0 +1,42 @@
+package org.joelson.turf.turfgame.util;
+
+import org.joelson.turf.turfgame.apiv5.FeedTakeover;
+import org.joelson.turf.util.TimeUtil;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class TakeoverLogTest {
+
+    private static List<String> query(TakeoverLog takeoverLog, String from, String to) throws IOException {
+        List<String> times = new ArrayList<>();
+        takeoverLog.forEachTakeover(TimeUtil.turfAPITimestampToInstant(from), TimeUtil.turfAPITimestampToInstant(to),
+                FeedTakeover.class, takeover -> times.add(takeover.getTime()));
+        return times;
+    }
+
+    @Test
+    public void buildQueryAndReopen(@TempDir Path directory) throws IOException {
+        Path logPath = directory.resolve("takeovers_v5.log");
+        try (TakeoverLog takeoverLog = new TakeoverLog(logPath)) {
+            // overlapping takeover at 19:20:11 in both feed files is only appended once
+            assertEquals(6, takeoverLog.appendFeedPath(FeedsReaderTest.getFeedsV5Path()));
+            assertEquals(6, query(takeoverLog, "2024-06-15T00:00:00+0000", "2024-06-16T00:00:00+0000").size());
+            assertEquals(List.of("2024-06-15T19:18:40+0000", "2024-06-15T19:20:11+0000"),
+                    query(takeoverLog, "2024-06-15T19:18:40+0000", "2024-06-15T19:20:11+0000"));
+            assertEquals(List.of(), query(takeoverLog, "2024-06-15T19:28:00+0000", "2024-06-15T20:00:00+0000"));
+        }
+        try (TakeoverLog takeoverLog = new TakeoverLog(logPath)) {
+            assertEquals(Instant.parse("2024-06-15T19:27:45Z").getEpochSecond(), takeoverLog.getLastTime());
+            assertEquals(0, takeoverLog.appendFeedPath(FeedsReaderTest.getFeedsV5Path()));
+            assertEquals(2, query(takeoverLog, "2024-06-15T19:15:02+0000", "2024-06-15T19:15:02+0000").size());
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package org.joelson.turf.turfgame.util;
+
+import org.joelson.turf.turfgame.Zone;
+
+record TestZone(int id, double latitude, double longitude) implements Zone {
+
+    @Override
+    public int getId() {
+        return id;
+    }
+
+    @Override
+    public String getName() {
+        return "Zone" + id;
+    }
+
+    @Override
+    public double getLatitude() {
+        return latitude;
+    }
+
+    @Override
+    public double getLongitude() {
+        return longitude;
+    }
+}
@@ -0,0 +1,82 @@
+package org.joelson.turf.turfgame.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class ZoneIndexTest {
+
+    private static List<TestZone> createZones() {
+        Random random = new Random(17);
+        List<TestZone> zones = new ArrayList<>();
+        for (int i = 0; i < 2000; i += 1) {
+            // dense around Stockholm, some near the antimeridian and poles, and some anywhere
+            switch (i % 4) {
+                case 0, 1 -> zones.add(new TestZone(i, 59.3 + random.nextDouble() * 0.2,
+                        18.0 + random.nextDouble() * 0.2));
+                case 2 -> zones.add(new TestZone(i, random.nextDouble() * 180 - 90, random.nextDouble() * 360 - 180));
+                default -> zones.add(new TestZone(i, (random.nextBoolean() ? 89.5 : -10) + random.nextDouble() * 0.5,
+                        (random.nextBoolean() ? 179.8 : -180) + random.nextDouble() * 0.2));
+            }
+        }
+        return zones;
+    }
+
+    private static List<Integer> ids(List<TestZone> zones) {
+        return zones.stream().map(TestZone::getId).toList();
+    }
+
+    private static List<TestZone> scanWithinDistance(List<TestZone> zones, double latitude, double longitude,
+            double meters) {
+        return zones.stream().filter(zone -> ZoneUtil.calcDistance(latitude, longitude, zone) <= meters)
+                .sorted(Comparator.comparingDouble(zone -> ZoneUtil.calcDistance(latitude, longitude, zone)))
+                .toList();
+    }
+
+    @Test
+    public void withinDistanceMatchesScan() {
+        List<TestZone> zones = createZones();
+        for (double cellDegrees : new double[] { ZoneIndex.DEFAULT_CELL_DEGREES, 1, 45 }) {
+            ZoneIndex<TestZone> index = new ZoneIndex<>(zones, cellDegrees);
+            for (TestZone from : zones.subList(0, 40)) {
+                for (double meters : new double[] { 0, 500, 5000, 50000, 3e6, 2.5e7 }) {
+                    assertEquals(ids(scanWithinDistance(zones, from.latitude(), from.longitude(), meters)),
+                            ids(index.withinDistance(from.latitude(), from.longitude(), meters)));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void nearestMatchesScan() {
+        List<TestZone> zones = createZones();
+        ZoneIndex<TestZone> index = ZoneUtil.toSpatialIndex(zones);
+        for (TestZone from : zones.subList(0, 40)) {
+            for (int count : new int[] { 1, 5, 50 }) {
+                List<TestZone> expected = scanWithinDistance(zones, from.latitude(), from.longitude(), 2.5e7)
+                        .subList(0, count);
+                assertEquals(ids(expected), ids(index.nearest(from.latitude(), from.longitude(), count)));
+            }
+        }
+        assertEquals(zones.size(), index.nearest(0, 0, zones.size() + 1).size());
+    }
+
+    @Test
+    public void withinBoundsMatchesScan() {
+        List<TestZone> zones = createZones();
+        ZoneIndex<TestZone> index = new ZoneIndex<>(zones);
+        assertEquals(ids(zones.stream().filter(zone -> zone.latitude() >= 59.35 && zone.latitude() <= 59.4
+                        && zone.longitude() >= 18.05 && zone.longitude() <= 18.1).toList()),
+                ids(index.withinBounds(59.35, 18.05, 59.4, 18.1).stream()
+                        .sorted(Comparator.comparingInt(TestZone::getId)).toList()));
+        assertEquals(ids(zones.stream().filter(zone -> zone.latitude() >= -10 && zone.latitude() <= -9.5
+                        && (zone.longitude() >= 179.9 || zone.longitude() <= -179.9)).toList()),
+                ids(index.withinBounds(-10, 179.9, -9.5, -179.9).stream()
+                        .sorted(Comparator.comparingInt(TestZone::getId)).toList()));
+    }
+}
@@ -0,0 +1,80 @@
+package org.joelson.turf.turfgame.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class ZonePositionsTest {
+
+    private static List<TestZone> createZones(int count, long seed) {
+        Random random = new Random(seed);
+        List<TestZone> zones = new ArrayList<>();
+        for (int i = 0; i < count; i += 1) {
+            // close zones around Stockholm, some near the antimeridian and poles, and some anywhere
+            switch (i % 3) {
+                case 0 -> zones.add(new TestZone(i, 59.3 + random.nextDouble() * 0.01,
+                        18.0 + random.nextDouble() * 0.01));
+                case 1 -> zones.add(new TestZone(i, random.nextDouble() * 180 - 90, random.nextDouble() * 360 - 180));
+                default -> zones.add(new TestZone(i, (random.nextBoolean() ? 89.9 : -90) + random.nextDouble() * 0.1,
+                        (random.nextBoolean() ? 179.9 : -180) + random.nextDouble() * 0.1));
+            }
+        }
+        zones.add(new TestZone(count, 0, 0));
+        zones.add(new TestZone(count + 1, 0, 180));
+        return zones;
+    }
+
+    private static void assertDistance(double expected, double actual) {
+        assertEquals(expected, actual, 1e-6 + expected * 1e-9);
+    }
+
+    @Test
+    public void distanceMatrixMatchesCalcDistance() {
+        List<TestZone> zones = createZones(300, 17);
+        ZonePositions<TestZone> positions = ZoneUtil.toPositions(zones);
+        double[][] matrix = positions.distanceMatrix();
+        assertEquals(zones.size(), matrix.length);
+        for (int i = 0; i < zones.size(); i += 1) {
+            assertEquals(zones.size(), matrix[i].length);
+            for (int j = 0; j < zones.size(); j += 1) {
+                double expected = ZoneUtil.calcDistance(zones.get(i), zones.get(j));
+                assertDistance(expected, matrix[i][j]);
+                assertDistance(expected, positions.distance(i, j));
+            }
+        }
+    }
+
+    @Test
+    public void distancesToOtherMatchCalcDistance() {
+        List<TestZone> from = createZones(40, 4711);
+        List<TestZone> to = createZones(200, 42);
+        double[][] matrix = new ZonePositions<>(from).distanceMatrix(new ZonePositions<>(to));
+        assertEquals(from.size(), matrix.length);
+        for (int i = 0; i < from.size(); i += 1) {
+            for (int j = 0; j < to.size(); j += 1) {
+                assertDistance(ZoneUtil.calcDistance(from.get(i), to.get(j)), matrix[i][j]);
+            }
+        }
+    }
+
+    @Test
+    public void distancesFromMatchCalcDistance() {
+        List<TestZone> zones = createZones(500, 17);
+        ZonePositions<TestZone> positions = new ZonePositions<>(zones);
+        for (int i = 0; i < 20; i += 1) {
+            TestZone from = zones.get(i);
+            double[] fromIndex = positions.distancesFrom(i);
+            double[] fromPosition = positions.distancesFrom(from.latitude(), from.longitude());
+            for (int j = 0; j < zones.size(); j += 1) {
+                double expected = ZoneUtil.calcDistance(from, zones.get(j));
+                assertDistance(expected, fromIndex[j]);
+                assertDistance(expected, fromPosition[j]);
+            }
+        }
+        assertEquals(0, new ZonePositions<TestZone>(List.of()).distancesFrom(0, 0).length);
+    }
+}
@@ -4,8 +4,12 @@ import org.junit.jupiter.api.Test;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.zip.GZIPOutputStream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -23,6 +27,27 @@ class FilesUtilTest {
         assertFalse(FilesUtil.isZipFile(pathOfResource("regions.json")));
     }
 
+    @Test
+    void readGzipFileTest() throws IOException {
+        Path jsonPath = pathOfResource("regions.json");
+        String content = Files.readString(jsonPath);
+        Path gzipPath = Files.createTempFile("regions", ".json.gz");
+        try {
+            try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(gzipPath))) {
+                out.write(content.getBytes(StandardCharsets.UTF_8));
+            }
+            assertTrue(FilesUtil.isGzipFile(gzipPath));
+            assertFalse(FilesUtil.isGzipFile(jsonPath));
+            assertEquals(content, FilesUtil.readString(gzipPath));
+            assertEquals(content, FilesUtil.readString(jsonPath));
+            try (InputStream in = FilesUtil.newInputStream(gzipPath)) {
+                assertEquals(content, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+            }
+        } finally {
+            Files.delete(gzipPath);
+        }
+    }
+
     @Test
     void forEachFileTest() throws IOException {
         Path zipFilePath = pathOfResource("complex.zip");
@@ -0,0 +1,34 @@
+package org.joelson.turf.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class InterningPoolTest {
+
+    @Test
+    public void internTest() {
+        InterningPool<Integer, String> pool = new InterningPool<>(2);
+        String first = pool.intern(1, "a", () -> new String("a"));
+        assertSame(first, pool.intern(1, "a", () -> new String("a")));
+        String changed = pool.intern(1, "b", () -> new String("b"));
+        assertNotSame(first, changed);
+        assertSame(changed, pool.intern(1, "b", () -> new String("b")));
+        assertEquals(2, pool.getHits());
+        assertEquals(2, pool.getMisses());
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsed() {
+        InterningPool<Integer, String> pool = new InterningPool<>(2);
+        String one = pool.intern(1, "1", () -> new String("1"));
+        String two = pool.intern(2, "2", () -> new String("2"));
+        pool.intern(1, "1", () -> new String("1"));
+        pool.intern(3, "3", () -> new String("3"));
+        assertEquals(2, pool.size());
+        assertSame(one, pool.intern(1, "1", () -> new String("1")));
+        assertNotSame(two, pool.intern(2, "2", () -> new String("2")));
+    }
+}
@@ -0,0 +1,44 @@
+package org.joelson.turf.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LongHashSetTest {
+
+    @Test
+    public void addAndContains() {
+        LongHashSet set = new LongHashSet();
+        for (long i = -1000; i <= 1000; i += 1) {
+            assertTrue(set.add(i * 0x10000001L));
+        }
+        assertEquals(2001, set.size());
+        for (long i = -1000; i <= 1000; i += 1) {
+            assertFalse(set.add(i * 0x10000001L));
+            assertTrue(set.contains(i * 0x10000001L));
+            assertFalse(set.contains(i * 0x10000001L + 1));
+        }
+        assertEquals(2001, set.size());
+    }
+
+    @Test
+    public void removeIfTest() {
+        LongHashSet set = new LongHashSet(4);
+        for (long i = 0; i < 1000; i += 1) {
+            set.add(i);
+        }
+        assertEquals(990, set.removeIf(element -> element >= 10));
+        assertEquals(10, set.size());
+        assertTrue(set.contains(0));
+        assertTrue(set.contains(9));
+        assertFalse(set.contains(10));
+        assertEquals(1, set.removeIf(element -> element == 0));
+        assertFalse(set.contains(0));
+        assertTrue(set.add(0));
+        set.clear();
+        assertTrue(set.isEmpty());
+        assertFalse(set.contains(5));
+    }
+}
@@ -0,0 +1,47 @@
+package org.joelson.turf.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TimeUtilTest {
+
+    private static long toEpochSecond(String timestamp) {
+        byte[] bytes = ("\"" + timestamp + "\"").getBytes(StandardCharsets.US_ASCII);
+        long epochSecond = TimeUtil.turfAPITimestampToEpochSecond(bytes, 1, bytes.length - 2);
+        assertEquals(epochSecond, TimeUtil.turfAPITimestampToEpochSecond(timestamp));
+        return epochSecond;
+    }
+
+    @Test
+    public void turfAPITimestampToEpochSecondTest() {
+        assertEquals(Instant.parse("2024-06-15T19:20:11Z").getEpochSecond(), toEpochSecond("2024-06-15T19:20:11+0000"));
+        assertEquals(Instant.parse("2016-02-10T20:47:08Z").getEpochSecond(), toEpochSecond("2016-02-10T20:47:08"));
+        assertEquals(Instant.parse("2024-02-29T23:59:59Z").getEpochSecond(), toEpochSecond("2024-02-29T23:59:59+0000"));
+        assertEquals(0, toEpochSecond("1970-01-01T00:00:00+0000"));
+        assertEquals(Instant.parse("2024-06-15T19:20:11Z"),
+                TimeUtil.turfAPITimestampToInstant("2024-06-15T19:20:11+0000"));
+    }
+
+    @Test
+    public void turfAPITimestampToEpochSecondMatchesFormatter() {
+        for (long epochSecond = -86400L * 366 * 5; epochSecond < 86400L * 366 * 80; epochSecond += 86400 * 13 + 3607) {
+            String timestamp = TimeUtil.epochSecondToTurfAPITimestamp(epochSecond);
+            assertEquals(epochSecond, toEpochSecond(timestamp));
+        }
+    }
+
+    @Test
+    public void malformedTimestampTest() {
+        assertThrows(DateTimeParseException.class, () -> toEpochSecond("2023-02-29T12:00:00+0000"));
+        assertThrows(DateTimeParseException.class, () -> toEpochSecond("2024-06-15T24:00:00+0000"));
+        assertThrows(DateTimeParseException.class, () -> toEpochSecond("2024-06-15 19:20:11+0000"));
+        assertThrows(DateTimeParseException.class, () -> toEpochSecond("2024-06-1xT19:20:11+0000"));
+        assertThrows(RuntimeException.class, () -> toEpochSecond("2024-06-15"));
+    }
+}
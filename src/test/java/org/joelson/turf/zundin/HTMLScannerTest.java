@@ -0,0 +1,38 @@
+package org.joelson.turf.zundin;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class HTMLScannerTest {
+
+    private static final String HTML = "<table>"
+            + "<tr><td>Zone’s name</td><td align='right'> +8</td><td align='right'></td></tr>"
+            + "<tr><td>Southball</td><td align='right'>240</td><td>date('2024-06-15')</td></tr>"
+            + "</table>";
+
+    @Test
+    public void scansRowsOfPage() {
+        HTMLScanner scanner = new HTMLScanner(HTML);
+        int start = HTML.indexOf("<tr>");
+        int end = HTML.indexOf("</tr>", start);
+        scanner.setRow(start, end);
+        assertEquals("Zone’s name", scanner.cell(Parser.TABLE_CELL_TAG).stringValue());
+        assertEquals(8, scanner.cell(Parser.RIGHT_TABLE_CELL_TAG).integerValue());
+        assertTrue(scanner.cell(Parser.RIGHT_TABLE_CELL_TAG).isEmpty());
+        assertEquals(-1, scanner.integerValue(-1));
+
+        start = HTML.indexOf("<tr>", end);
+        scanner.setRow(start, HTML.indexOf("</tr>", start));
+        assertTrue(scanner.indexOf("Southball") > 0);
+        assertEquals(-1, scanner.indexOf("Zone’s name"));
+        assertEquals("Southball", scanner.cell(Parser.TABLE_CELL_TAG).stringValue());
+        assertFalse(scanner.startsWith(Parser.TABLE_CELL_TAG));
+        assertEquals(240, scanner.cell(Parser.RIGHT_TABLE_CELL_TAG).integerValue(-1));
+        assertEquals("2024-06-15", scanner.value("date('", "'").stringValue());
+        assertThrows(IllegalArgumentException.class, () -> scanner.value("date('", "</tr>"));
+    }
+}